@@ -25,7 +25,8 @@ public class WebConfig implements WebMvcConfigurer {
                         "/files/**",
                         "/manifest.json",
                         "/service-worker.js",
-                        "/icons/**"
+                        "/icons/**",
+                        "/stub/openai/**"
                 );
     }
 
@@ -3,7 +3,11 @@ package com.medicine.controller;
 import com.medicine.model.MedicineMode;
 import com.medicine.model.Role;
 import com.medicine.model.User;
+import com.medicine.scheduler.ScheduledJobCoordinator;
+import com.medicine.service.HotMediaCache;
+import com.medicine.service.MealAnalysisService;
 import com.medicine.service.MedicineModeService;
+import com.medicine.service.StorageGcService;
 import com.medicine.service.UserService;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +33,10 @@ public class AdminController {
 
     private final UserService userService;
     private final MedicineModeService medicineModeService;
+    private final ScheduledJobCoordinator jobCoordinator;
+    private final MealAnalysisService mealAnalysisService;
+    private final StorageGcService storageGcService;
+    private final HotMediaCache hotMediaCache;
 
     @GetMapping
     public String adminPage(HttpSession session, Model model) {
@@ -168,4 +176,64 @@ public class AdminController {
             return ResponseEntity.status(500).body(Map.of("success", false, "message", "모드 변경 중 오류가 발생했습니다."));
         }
     }
+
+    /**
+     * 스케줄 작업 실행 기록/통계 조회
+     */
+    @GetMapping("/jobs")
+    @ResponseBody
+    public ResponseEntity<?> getJobStats(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+
+        if (currentUser == null || currentUser.getRole() != Role.ADMIN) {
+            return ResponseEntity.status(403).body(Map.of("success", false, "message", "권한이 없습니다."));
+        }
+
+        return ResponseEntity.ok(Map.of("success", true, "jobs", jobCoordinator.getAllStats()));
+    }
+
+    /**
+     * 식단 AI 분석 작업 현황 조회
+     */
+    @GetMapping("/meal-analysis")
+    @ResponseBody
+    public ResponseEntity<?> getMealAnalysisStats(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+
+        if (currentUser == null || currentUser.getRole() != Role.ADMIN) {
+            return ResponseEntity.status(403).body(Map.of("success", false, "message", "권한이 없습니다."));
+        }
+
+        return ResponseEntity.ok(Map.of("success", true, "stats", mealAnalysisService.getQueueStats()));
+    }
+
+    /**
+     * 저장소 정리 마지막 실행 결과 조회
+     */
+    @GetMapping("/storage-gc")
+    @ResponseBody
+    public ResponseEntity<?> getStorageGcReport(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+
+        if (currentUser == null || currentUser.getRole() != Role.ADMIN) {
+            return ResponseEntity.status(403).body(Map.of("success", false, "message", "권한이 없습니다."));
+        }
+
+        return ResponseEntity.ok(Map.of("success", true, "report", storageGcService.getLastReport()));
+    }
+
+    /**
+     * 업로드 파일 메모리 캐시 통계 조회
+     */
+    @GetMapping("/media-cache")
+    @ResponseBody
+    public ResponseEntity<?> getMediaCacheStats(HttpSession session) {
+        User currentUser = (User) session.getAttribute("user");
+
+        if (currentUser == null || currentUser.getRole() != Role.ADMIN) {
+            return ResponseEntity.status(403).body(Map.of("success", false, "message", "권한이 없습니다."));
+        }
+
+        return ResponseEntity.ok(Map.of("success", true, "stats", hotMediaCache.getStats()));
+    }
 }
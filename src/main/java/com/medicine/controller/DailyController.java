@@ -3,6 +3,7 @@ package com.medicine.controller;
 import com.medicine.model.Daily;
 import com.medicine.model.DailyComment;
 import com.medicine.model.User;
+import com.medicine.service.DailyFeedService;
 import com.medicine.service.DailyService;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
@@ -22,9 +23,10 @@ import java.util.Map;
 public class DailyController {
 
     private final DailyService dailyService;
+    private final DailyFeedService dailyFeedService;
 
     /**
-     * 모든 일상 게시물 조회
+     * 모든 일상 게시물 조회 (검색 등 전체 목록이 필요한 경우)
      */
     @GetMapping
     public ResponseEntity<?> getAllDailies(HttpSession session) {
@@ -33,50 +35,30 @@ public class DailyController {
             return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
         }
 
-        List<Daily> dailies = dailyService.getAllDailies();
-        java.time.LocalDateTime threeDaysAgo = java.time.LocalDateTime.now().minusDays(3);
-
-        // 각 게시물에 현재 사용자의 좋아요 여부 및 NEW 뱃지 추가
-        List<Map<String, Object>> dailyList = dailies.stream().map(daily -> {
-            Map<String, Object> dailyMap = new HashMap<>();
-            dailyMap.put("id", daily.getId());
-            dailyMap.put("content", daily.getContent());
-            dailyMap.put("mediaUrl", daily.getMediaUrl());
-            dailyMap.put("mediaType", daily.getMediaType());
-            dailyMap.put("likesCount", daily.getLikesCount());
-            dailyMap.put("createdAt", daily.getCreatedAt());
-            dailyMap.put("isNew", daily.getCreatedAt().isAfter(threeDaysAgo));
-            dailyMap.put("commentsCount", daily.getComments().size());
-
-            // 다중 이미지 정보 추가
-            if (daily.getImages() != null && !daily.getImages().isEmpty()) {
-                List<Map<String, Object>> imagesList = daily.getImages().stream().map(image -> {
-                    Map<String, Object> imageMap = new HashMap<>();
-                    imageMap.put("id", image.getId());
-                    imageMap.put("imageUrl", image.getImageUrl());
-                    imageMap.put("imageOrder", image.getImageOrder());
-                    imageMap.put("mediaType", image.getMediaType());
-                    return imageMap;
-                }).toList();
-                dailyMap.put("images", imagesList);
-            } else {
-                dailyMap.put("images", List.of());
-            }
+        return ResponseEntity.ok(dailyFeedService.getAllDailies(user.getId()));
+    }
 
-            // User 정보 맵 생성 (profileImageUpdatedAt은 null일 수 있으므로 HashMap 사용)
-            Map<String, Object> userMap = new HashMap<>();
-            userMap.put("id", daily.getUser().getId());
-            userMap.put("username", daily.getUser().getUsername());
-            userMap.put("displayName", daily.getUser().getDisplayName() != null ? daily.getUser().getDisplayName() : daily.getUser().getUsername());
-            userMap.put("profileImage", daily.getUser().getProfileImage() != null ? daily.getUser().getProfileImage() : "");
-            userMap.put("profileImageUpdatedAt", daily.getUser().getProfileImageUpdatedAt());
-            dailyMap.put("user", userMap);
+    /**
+     * 일상 피드 페이지 조회 (최신순, 커서 기반)
+     *
+     * @param cursor 이전 응답의 nextCursor (첫 페이지는 생략)
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            HttpSession session) {
 
-            dailyMap.put("isLiked", dailyService.isLikedByUser(daily.getId(), user.getId()));
-            return dailyMap;
-        }).toList();
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
+        }
 
-        return ResponseEntity.ok(dailyList);
+        try {
+            return ResponseEntity.ok(dailyFeedService.getFeedPage(user.getId(), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     /**
@@ -160,13 +142,11 @@ public class DailyController {
 
         try {
             boolean liked = dailyService.toggleLike(dailyId, user);
-            Daily daily = dailyService.getDailyById(dailyId)
-                    .orElseThrow(() -> new IllegalArgumentException("게시물을 찾을 수 없습니다."));
 
             return ResponseEntity.ok(Map.of(
                 "success", true,
                 "liked", liked,
-                "likesCount", daily.getLikesCount()
+                "likesCount", dailyService.getLikesCount(dailyId)
             ));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
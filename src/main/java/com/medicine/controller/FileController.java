@@ -1,17 +1,19 @@
 package com.medicine.controller;
 
 import com.medicine.service.FileStorageService;
+import com.medicine.service.ImageVariantService;
+import com.medicine.service.MediaDeliveryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.apache.catalina.connector.ClientAbortException;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.io.IOException;
 import java.nio.file.Path;
 
 @Slf4j
@@ -20,42 +22,51 @@ import java.nio.file.Path;
 public class FileController {
 
     private final FileStorageService fileStorageService;
+    private final ImageVariantService imageVariantService;
+    private final MediaDeliveryService mediaDeliveryService;
 
+    /**
+     * 업로드 파일 제공 (조건부 요청/Range 지원)
+     *
+     * @param width 표시 폭 (지정 시 가장 가까운 축소본, 아직 없으면 원본)
+     */
     @GetMapping("/files/{type}/{filename:.+}")
-    public ResponseEntity<Resource> serveFile(@PathVariable String type, @PathVariable String filename) {
+    public void serveFile(@PathVariable String type, @PathVariable String filename,
+                          @RequestParam(value = "w", required = false) Integer width,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path originalPath;
         try {
-            Path filePath = fileStorageService.getFilePath(type, filename);
-            Resource resource = new UrlResource(filePath.toUri());
+            originalPath = fileStorageService.getFilePath(type, filename);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-            if (!resource.exists() || !resource.isReadable()) {
-                log.warn("File not found or not readable: type={}, filename={}", type, filename);
-                return ResponseEntity.notFound().build();
-            }
+        try {
+            Path filePath = width != null && width > 0
+                    ? imageVariantService.resolve(originalPath, width)
+                    : originalPath;
 
-            // Determine content type
-            String contentType = "application/octet-stream";
-            String lowerFilename = filename.toLowerCase();
-            if (lowerFilename.endsWith(".jpg") || lowerFilename.endsWith(".jpeg")) {
-                contentType = "image/jpeg";
-            } else if (lowerFilename.endsWith(".png")) {
-                contentType = "image/png";
-            } else if (lowerFilename.endsWith(".gif")) {
-                contentType = "image/gif";
-            } else if (lowerFilename.endsWith(".webp")) {
-                contentType = "image/webp";
-            }
+            // 축소본 대신 원본을 내려준 경우 축소본이 생기면 다시 받도록 짧게 캐시
+            boolean variantPending = width != null && width > 0 && filePath.equals(originalPath);
+            String cacheControl = variantPending ? "max-age=60" : "max-age=31536000"; // Cache for 1 year
 
-            log.debug("Serving file: type={}, filename={}, size={} bytes",
-                    type, filename, resource.contentLength());
+            if (!mediaDeliveryService.send(filePath, cacheControl, request, response)) {
+                log.warn("File not found or not readable: type={}, filename={}", type, filename);
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CACHE_CONTROL, "max-age=31536000") // Cache for 1 year
-                    .body(resource);
+            log.debug("Serving file: type={}, filename={}, status={}", type, filename, response.getStatus());
 
+        } catch (ClientAbortException e) {
+            log.debug("Client aborted file download: type={}, filename={}", type, filename);
         } catch (Exception e) {
             log.error("Error serving file: type={}, filename={}", type, filename, e);
-            return ResponseEntity.internalServerError().build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
         }
     }
 }
@@ -1,17 +1,18 @@
 package com.medicine.controller;
 
-import com.medicine.model.Activity;
 import com.medicine.model.MealCheck;
 import com.medicine.model.User;
-import com.medicine.service.ActivityService;
+import com.medicine.service.CalendarVersionService;
 import com.medicine.service.MealCheckService;
-import com.medicine.service.PushNotificationService;
 import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -27,8 +28,7 @@ import java.util.Map;
 public class MealCheckController {
 
     private final MealCheckService mealCheckService;
-    private final PushNotificationService pushNotificationService;
-    private final ActivityService activityService;
+    private final CalendarVersionService calendarVersionService;
 
     /**
      * 식단 이미지 업로드
@@ -58,37 +58,10 @@ public class MealCheckController {
 
             MealCheck mealCheck = mealCheckService.uploadMealImage(date, type, image, user);
 
-            log.info("Meal uploaded successfully - ID: {}, Score: {}",
-                    mealCheck.getId(), mealCheck.getScore());
-
-            // 활동 기록 생성
-            try {
-                String mealTypeName = type.getDisplayName();
-                String message = user.getDisplayName() + "님이 " + mealTypeName + " 식단을 업로드했습니다";
-                activityService.createActivity(user, Activity.ActivityType.MEAL_UPLOADED, message, mealCheck.getId());
-                log.info("Activity created for meal upload - User: {}, Type: {}", user.getUsername(), mealTypeName);
-            } catch (Exception e) {
-                log.error("Failed to create activity for meal upload", e);
-            }
-
-            // 식사 업로드 알림 전송
-            String mealTypeName = type.getDisplayName();
-            String notificationMessage = mealTypeName + " 식사가 업로드되었습니다";
-            Map<String, String> notificationData = Map.of(
-                    "type", "meal-upload",
-                    "mealType", type.name().toLowerCase(),
-                    "date", date.toString()
-            );
-            pushNotificationService.sendNotificationToAllUsersExcept(
-                    user.getUsername(),
-                    "🍽️ 식사 업로드 알림",
-                    notificationMessage,
-                    "/medicine",
-                    notificationData
-            );
-
-            log.info("FCM notification sent for meal upload - Type: {}", mealTypeName);
+            log.info("Meal uploaded successfully - ID: {}, Analysis: {}",
+                    mealCheck.getId(), mealCheck.getAnalysisStatus());
 
+            // 활동 기록/업로드 알림은 AI 분석이 끝나 식단이 확정된 뒤 MealAnalysisService 에서 전송
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("meal", mealCheck);
@@ -96,15 +69,9 @@ public class MealCheckController {
             return ResponseEntity.ok(response);
 
         } catch (IllegalArgumentException e) {
-            // AI가 음식을 찾지 못한 경우 또는 잘못된 식사 타입
-            String errorMessage = e.getMessage();
-            if (errorMessage != null && errorMessage.contains("음식을 찾을 수 없습니다")) {
-                log.warn("AI could not detect food in image: {}", errorMessage);
-                return ResponseEntity.badRequest().body(Map.of("error", errorMessage));
-            } else {
-                log.error("Invalid meal type: {}", mealType, e);
-                return ResponseEntity.badRequest().body(Map.of("error", "잘못된 식사 타입입니다."));
-            }
+            // 잘못된 식사 타입 (AI 분석 실패는 /topic/meals 로 비동기 전달)
+            log.error("Invalid meal type: {}", mealType, e);
+            return ResponseEntity.badRequest().body(Map.of("error", "잘못된 식사 타입입니다."));
         } catch (IOException e) {
             log.error("Failed to upload meal image", e);
             return ResponseEntity.status(500).body(Map.of("error", "이미지 업로드 중 오류가 발생했습니다."));
@@ -145,19 +112,32 @@ public class MealCheckController {
     public ResponseEntity<?> getMonthlyMealData(
             @PathVariable int year,
             @PathVariable int month,
-            HttpSession session) {
+            HttpSession session,
+            WebRequest webRequest) {
 
         User user = (User) session.getAttribute("user");
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
         }
 
+        // 월 버전이 같으면 DB 조회 없이 304
+        // 식단은 지난 날짜로도 업로드/삭제가 가능하므로 immutable 대신 매번 재검증
+        String etag = calendarVersionService.etag(CalendarVersionService.MEAL, year, month, null);
+        CacheControl cacheControl = calendarVersionService.cacheControl(year, month, false);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(etag).build();
+        }
+
         Map<String, Object> data = mealCheckService.getMonthlyMealData(year, month);
 
         log.debug("Monthly meal data requested - User: {}, Year: {}, Month: {}",
                 user.getUsername(), year, month);
 
-        return ResponseEntity.ok(data);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(cacheControl);
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(data);
     }
 
     /**
@@ -1,13 +1,17 @@
 package com.medicine.controller;
 
+import com.medicine.dto.ReminderScheduleRequest;
 import com.medicine.model.Activity;
 import com.medicine.model.Comment;
 import com.medicine.model.MedicineRecord;
+import com.medicine.model.ReminderSchedule;
 import com.medicine.model.Role;
 import com.medicine.model.User;
 import com.medicine.service.ActivityService;
+import com.medicine.service.CalendarVersionService;
 import com.medicine.service.CommentService;
 import com.medicine.service.FileStorageService;
+import com.medicine.service.MedicineSchedulerService;
 import com.medicine.service.MedicineService;
 import com.medicine.service.PointService;
 import com.medicine.service.PushNotificationService;
@@ -17,14 +21,18 @@ import jakarta.servlet.http.HttpSession;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
@@ -39,11 +47,13 @@ public class MedicineController {
     private String appVersion;
 
     private final MedicineService medicineService;
+    private final MedicineSchedulerService medicineSchedulerService;
     private final CommentService commentService;
     private final FileStorageService fileStorageService;
     private final PushNotificationService pushNotificationService;
     private final PointService pointService;
     private final ActivityService activityService;
+    private final CalendarVersionService calendarVersionService;
     private final UserService userService;
 
     @GetMapping("/")
@@ -101,9 +111,10 @@ public class MedicineController {
 
             // 포인트 적립 (FATHER 권한만)
             if (user.getRole() == Role.FATHER) {
+                // 같은 날 같은 약은 복용 취소 후 재기록해도 한 번만 적립
                 pointService.addPoints(user, 10, PointHistory.PointType.MEDICINE,
-                    type.getDisplayName() + " 약 복용");
-                log.info("Points added - User: {}, Points: +10, Type: MEDICINE", user.getUsername());
+                    type.getDisplayName() + " 약 복용",
+                    "medicine:" + record.getDate() + ":" + type.name() + ":" + user.getId());
             }
 
             // 활동 기록 생성
@@ -185,18 +196,95 @@ public class MedicineController {
     @ResponseBody
     public ResponseEntity<?> getCalendarData(@PathVariable int year,
                                             @PathVariable int month,
-                                            HttpSession session) {
+                                            @RequestParam(required = false) String format,
+                                            HttpSession session,
+                                            WebRequest webRequest) {
         User user = (User) session.getAttribute("user");
 
         if (user == null) {
             return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
         }
 
-        Map<String, Object> calendarData = medicineService.getMonthCalendarData(year, month);
+        boolean compact = "compact".equals(format);
+
+        // 월 버전이 같으면 DB 조회 없이 304 (복용 기록은 당일만 변경되므로 지난 달은 immutable)
+        String etag = calendarVersionService.etag(CalendarVersionService.MEDICINE, year, month, compact ? "compact" : null);
+        CacheControl cacheControl = calendarVersionService.cacheControl(year, month, true);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(etag).build();
+        }
+
+        Map<String, Object> calendarData = medicineService.getMonthCalendarData(year, month, compact);
 
         log.debug("Calendar data requested by user: {} for {}-{}", user.getUsername(), year, month);
 
-        return ResponseEntity.ok(calendarData);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(cacheControl);
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(calendarData);
+    }
+
+    // 연간 복용률 및 연속 복용일
+    @GetMapping("/api/medicine/adherence/{year}")
+    @ResponseBody
+    public ResponseEntity<?> getYearAdherence(@PathVariable int year, HttpSession session) {
+        User user = (User) session.getAttribute("user");
+
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
+        }
+
+        return ResponseEntity.ok(medicineService.getYearAdherence(year));
+    }
+
+    // 약 복용 알림 설정 조회
+    @GetMapping("/api/medicine/reminder-schedule")
+    @ResponseBody
+    public ResponseEntity<?> getReminderSchedule(HttpSession session) {
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
+        }
+
+        return ResponseEntity.ok(medicineSchedulerService.getSchedule(user));
+    }
+
+    // 약 복용 알림 설정 저장
+    @PutMapping("/api/medicine/reminder-schedule")
+    @ResponseBody
+    public ResponseEntity<?> updateReminderSchedule(@RequestBody ReminderScheduleRequest request, HttpSession session) {
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
+        }
+
+        try {
+            ReminderSchedule saved = medicineSchedulerService.updateSchedule(user, request);
+            return ResponseEntity.ok(Map.of("success", true, "schedule", saved));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 약 복용 알림 다시 알림
+    @PostMapping("/api/medicine/reminder/snooze")
+    @ResponseBody
+    public ResponseEntity<?> snoozeReminder(@RequestParam String medicineType,
+                                            @RequestParam(defaultValue = "30") int minutes,
+                                            HttpSession session) {
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
+        }
+
+        try {
+            MedicineRecord.MedicineType type = MedicineRecord.MedicineType.valueOf(medicineType.toUpperCase());
+            LocalDateTime snoozedUntil = medicineSchedulerService.snooze(user, type, minutes);
+            return ResponseEntity.ok(Map.of("success", true, "snoozedUntil", snoozedUntil.toString()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "잘못된 요청입니다."));
+        }
     }
 
     // 댓글 목록 조회
@@ -305,13 +393,6 @@ public class MedicineController {
             return ResponseEntity.status(403).body(Map.of("error", "삭제 권한이 없습니다."));
         }
 
-        // Delete comment image if exists
-        if (comment.getImageUrl() != null && !comment.getImageUrl().isEmpty()
-                && comment.getImageUrl().startsWith("data:image")) {
-            // Base64 이미지는 DB에만 저장되므로 삭제할 파일 없음
-            log.debug("Comment has Base64 image - CommentId: {}", commentId);
-        }
-
         commentService.deleteComment(commentId);
         log.info("Comment deleted - User: {}, CommentId: {}", user.getUsername(), commentId);
 
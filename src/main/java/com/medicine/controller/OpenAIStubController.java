@@ -0,0 +1,85 @@
+package com.medicine.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 로컬 OpenAI Chat Completions 대체 서버
+ * openai.base-url 을 이 주소로 바꾸면 실제 API 호출 없이 지연시간, 429(Retry-After), 503 을
+ * 흉내내어 식단 분석 경로를 오프라인에서 부하 테스트할 수 있게 함
+ */
+@Slf4j
+@RestController
+@RequestMapping("/stub/openai/v1")
+@ConditionalOnProperty(name = "openai.stub.enabled", havingValue = "true")
+public class OpenAIStubController {
+
+    private static final String STUB_CONTENT = "점수: 70점\n음식: 테스트 식단\n평가: 로컬 대체 서버 응답임.";
+
+    @Value("${openai.stub.latency-ms:800}")
+    private long latencyMs;
+
+    @Value("${openai.stub.jitter-ms:400}")
+    private long jitterMs;
+
+    @Value("${openai.stub.throttle-rate:0.05}")
+    private double throttleRate;
+
+    @Value("${openai.stub.error-rate:0.02}")
+    private double errorRate;
+
+    @PostMapping("/chat/completions")
+    public ResponseEntity<?> chatCompletions(HttpServletRequest request) throws IOException {
+        // 요청 바디는 내용과 관계없이 끝까지 읽기만 함 (업로드 시간 포함)
+        long received;
+        try (InputStream body = request.getInputStream()) {
+            received = body.transferTo(OutputStream.nullOutputStream());
+        }
+
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < throttleRate) {
+            return ResponseEntity.status(429)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", Map.of("message", "Simulated rate limit", "type", "rate_limit_error")));
+        }
+        if (roll < throttleRate + errorRate) {
+            return ResponseEntity.status(503)
+                    .body(Map.of("error", Map.of("message", "Simulated upstream error", "type", "server_error")));
+        }
+
+        long delayMs = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (delayMs > 0) {
+            LockSupport.parkNanos(delayMs * 1_000_000L);
+        }
+
+        // 이미지 토큰은 대략 요청 크기 기준으로 흉내냄
+        long promptTokens = 100 + received / 1000;
+        long completionTokens = 60;
+        return ResponseEntity.ok(Map.of(
+                "id", "chatcmpl-stub-" + UUID.randomUUID(),
+                "object", "chat.completion",
+                "choices", List.of(Map.of(
+                        "index", 0,
+                        "message", Map.of("role", "assistant", "content", STUB_CONTENT),
+                        "finish_reason", "stop")),
+                "usage", Map.of(
+                        "prompt_tokens", promptTokens,
+                        "completion_tokens", completionTokens,
+                        "total_tokens", promptTokens + completionTokens)));
+    }
+}
@@ -4,14 +4,18 @@ import com.medicine.model.PointItem;
 import com.medicine.model.Role;
 import com.medicine.model.User;
 import com.medicine.service.FileStorageService;
+import com.medicine.service.PointHistoryExportService;
 import com.medicine.service.PointItemService;
 import com.medicine.service.PointService;
 import com.medicine.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpSession;
 import java.util.HashMap;
@@ -28,6 +32,7 @@ public class PointController {
     private final PointItemService pointItemService;
     private final UserService userService;
     private final FileStorageService fileStorageService;
+    private final PointHistoryExportService pointHistoryExportService;
 
     /**
      * 포인트 아이템 목록 조회
@@ -42,7 +47,9 @@ public class PointController {
      * 포인트 아이템 구매
      */
     @PostMapping("/purchase/{itemId}")
-    public ResponseEntity<?> purchaseItem(@PathVariable Long itemId, HttpSession session) {
+    public ResponseEntity<?> purchaseItem(@PathVariable Long itemId,
+                                          @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                          HttpSession session) {
         try {
             String username = (String) session.getAttribute("username");
             if (username == null) {
@@ -52,7 +59,8 @@ public class PointController {
             User user = userService.findByUsername(username)
                     .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
 
-            pointService.purchaseItem(user, itemId);
+            pointService.purchaseItem(user, itemId,
+                    idempotencyKey != null ? "purchase:" + user.getId() + ":" + idempotencyKey : null);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -68,6 +76,53 @@ public class PointController {
         }
     }
 
+    /**
+     * 포인트 히스토리 조회 (키셋 페이지네이션)
+     */
+    @GetMapping("/history")
+    public ResponseEntity<?> getPointHistory(@RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "20") int size,
+                                             HttpSession session) {
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
+        }
+
+        try {
+            return ResponseEntity.ok(pointService.getPointHistoryPage(user, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * 포인트 히스토리 내보내기 (format: csv | ndjson)
+     */
+    @GetMapping("/history/export")
+    public ResponseEntity<?> exportPointHistory(@RequestParam(defaultValue = "csv") String format,
+                                                HttpSession session) {
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "인증되지 않은 사용자입니다."));
+        }
+
+        PointHistoryExportService.Format exportFormat;
+        try {
+            exportFormat = PointHistoryExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "지원하지 않는 형식입니다: " + format));
+        }
+
+        Long userId = user.getId();
+        StreamingResponseBody body = output -> pointHistoryExportService.export(userId, exportFormat, output);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"point-history." + exportFormat.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
     /**
      * 모든 포인트 아이템 조회 (관리자용)
      */
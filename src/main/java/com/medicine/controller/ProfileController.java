@@ -16,6 +16,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Objects;
 
 @Slf4j
 @Controller
@@ -96,8 +97,13 @@ public class ProfileController {
                         user.getUsername(), imagePath, profileImage.getSize());
             }
 
-            // Save user
-            userService.save(updatedUser);
+            // Save user (이름/사진이 바뀌면 피드 캐시 무효화)
+            boolean displayNameChanged = !Objects.equals(oldDisplayName, updatedUser.getDisplayName());
+            if (displayNameChanged || profileImageChanged) {
+                userService.updateProfile(updatedUser);
+            } else {
+                userService.save(updatedUser);
+            }
 
             // Update session
             session.setAttribute("user", updatedUser);
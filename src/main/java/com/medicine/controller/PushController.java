@@ -1,7 +1,11 @@
 package com.medicine.controller;
 
+import com.medicine.model.PushSubscription;
+import com.medicine.model.Role;
 import com.medicine.model.User;
 import com.medicine.service.PushNotificationService;
+import com.medicine.service.push.PushBenchmarkService;
+import com.medicine.service.push.WebPushSender;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +25,8 @@ import java.util.Map;
 public class PushController {
 
     private final PushNotificationService pushNotificationService;
+    private final PushBenchmarkService pushBenchmarkService;
+    private final WebPushSender webPushSender;
 
     /**
      * FCM 토큰 등록
@@ -97,6 +103,73 @@ public class PushController {
         }
     }
 
+    /**
+     * Web Push(VAPID) 공개키 조회
+     */
+    @GetMapping("/vapid-public-key")
+    public ResponseEntity<Map<String, Object>> getVapidPublicKey() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", webPushSender.isEnabled());
+        response.put("publicKey", webPushSender.isEnabled() ? webPushSender.getPublicKey() : null);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Web Push 구독 등록
+     * 브라우저 PushManager.subscribe() 결과(endpoint, keys)를 그대로 받아 저장
+     */
+    @PostMapping("/subscription")
+    public ResponseEntity<Map<String, Object>> subscribe(
+            @RequestBody PushSubscription subscription,
+            HttpSession session) {
+
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "error", "Unauthorized"));
+        }
+
+        try {
+            webPushSender.subscribe(user.getUsername(), subscription);
+            return ResponseEntity.ok(Map.of("success", true, "message", "Push subscription registered successfully"));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to register push subscription", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to register subscription"));
+        }
+    }
+
+    /**
+     * Web Push 구독 삭제
+     */
+    @DeleteMapping("/subscription")
+    public ResponseEntity<Map<String, Object>> unsubscribe(
+            @RequestBody Map<String, String> request,
+            HttpSession session) {
+
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "error", "Unauthorized"));
+        }
+
+        String endpoint = request.get("endpoint");
+        if (endpoint == null || endpoint.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", "Endpoint is required"));
+        }
+
+        try {
+            webPushSender.unsubscribe(user.getUsername(), endpoint);
+            return ResponseEntity.ok(Map.of("success", true, "message", "Push subscription removed successfully"));
+
+        } catch (Exception e) {
+            log.error("Failed to remove push subscription", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to remove subscription"));
+        }
+    }
+
     /**
      * 테스트용 알림 전송
      */
@@ -152,4 +225,60 @@ public class PushController {
                     .body(Map.of("success", false, "error", "Failed to get token info"));
         }
     }
+
+    /**
+     * 디버그: 전체 발송 처리량 벤치마크 시작 (관리자용, push.transport=local 에서만 동작)
+     * 백그라운드로 실행하고 작업 ID 를 바로 반환 (결과는 GET /debug/benchmark/{jobId})
+     */
+    @PostMapping("/debug/benchmark")
+    public ResponseEntity<Map<String, Object>> runBenchmark(
+            @RequestParam(defaultValue = "10000") int tokens,
+            @RequestParam(defaultValue = "0") int unregistered,
+            HttpSession session) {
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "error", "Unauthorized"));
+        }
+
+        if (user.getRole() != Role.ADMIN) {
+            return ResponseEntity.status(403).body(Map.of("success", false, "error", "Forbidden"));
+        }
+
+        try {
+            String jobId = pushBenchmarkService.startBroadcastBenchmark(tokens, unregistered);
+            return ResponseEntity.accepted().body(Map.of("success", true, "jobId", jobId,
+                    "statusUrl", "/api/push/debug/benchmark/" + jobId));
+
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Failed to start push benchmark", e);
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("success", false, "error", "Failed to start push benchmark"));
+        }
+    }
+
+    /**
+     * 디버그: 벤치마크 작업 상태/결과 조회 (관리자용)
+     */
+    @GetMapping("/debug/benchmark/{jobId}")
+    public ResponseEntity<Map<String, Object>> getBenchmark(@PathVariable String jobId, HttpSession session) {
+        User user = (User) session.getAttribute("user");
+        if (user == null) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "error", "Unauthorized"));
+        }
+
+        if (user.getRole() != Role.ADMIN) {
+            return ResponseEntity.status(403).body(Map.of("success", false, "error", "Forbidden"));
+        }
+
+        return pushBenchmarkService.getJob(jobId)
+                .map(job -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("job", job);
+                    return ResponseEntity.ok(response);
+                })
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("success", false, "error", "Job not found")));
+    }
 }
@@ -54,6 +54,7 @@ public class StockController {
     @PostMapping("/buy")
     public ResponseEntity<Map<String, Object>> buyStock(
             @RequestBody Map<String, Object> request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             HttpSession session) {
         try {
             String username = (String) session.getAttribute("username");
@@ -72,7 +73,8 @@ public class StockController {
             Long buyPrice = ((Number) request.get("buyPrice")).longValue();
             Integer quantity = ((Number) request.get("quantity")).intValue();
 
-            Stock stock = stockService.buyStock(user, stockCode, market, buyPrice, quantity);
+            Stock stock = stockService.buyStock(user, stockCode, market, buyPrice, quantity,
+                    idempotencyKey != null ? "stock:" + user.getId() + ":" + idempotencyKey : null);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
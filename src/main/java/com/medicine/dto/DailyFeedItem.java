@@ -0,0 +1,29 @@
+package com.medicine.dto;
+
+import com.medicine.model.Daily;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 피드 게시물 (보는 사용자와 무관한 정보만, Redis 캐시 대상)
+ * 좋아요/댓글 수는 자주 바뀌므로 포함하지 않고 응답 시 DailyFeedCache.Counts 로 합침
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyFeedItem {
+    private Long id;                           // 게시물 ID
+    private String content;                    // 글 내용
+    private String mediaUrl;                   // 단일 이미지/영상 URL (하위 호환)
+    private Daily.MediaType mediaType;         // IMAGE, VIDEO
+    private LocalDateTime createdAt;           // 작성 시각
+    private List<Map<String, Object>> images;  // 다중 이미지 (id, imageUrl, imageOrder, mediaType)
+    private Map<String, Object> user;          // 작성자 (id, username, displayName, profileImage, profileImageUpdatedAt)
+}
@@ -0,0 +1,18 @@
+package com.medicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 피드 한 페이지 (보는 사용자와 무관, Redis 캐시 대상)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyFeedPage {
+    private List<DailyFeedItem> dailies;  // 게시물 목록 (최신순)
+    private String nextCursor;            // 다음 페이지 커서 (마지막 페이지면 null)
+}
@@ -0,0 +1,12 @@
+package com.medicine.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 일별 식단 점수 집계 (프로젝션)
+ */
+public interface DailyMealScore {
+    LocalDate getDate();         // 날짜
+    Double getAverageScore();    // 평균 점수 (점수 없는 식단 제외, 모두 없으면 null)
+    Long getMealCount();         // 식단 수
+}
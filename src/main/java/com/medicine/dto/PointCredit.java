@@ -0,0 +1,22 @@
+package com.medicine.dto;
+
+import com.medicine.model.PointHistory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 일괄 포인트 적립 항목
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointCredit {
+    private Long userId;                   // 사용자 ID
+    private Integer points;                // 적립 포인트
+    private PointHistory.PointType type;   // 포인트 타입
+    private String description;            // 설명
+    private String idempotencyKey;         // 중복 적립 방지 키 (필수)
+}
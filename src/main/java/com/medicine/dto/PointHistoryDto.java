@@ -0,0 +1,25 @@
+package com.medicine.dto;
+
+import com.medicine.model.PointHistory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 포인트 히스토리 조회용 프로젝션 (user/pointItem 연관 로딩 없이 필요한 컬럼만)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointHistoryDto {
+    private Long id;                       // 히스토리 ID
+    private Integer points;                // 포인트 변동
+    private PointHistory.PointType type;   // 포인트 타입
+    private String description;            // 설명
+    private String itemName;               // 구매 아이템명 (구매 시에만)
+    private LocalDateTime createdAt;       // 발생 시각
+}
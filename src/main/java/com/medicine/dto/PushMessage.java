@@ -0,0 +1,23 @@
+package com.medicine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 전송 수단(FCM, 로컬 시뮬레이터 등)과 무관한 푸시 메시지
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushMessage {
+    private String token;              // 대상 토큰
+    private String title;              // 알림 제목
+    private String body;               // 알림 내용
+    private String url;                // 클릭 시 이동할 URL
+    private Map<String, String> data;  // 데이터 페이로드
+}
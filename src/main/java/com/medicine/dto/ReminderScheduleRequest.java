@@ -0,0 +1,21 @@
+package com.medicine.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+/**
+ * 약 복용 알림 설정 저장 요청
+ */
+@Data
+@NoArgsConstructor
+public class ReminderScheduleRequest {
+    private boolean enabled = true;
+    private LocalTime morningTime;            // 아침 첫 알림 시각
+    private LocalTime eveningTime;            // 저녁 첫 알림 시각
+    private Integer repeatIntervalMinutes;    // 미복용 시 재알림 간격 (5분 이상)
+    private Integer maxRepeats;               // 하루 최대 알림 횟수 (1~12)
+    private LocalTime quietStart;             // 방해 금지 시작 (null 이면 사용 안 함)
+    private LocalTime quietEnd;               // 방해 금지 종료
+}
@@ -0,0 +1,24 @@
+package com.medicine.exception;
+
+/**
+ * OpenAI API 호출 실패
+ * 재시도 한도/전체 제한시간을 모두 소진했거나 재시도할 수 없는 응답을 받은 경우
+ */
+public class OpenAIException extends RuntimeException {
+
+    private final int statusCode;  // HTTP 응답을 받지 못한 경우 0
+
+    public OpenAIException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public OpenAIException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
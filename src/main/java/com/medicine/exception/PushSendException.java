@@ -0,0 +1,39 @@
+package com.medicine.exception;
+
+/**
+ * 푸시 전송 실패
+ * 전송 수단별 오류를 공통 오류 코드로 변환하여 전달
+ */
+public class PushSendException extends RuntimeException {
+
+    private final ErrorCode errorCode;
+
+    public PushSendException(ErrorCode errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    public PushSendException(ErrorCode errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * 더 이상 유효하지 않은 토큰이라 저장소에서 제거해야 하는지 여부
+     */
+    public boolean isInvalidToken() {
+        return errorCode == ErrorCode.UNREGISTERED || errorCode == ErrorCode.INVALID_ARGUMENT;
+    }
+
+    public enum ErrorCode {
+        UNREGISTERED,
+        INVALID_ARGUMENT,
+        QUOTA_EXCEEDED,
+        UNAVAILABLE,
+        INTERNAL
+    }
+}
@@ -28,7 +28,7 @@ public class Comment implements Serializable {
     private String content;  // 댓글 내용
 
     @Column(columnDefinition = "TEXT")
-    private String imageUrl;  // 첨부 이미지 (Base64)
+    private String imageUrl;  // 첨부 이미지 URL (/files/image/..., 이관 전 기록은 Base64)
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
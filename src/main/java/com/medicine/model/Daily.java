@@ -10,7 +10,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "daily")
+@Table(name = "daily", indexes = {
+    @Index(name = "idx_daily_created_id", columnList = "created_at, id")  // 피드 커서 페이지
+})
 @Data
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Daily {
@@ -34,9 +36,13 @@ public class Daily {
     @Column(length = 10)
     private MediaType mediaType;  // IMAGE, VIDEO
 
-    @Column(nullable = false)
+    // 카운터는 원자적 UPDATE(DailyRepository.adjust*Count)로만 변경 (엔티티 저장 시 덮어쓰지 않음)
+    @Column(nullable = false, updatable = false)
     private Integer likesCount = 0;  // 좋아요 수
 
+    @Column(name = "comments_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private Integer commentsCount = 0;  // 댓글 수
+
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
@@ -72,6 +78,9 @@ public class Daily {
         if (likesCount == null) {
             likesCount = 0;
         }
+        if (commentsCount == null) {
+            commentsCount = 0;
+        }
     }
 
     @PreUpdate
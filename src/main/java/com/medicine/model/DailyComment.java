@@ -8,7 +8,9 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "daily_comment")
+@Table(name = "daily_comment", indexes = {
+    @Index(name = "idx_daily_comment_daily", columnList = "daily_id")
+})
 @Data
 public class DailyComment {
 
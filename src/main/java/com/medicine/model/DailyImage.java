@@ -11,7 +11,9 @@ import java.time.LocalDateTime;
  * 인스타그램 스타일의 여러 이미지를 하나의 게시물에 첨부할 수 있습니다.
  */
 @Entity
-@Table(name = "daily_images")
+@Table(name = "daily_images", indexes = {
+    @Index(name = "idx_daily_images_daily", columnList = "daily_id")
+})
 @Data
 public class DailyImage {
 
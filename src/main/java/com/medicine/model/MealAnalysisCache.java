@@ -0,0 +1,57 @@
+package com.medicine.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 식단 AI 분석 결과 캐시 (이미지 dHash 기준)
+ * 같은/거의 같은 사진 재업로드 시 OpenAI 재호출 없이 결과 재사용
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "meal_analysis_cache", indexes = {
+    @Index(name = "idx_analysis_cache_hash", columnList = "image_hash")
+})
+public class MealAnalysisCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "image_hash", nullable = false)
+    private Long imageHash;  // 64비트 dHash
+
+    @Column(nullable = false)
+    private Integer score;  // AI가 매긴 점수 (0-100)
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String aiEvaluation;  // AI 평가 전문
+
+    @Column(name = "analysis_ms")
+    private Long analysisMs;  // 최초 분석에 걸린 시간
+
+    @Column(name = "hit_count", nullable = false)
+    private Integer hitCount = 0;  // 재사용 횟수
+
+    @Column(name = "last_hit_at")
+    private LocalDateTime lastHitAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
@@ -14,9 +14,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "meal_checks", indexes = {
-    @Index(name = "idx_date", columnList = "date"),
+    @Index(name = "idx_date_score", columnList = "date, score"),  // 날짜별 점수 집계용 커버링 인덱스
     @Index(name = "idx_meal_type", columnList = "meal_type"),
-    @Index(name = "idx_uploaded_by", columnList = "uploaded_by")
+    @Index(name = "idx_uploaded_by", columnList = "uploaded_by"),
+    @Index(name = "idx_analysis_status", columnList = "analysis_status")
 })
 public class MealCheck implements Serializable {
 
@@ -48,6 +49,16 @@ public class MealCheck implements Serializable {
 
     private Integer score;  // AI가 매긴 점수 (0-100)
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "analysis_status", length = 20)
+    private AnalysisStatus analysisStatus;  // AI 분석 상태 (null: 동기 분석 시절 기록 = 완료)
+
+    @Column(name = "analysis_started_at")
+    private LocalDateTime analysisStartedAt;  // 분석 작업 점유 시각
+
+    @Column(name = "analysis_attempts")
+    private Integer analysisAttempts = 0;  // 분석 시도 횟수
+
     @PrePersist
     protected void onCreate() {
         if (uploadedAt == null) {
@@ -55,6 +66,12 @@ public class MealCheck implements Serializable {
         }
     }
 
+    public enum AnalysisStatus {
+        PENDING,     // 분석 대기 (영속 큐)
+        ANALYZING,   // 작업자가 점유하여 분석 중
+        COMPLETED    // 분석 완료
+    }
+
     public enum MealType {
         BREAKFAST("아침"),
         LUNCH("점심"),
@@ -0,0 +1,87 @@
+package com.medicine.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 약 복용 일별 집계 (달력/복용률 조회용)
+ * medicine_records 변경 시 증분 갱신되며, 하루 한 행에 약 종류별 복용 여부를 비트로 저장
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "medicine_daily_rollups", indexes = {
+    @Index(name = "idx_rollup_year_month_day", columnList = "year, month, day", unique = true)
+})
+public class MedicineDailyRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private Integer month;
+
+    @Column(nullable = false)
+    private Integer day;
+
+    @Column(name = "taken_bits", nullable = false)
+    private Integer takenBits = 0;  // 1 << MedicineType.ordinal()
+
+    @Column(name = "morning_taken_at")
+    private LocalDateTime morningTakenAt;
+
+    @Column(name = "lunch_taken_at")
+    private LocalDateTime lunchTakenAt;
+
+    @Column(name = "evening_taken_at")
+    private LocalDateTime eveningTakenAt;
+
+    public static int bitOf(MedicineRecord.MedicineType medicineType) {
+        return 1 << medicineType.ordinal();
+    }
+
+    public boolean isTaken(MedicineRecord.MedicineType medicineType) {
+        return (takenBits & bitOf(medicineType)) != 0;
+    }
+
+    public LocalDateTime getTakenAt(MedicineRecord.MedicineType medicineType) {
+        switch (medicineType) {
+            case MORNING:
+                return morningTakenAt;
+            case LUNCH:
+                return lunchTakenAt;
+            default:
+                return eveningTakenAt;
+        }
+    }
+
+    /**
+     * 복용 여부/시각 반영
+     */
+    public void apply(MedicineRecord.MedicineType medicineType, boolean taken, LocalDateTime takenAt) {
+        takenBits = taken ? (takenBits | bitOf(medicineType)) : (takenBits & ~bitOf(medicineType));
+        LocalDateTime value = taken ? takenAt : null;
+        switch (medicineType) {
+            case MORNING:
+                morningTakenAt = value;
+                break;
+            case LUNCH:
+                lunchTakenAt = value;
+                break;
+            default:
+                eveningTakenAt = value;
+        }
+    }
+}
@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "point_history", indexes = {
     @Index(name = "idx_user_history", columnList = "user_id"),
-    @Index(name = "idx_created_at_history", columnList = "created_at")
+    @Index(name = "idx_created_at_history", columnList = "created_at"),
+    @Index(name = "idx_user_created_id_history", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_idempotency_key_history", columnList = "idempotency_key", unique = true)
 })
 public class PointHistory implements Serializable {
 
@@ -42,6 +44,9 @@ public class PointHistory implements Serializable {
     @JoinColumn(name = "point_item_id")
     private PointItem pointItem;  // 구매한 아이템 (구매 시에만)
 
+    @Column(name = "idempotency_key", length = 120)
+    private String idempotencyKey;  // 중복 적립/차감 방지 키 (선택)
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -56,7 +61,9 @@ public class PointHistory implements Serializable {
         MEDICINE("약 복용"),
         MEAL("식단 관리"),
         PURCHASE("상품 구매"),
-        MANUAL("수동 지급");
+        STOCK("주식 매수"),
+        MANUAL("수동 지급"),
+        ADJUSTMENT("잔액 보정");
 
         private final String displayName;
 
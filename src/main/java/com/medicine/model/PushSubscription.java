@@ -32,6 +32,10 @@ public class PushSubscription implements Serializable {
     @JsonProperty("keys")
     private Keys keys;
 
+    // 같은 브라우저의 FCM 토큰 (있으면 이 구독으로 보낸 알림은 FCM 으로 다시 보내지 않음)
+    @JsonProperty("fcmToken")
+    private String fcmToken;
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -0,0 +1,94 @@
+package com.medicine.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * 사용자별 약 복용 알림 설정
+ * 설정이 없는 사용자는 기본값(아침 9시/저녁 7시, 1시간 간격 3회)을 사용
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reminder_schedules", indexes = {
+    @Index(name = "idx_reminder_user", columnList = "user_id", unique = true)
+})
+public class ReminderSchedule implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private boolean enabled = true;
+
+    @Column(name = "morning_time", nullable = false)
+    private LocalTime morningTime = LocalTime.of(9, 0);  // 아침 첫 알림 시각
+
+    @Column(name = "evening_time", nullable = false)
+    private LocalTime eveningTime = LocalTime.of(19, 0);  // 저녁 첫 알림 시각
+
+    @Column(name = "repeat_interval_minutes", nullable = false)
+    private Integer repeatIntervalMinutes = 60;  // 미복용 시 재알림 간격
+
+    @Column(name = "max_repeats", nullable = false)
+    private Integer maxRepeats = 3;  // 하루 최대 알림 횟수 (첫 알림 포함)
+
+    @Column(name = "quiet_start")
+    private LocalTime quietStart;  // 방해 금지 시작 (null 이면 사용 안 함)
+
+    @Column(name = "quiet_end")
+    private LocalTime quietEnd;  // 방해 금지 종료
+
+    @Column(name = "snoozed_until")
+    private LocalDateTime snoozedUntil;  // 다시 알림 시각
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "snoozed_type", length = 20)
+    private MedicineRecord.MedicineType snoozedType;  // 다시 알림 대상 약
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public LocalTime getTimeFor(MedicineRecord.MedicineType medicineType) {
+        return medicineType == MedicineRecord.MedicineType.EVENING ? eveningTime : morningTime;
+    }
+
+    /**
+     * 방해 금지 시간 여부 (자정을 넘는 구간 지원)
+     */
+    public boolean isQuiet(LocalTime time) {
+        if (quietStart == null || quietEnd == null || quietStart.equals(quietEnd)) {
+            return false;
+        }
+        if (quietStart.isBefore(quietEnd)) {
+            return !time.isBefore(quietStart) && time.isBefore(quietEnd);
+        }
+        return !time.isBefore(quietStart) || time.isBefore(quietEnd);
+    }
+}
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "stocks")
+@Table(name = "stocks", indexes = {
+    @Index(name = "idx_stock_idempotency_key", columnList = "idempotency_key", unique = true)
+})
 public class Stock {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,6 +41,9 @@ public class Stock {
     @Column(nullable = false)
     private LocalDateTime purchaseDate;  // 매수일시
 
+    @Column(name = "idempotency_key", length = 120)
+    private String idempotencyKey;  // 매수 요청 중복 방지 키 (재요청 시 이 매수 결과를 반환)
+
     @PrePersist
     protected void onCreate() {
         purchaseDate = LocalDateTime.now();
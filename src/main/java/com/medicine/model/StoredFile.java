@@ -0,0 +1,39 @@
+package com.medicine.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 내용 주소 방식으로 저장된 업로드 파일의 참조 수
+ * 같은 내용의 업로드는 하나의 파일을 공유하고, 마지막 참조가 삭제될 때만 파일을 지움
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "stored_files")
+public class StoredFile implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 80)
+    private String filename;  // {sha256}{확장자}
+
+    @Column(nullable = false)
+    private Long size;  // 바이트
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;  // 이 파일을 가리키는 업로드 수
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_acquired_at")
+    private LocalDateTime lastAcquiredAt;  // 마지막으로 참조가 추가된 시각 (GC 유예 기준)
+}
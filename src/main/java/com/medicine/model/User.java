@@ -50,7 +50,8 @@ public class User implements Serializable {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @Column(name = "points")
+    // 잔액은 PointService의 원장 갱신(조건부 UPDATE)으로만 변경 - 엔티티 save로 덮어쓰지 않음
+    @Column(name = "points", updatable = false)
     private Integer points = 0;  // 사용자 포인트 (기본값: 0)
 
     @PrePersist
@@ -5,8 +5,11 @@ import com.medicine.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -23,6 +26,22 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     // 특정 사용자의 댓글 조회
     List<Comment> findByUserOrderByCreatedAtDesc(User user);
 
+    // 전체 댓글 최신순 조회
+    List<Comment> findAllByOrderByCreatedAtDesc();
+
+    // 이미지가 아직 Base64 로 저장된 댓글 ID (파일 이관 대상, 이미지 본문은 읽지 않음)
+    @Query("SELECT c.id FROM Comment c WHERE c.id > :afterId AND c.imageUrl LIKE 'data:%' ORDER BY c.id")
+    List<Long> findIdsWithInlineImage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.imageUrl FROM Comment c WHERE c.id = :id")
+    String findImageUrlById(@Param("id") Long id);
+
+    // Base64 이미지를 파일 URL 로 교체 (그 사이 삭제/변경되었으면 0건)
+    @Transactional
+    @Modifying
+    @Query("UPDATE Comment c SET c.imageUrl = :imageUrl WHERE c.id = :id AND c.imageUrl LIKE 'data:%'")
+    int replaceInlineImage(@Param("id") Long id, @Param("imageUrl") String imageUrl);
+
     // 특정 시간 이후 생성된 댓글 조회 (NEW 뱃지용)
     @Query("SELECT c FROM Comment c WHERE c.createdAt > :since ORDER BY c.createdAt DESC")
     List<Comment> findRecentComments(LocalDateTime since);
@@ -0,0 +1,20 @@
+package com.medicine.repository;
+
+import com.medicine.model.DailyImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyImageRepository extends JpaRepository<DailyImage, Long> {
+
+    /**
+     * 여러 게시물의 이미지를 한 번에 조회 (게시물별 슬라이드 순서)
+     */
+    @Query("SELECT i FROM DailyImage i WHERE i.daily.id IN :dailyIds ORDER BY i.imageOrder ASC, i.id ASC")
+    List<DailyImage> findByDailyIds(@Param("dailyIds") Collection<Long> dailyIds);
+}
@@ -2,8 +2,13 @@ package com.medicine.repository;
 
 import com.medicine.model.DailyLike;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +19,30 @@ public interface DailyLikeRepository extends JpaRepository<DailyLike, Long> {
     boolean existsByDailyIdAndUserId(Long dailyId, Long userId);
 
     void deleteByDailyIdAndUserId(Long dailyId, Long userId);
+
+    /**
+     * 좋아요 추가 (이미 있으면 무시, uk(daily_id, user_id) 로 동시 요청에도 1건만 생성)
+     *
+     * @return 새로 추가되었으면 1
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_like (daily_id, user_id, created_at) VALUES (:dailyId, :userId, now()) " +
+                   "ON CONFLICT (daily_id, user_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("dailyId") Long dailyId, @Param("userId") Long userId);
+
+    /**
+     * @return 삭제되었으면 1
+     */
+    @Modifying
+    @Query("DELETE FROM DailyLike l WHERE l.daily.id = :dailyId AND l.user.id = :userId")
+    int deleteLike(@Param("dailyId") Long dailyId, @Param("userId") Long userId);
+
+    /**
+     * 주어진 게시물 중 사용자가 좋아요한 게시물 ID
+     */
+    @Query("SELECT l.daily.id FROM DailyLike l WHERE l.user.id = :userId AND l.daily.id IN :dailyIds")
+    List<Long> findLikedDailyIds(@Param("userId") Long userId, @Param("dailyIds") Collection<Long> dailyIds);
+
+    @Query("SELECT l.daily.id FROM DailyLike l WHERE l.user.id = :userId")
+    List<Long> findDailyIdsByUserId(@Param("userId") Long userId);
 }
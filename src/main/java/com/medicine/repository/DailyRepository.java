@@ -1,9 +1,16 @@
 package com.medicine.repository;
 
 import com.medicine.model.Daily;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +19,53 @@ public interface DailyRepository extends JpaRepository<Daily, Long> {
     List<Daily> findAllByOrderByCreatedAtDesc();
 
     List<Daily> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    /**
+     * 피드 첫 페이지 (작성자 함께 조회, Pageable.unpaged() 면 전체)
+     */
+    @Query("SELECT d FROM Daily d JOIN FETCH d.user ORDER BY d.createdAt DESC, d.id DESC")
+    List<Daily> findFeed(Pageable pageable);
+
+    /**
+     * (createdAt, id) 커서 이후 피드 페이지 - idx_daily_created_id 범위 탐색
+     */
+    @Query("SELECT d FROM Daily d JOIN FETCH d.user " +
+           "WHERE d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Daily> findFeedBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * 게시물별 좋아요/댓글 수 ([id, likesCount, commentsCount])
+     */
+    @Query("SELECT d.id, d.likesCount, d.commentsCount FROM Daily d WHERE d.id IN :ids")
+    List<Object[]> findCountsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT d.likesCount FROM Daily d WHERE d.id = :id")
+    Integer findLikesCountById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Daily d SET d.likesCount = CASE WHEN d.likesCount + :delta < 0 THEN 0 ELSE d.likesCount + :delta END " +
+           "WHERE d.id = :id")
+    int adjustLikesCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Daily d SET d.commentsCount = CASE WHEN d.commentsCount + :delta < 0 THEN 0 ELSE d.commentsCount + :delta END " +
+           "WHERE d.id = :id")
+    int adjustCommentsCount(@Param("id") Long id, @Param("delta") int delta);
+
+    /**
+     * 좋아요/댓글 수를 실제 행 수로 보정
+     *
+     * @return 보정된 게시물 수
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE daily d SET likes_count = c.likes, comments_count = c.comments FROM (" +
+                   "  SELECT x.id," +
+                   "    (SELECT COUNT(*) FROM daily_like l WHERE l.daily_id = x.id) AS likes," +
+                   "    (SELECT COUNT(*) FROM daily_comment m WHERE m.daily_id = x.id) AS comments" +
+                   "  FROM daily x) c " +
+                   "WHERE d.id = c.id AND (d.likes_count <> c.likes OR d.comments_count <> c.comments)",
+           nativeQuery = true)
+    int reconcileCounters();
 }
@@ -1,73 +1,231 @@
 package com.medicine.repository;
 
 import com.medicine.model.FcmToken;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Repository;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * FCM 토큰 Redis 저장소
+ * fcm:token:{token} 에 토큰 정보를, fcm:user:{userId} 에 사용자별 토큰 집합을 저장
+ * 벤치마크 등 운영 토큰과 섞이면 안 되는 경우 withNamespace 로 키 접두사를 분리한 저장소를 사용
  */
 @Slf4j
 @Repository
-@RequiredArgsConstructor
 public class FcmTokenRepository {
 
     private final RedisTemplate<String, FcmToken> fcmTokenRedisTemplate;
-    private static final String FCM_TOKEN_KEY_PREFIX = "fcm:token:";
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String namespace;
+    private final String tokenKeyPrefix;
+    private final String userKeyPrefix;
     private static final long TOKEN_EXPIRY_DAYS = 90; // 90일 후 자동 삭제
 
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    /**
+     * 사용자의 기존 토큰을 모두 제거하고 새 토큰 하나만 남기는 스크립트 (조회부터 교체까지 서버에서 한 번에 실행)
+     * 새 토큰이 다른 사용자에게 등록되어 있었으면 그 사용자의 토큰 집합에서도 제거
+     * KEYS[1] = 사용자 토큰 집합, KEYS[2] = 새 토큰 키
+     * ARGV = [새 토큰, 토큰 JSON, TTL(초), 토큰 키 접두사, 사용자 집합 키 접두사]
+     * 기존 토큰 키와 이전 소유자 집합 키는 스크립트 안에서 읽은 값으로 만듦 (단일 Redis 전제)
+     * 반환값: 제거된 기존 토큰 수
+     */
+    private static final RedisScript<Long> REPLACE_USER_TOKEN_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[2])\n" +
+            "if current then\n" +
+            "  local ok, previous = pcall(cjson.decode, current)\n" +
+            "  if ok and type(previous) == 'table' and type(previous.userId) == 'string' then\n" +
+            "    local ownerKey = ARGV[5] .. previous.userId\n" +
+            "    if ownerKey ~= KEYS[1] then redis.call('SREM', ownerKey, ARGV[1]) end\n" +
+            "  end\n" +
+            "end\n" +
+            "local removed = 0\n" +
+            "for _, old in ipairs(redis.call('SMEMBERS', KEYS[1])) do\n" +
+            "  if old ~= ARGV[1] then\n" +
+            "    redis.call('DEL', ARGV[4] .. old)\n" +
+            "    removed = removed + 1\n" +
+            "  end\n" +
+            "end\n" +
+            "redis.call('DEL', KEYS[1])\n" +
+            "redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3])\n" +
+            "redis.call('SADD', KEYS[1], ARGV[1])\n" +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3])\n" +
+            "return removed",
+            Long.class);
+
+    @Autowired
+    public FcmTokenRepository(RedisTemplate<String, FcmToken> fcmTokenRedisTemplate, StringRedisTemplate stringRedisTemplate) {
+        this(fcmTokenRedisTemplate, stringRedisTemplate, "");
+    }
+
+    private FcmTokenRepository(RedisTemplate<String, FcmToken> fcmTokenRedisTemplate, StringRedisTemplate stringRedisTemplate,
+                               String namespace) {
+        this.fcmTokenRedisTemplate = fcmTokenRedisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.namespace = namespace;
+        this.tokenKeyPrefix = namespace + "fcm:token:";
+        this.userKeyPrefix = namespace + "fcm:user:";
+    }
+
+    /**
+     * 키 앞에 namespace 를 붙인 별도 저장소 (예: "bench:" -> bench:fcm:token:{token})
+     */
+    public FcmTokenRepository withNamespace(String namespace) {
+        if (namespace == null || namespace.isEmpty()) {
+            throw new IllegalArgumentException("namespace is required");
+        }
+        return new FcmTokenRepository(fcmTokenRedisTemplate, stringRedisTemplate, namespace);
+    }
+
     /**
      * FCM 토큰 저장
      */
     public void save(FcmToken fcmToken) {
-        String key = FCM_TOKEN_KEY_PREFIX + fcmToken.getToken();
+        String key = tokenKeyPrefix + fcmToken.getToken();
         fcmTokenRedisTemplate.opsForValue().set(key, fcmToken, TOKEN_EXPIRY_DAYS, TimeUnit.DAYS);
-        log.info("FCM token saved for user: {}", fcmToken.getUserId());
+
+        String userKey = userKeyPrefix + fcmToken.getUserId();
+        stringRedisTemplate.opsForSet().add(userKey, fcmToken.getToken());
+        stringRedisTemplate.expire(userKey, TOKEN_EXPIRY_DAYS, TimeUnit.DAYS);
+        log.debug("FCM token saved for user: {}", fcmToken.getUserId());
     }
 
     /**
-     * 특정 사용자의 모든 FCM 토큰 조회
+     * 사용자의 모든 토큰을 새 토큰 하나로 원자적으로 교체 (Lua 스크립트 1회 실행)
+     * 같은 토큰이 다른 사용자에게 등록되어 있었으면 이전 소유자의 토큰 집합에서도 제거
+     *
+     * @return 제거된 기존 토큰 수
+     */
+    public long replaceUserToken(FcmToken fcmToken) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<FcmToken> valueSerializer = (RedisSerializer<FcmToken>) fcmTokenRedisTemplate.getValueSerializer();
+        String tokenJson = new String(Objects.requireNonNull(valueSerializer.serialize(fcmToken)), StandardCharsets.UTF_8);
+
+        Long removed = stringRedisTemplate.execute(
+                REPLACE_USER_TOKEN_SCRIPT,
+                StringRedisSerializer.UTF_8,
+                new GenericToStringSerializer<>(Long.class),
+                List.of(userKeyPrefix + fcmToken.getUserId(), tokenKeyPrefix + fcmToken.getToken()),
+                fcmToken.getToken(),
+                tokenJson,
+                String.valueOf(TimeUnit.DAYS.toSeconds(TOKEN_EXPIRY_DAYS)),
+                tokenKeyPrefix,
+                userKeyPrefix);
+
+        long count = removed != null ? removed : 0;
+        log.info("FCM token replaced for user: {} (removed {} old token(s))", fcmToken.getUserId(), count);
+        return count;
+    }
+
+    /**
+     * 특정 사용자의 모든 FCM 토큰 조회 (사용자 토큰 집합 + MGET)
      */
     public List<FcmToken> findByUserId(String userId) {
-        Set<String> keys = fcmTokenRedisTemplate.keys(FCM_TOKEN_KEY_PREFIX + "*");
-        if (keys == null || keys.isEmpty()) {
+        Set<String> tokens = stringRedisTemplate.opsForSet().members(userKeyPrefix + userId);
+        if (tokens == null || tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> keys = tokens.stream()
+                .map(token -> tokenKeyPrefix + token)
+                .collect(Collectors.toList());
+        List<FcmToken> values = fcmTokenRedisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
             return Collections.emptyList();
         }
 
-        return keys.stream()
-                .map(key -> fcmTokenRedisTemplate.opsForValue().get(key))
+        // 다른 사용자에게 옮겨간 토큰이 집합에 남아 있을 수 있으므로 소유자 확인
+        return values.stream()
                 .filter(Objects::nonNull)
                 .filter(token -> userId.equals(token.getUserId()))
                 .collect(Collectors.toList());
     }
 
     /**
-     * 모든 FCM 토큰 조회
+     * 여러 사용자의 FCM 토큰 일괄 조회 (SUNION + MGET, Redis 2회 왕복)
      */
-    public List<FcmToken> findAll() {
-        Set<String> keys = fcmTokenRedisTemplate.keys(FCM_TOKEN_KEY_PREFIX + "*");
-        if (keys == null || keys.isEmpty()) {
+    public List<FcmToken> findByUserIds(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return keys.stream()
-                .map(key -> fcmTokenRedisTemplate.opsForValue().get(key))
+        List<String> userKeys = userIds.stream()
+                .map(userId -> userKeyPrefix + userId)
+                .collect(Collectors.toList());
+        Set<String> tokens = stringRedisTemplate.opsForSet().union(userKeys);
+        if (tokens == null || tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<FcmToken> values = fcmTokenRedisTemplate.opsForValue().multiGet(tokens.stream()
+                .map(token -> tokenKeyPrefix + token)
+                .collect(Collectors.toList()));
+        if (values == null) {
+            return Collections.emptyList();
+        }
+
+        Set<String> owners = new HashSet<>(userIds);
+        return values.stream()
                 .filter(Objects::nonNull)
+                .filter(token -> owners.contains(token.getUserId()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 모든 FCM 토큰 조회 (KEYS 대신 SCAN 으로 나눠 읽고 묶음마다 MGET)
+     */
+    public List<FcmToken> findAll() {
+        List<FcmToken> tokens = new ArrayList<>();
+        List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+        ScanOptions options = ScanOptions.scanOptions().match(tokenKeyPrefix + "*").count(SCAN_BATCH_SIZE).build();
+        try (Cursor<String> cursor = fcmTokenRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == SCAN_BATCH_SIZE) {
+                    addExisting(tokens, batch);
+                    batch.clear();
+                }
+            }
+        }
+        addExisting(tokens, batch);
+        return tokens;
+    }
+
+    private void addExisting(List<FcmToken> tokens, List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<FcmToken> values = fcmTokenRedisTemplate.opsForValue().multiGet(keys);
+        if (values != null) {
+            values.stream().filter(Objects::nonNull).forEach(tokens::add);
+        }
+    }
+
     /**
      * FCM 토큰 삭제
      */
     public void delete(String token) {
-        String key = FCM_TOKEN_KEY_PREFIX + token;
+        String key = tokenKeyPrefix + token;
+        FcmToken existing = fcmTokenRedisTemplate.opsForValue().get(key);
         fcmTokenRedisTemplate.delete(key);
+        if (existing != null) {
+            stringRedisTemplate.opsForSet().remove(userKeyPrefix + existing.getUserId(), token);
+        }
         log.info("FCM token deleted: {}", token);
     }
 
@@ -75,16 +233,75 @@ public class FcmTokenRepository {
      * 특정 사용자의 모든 토큰 삭제
      */
     public void deleteByUserId(String userId) {
-        List<FcmToken> tokens = findByUserId(userId);
-        tokens.forEach(token -> delete(token.getToken()));
+        String userKey = userKeyPrefix + userId;
+        Set<String> tokens = stringRedisTemplate.opsForSet().members(userKey);
+        if (tokens != null && !tokens.isEmpty()) {
+            fcmTokenRedisTemplate.delete(tokens.stream()
+                    .map(token -> tokenKeyPrefix + token)
+                    .collect(Collectors.toList()));
+        }
+        stringRedisTemplate.delete(userKey);
         log.info("All FCM tokens deleted for user: {}", userId);
     }
 
+    /**
+     * 이 namespace 의 토큰/사용자 집합 키를 모두 삭제 (withNamespace 로 만든 저장소에서만 허용)
+     *
+     * @return 삭제한 키 수
+     */
+    public long deleteNamespace() {
+        if (namespace.isEmpty()) {
+            throw new IllegalStateException("Refusing to delete the production FCM keyspace");
+        }
+        long deleted = 0;
+        for (String prefix : List.of(tokenKeyPrefix, userKeyPrefix)) {
+            List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+            ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(SCAN_BATCH_SIZE).build();
+            try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == SCAN_BATCH_SIZE) {
+                        deleted += Optional.ofNullable(stringRedisTemplate.delete(batch)).orElse(0L);
+                        batch.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                deleted += Optional.ofNullable(stringRedisTemplate.delete(batch)).orElse(0L);
+            }
+        }
+        return deleted;
+    }
+
     /**
      * 토큰 존재 여부 확인
      */
     public boolean exists(String token) {
-        String key = FCM_TOKEN_KEY_PREFIX + token;
+        String key = tokenKeyPrefix + token;
         return Boolean.TRUE.equals(fcmTokenRedisTemplate.hasKey(key));
     }
+
+    /**
+     * 사용자별 토큰 집합 재구성
+     * 집합 인덱스 도입 이전에 저장된 토큰을 SCAN 으로 한 번 훑어 등록 (기동 시 1회)
+     *
+     * @return 인덱스에 등록된 토큰 수
+     */
+    public int rebuildUserIndex() {
+        int indexed = 0;
+        ScanOptions options = ScanOptions.scanOptions().match(tokenKeyPrefix + "*").count(500).build();
+        try (Cursor<String> cursor = fcmTokenRedisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                FcmToken token = fcmTokenRedisTemplate.opsForValue().get(cursor.next());
+                if (token == null || token.getUserId() == null) {
+                    continue;
+                }
+                String userKey = userKeyPrefix + token.getUserId();
+                stringRedisTemplate.opsForSet().add(userKey, token.getToken());
+                stringRedisTemplate.expire(userKey, TOKEN_EXPIRY_DAYS, TimeUnit.DAYS);
+                indexed++;
+            }
+        }
+        return indexed;
+    }
 }
@@ -0,0 +1,30 @@
+package com.medicine.repository;
+
+import com.medicine.model.MealAnalysisCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MealAnalysisCacheRepository extends JpaRepository<MealAnalysisCache, Long> {
+
+    /**
+     * [id, imageHash] - 다른 노드가 추가한 항목을 포함해 마지막으로 읽은 id 이후만 조회
+     */
+    @Query("SELECT c.id, c.imageHash FROM MealAnalysisCache c WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findHashesAfter(@Param("afterId") Long afterId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MealAnalysisCache c SET c.hitCount = c.hitCount + 1, c.lastHitAt = :now WHERE c.id = :id")
+    int recordHit(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COALESCE(SUM(c.hitCount), 0), COALESCE(SUM(c.hitCount * c.analysisMs), 0), COUNT(c) FROM MealAnalysisCache c")
+    List<Object[]> summarizeHits();
+}
@@ -1,11 +1,17 @@
 package com.medicine.repository;
 
+import com.medicine.dto.DailyMealScore;
 import com.medicine.model.MealCheck;
 import com.medicine.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,7 +22,89 @@ public interface MealCheckRepository extends JpaRepository<MealCheck, Long> {
 
     Optional<MealCheck> findByDateAndMealType(LocalDate date, MealCheck.MealType mealType);
 
+    @Query("SELECT m FROM MealCheck m LEFT JOIN FETCH m.uploadedBy WHERE m.id = :id")
+    Optional<MealCheck> findWithUploaderById(@Param("id") Long id);
+
     List<MealCheck> findByUploadedByOrderByDateDesc(User user);
 
     List<MealCheck> findByDateBetweenOrderByDateDescMealTypeAsc(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 날짜별 평균 점수/식단 수 (idx_date_score 인덱스만으로 집계 가능)
+     */
+    @Query("SELECT m.date AS date, AVG(m.score) AS averageScore, COUNT(*) AS mealCount " +
+           "FROM MealCheck m WHERE m.date BETWEEN :startDate AND :endDate GROUP BY m.date ORDER BY m.date")
+    List<DailyMealScore> findDailyScoresBetween(@Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate);
+
+    /**
+     * 분석 대기 중이거나 점유 후 오래 방치된(작업자 장애) 식단 ID (시도 횟수가 남은 것만)
+     */
+    @Query("SELECT m.id FROM MealCheck m WHERE COALESCE(m.analysisAttempts, 0) < :maxAttempts " +
+           "AND (m.analysisStatus = :pending OR (m.analysisStatus = :analyzing AND m.analysisStartedAt < :staleBefore)) " +
+           "ORDER BY m.uploadedAt")
+    List<Long> findIdsAwaitingAnalysis(@Param("pending") MealCheck.AnalysisStatus pending,
+                                       @Param("analyzing") MealCheck.AnalysisStatus analyzing,
+                                       @Param("staleBefore") LocalDateTime staleBefore,
+                                       @Param("maxAttempts") int maxAttempts);
+
+    default List<Long> findIdsAwaitingAnalysis(LocalDateTime staleBefore, int maxAttempts) {
+        return findIdsAwaitingAnalysis(MealCheck.AnalysisStatus.PENDING, MealCheck.AnalysisStatus.ANALYZING,
+                staleBefore, maxAttempts);
+    }
+
+    /**
+     * 시도 횟수를 모두 쓰고도 끝나지 않은 식단 ID (방치된 점유 포함, 실패 처리 대상)
+     */
+    @Query("SELECT m.id FROM MealCheck m WHERE COALESCE(m.analysisAttempts, 0) >= :maxAttempts " +
+           "AND (m.analysisStatus = :pending OR (m.analysisStatus = :analyzing AND m.analysisStartedAt < :staleBefore))")
+    List<Long> findIdsExhausted(@Param("pending") MealCheck.AnalysisStatus pending,
+                                @Param("analyzing") MealCheck.AnalysisStatus analyzing,
+                                @Param("staleBefore") LocalDateTime staleBefore,
+                                @Param("maxAttempts") int maxAttempts);
+
+    default List<Long> findIdsExhausted(LocalDateTime staleBefore, int maxAttempts) {
+        return findIdsExhausted(MealCheck.AnalysisStatus.PENDING, MealCheck.AnalysisStatus.ANALYZING,
+                staleBefore, maxAttempts);
+    }
+
+    /**
+     * 분석 작업 점유 (다른 작업자/노드가 이미 점유했거나 시도 횟수를 모두 썼으면 0건)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE MealCheck m SET m.analysisStatus = :analyzing, m.analysisStartedAt = :now, " +
+           "m.analysisAttempts = COALESCE(m.analysisAttempts, 0) + 1 " +
+           "WHERE m.id = :id AND COALESCE(m.analysisAttempts, 0) < :maxAttempts AND (m.analysisStatus = :pending " +
+           "OR (m.analysisStatus = :analyzing AND m.analysisStartedAt < :staleBefore))")
+    int claimForAnalysis(@Param("id") Long id,
+                         @Param("pending") MealCheck.AnalysisStatus pending,
+                         @Param("analyzing") MealCheck.AnalysisStatus analyzing,
+                         @Param("now") LocalDateTime now,
+                         @Param("staleBefore") LocalDateTime staleBefore,
+                         @Param("maxAttempts") int maxAttempts);
+
+    default int claimForAnalysis(Long id, LocalDateTime now, LocalDateTime staleBefore, int maxAttempts) {
+        return claimForAnalysis(id, MealCheck.AnalysisStatus.PENDING, MealCheck.AnalysisStatus.ANALYZING,
+                now, staleBefore, maxAttempts);
+    }
+
+    /**
+     * 분석 결과 반영 또는 재시도 대기로 전환 (분석 도중 사진이 교체되었으면 0건)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE MealCheck m SET m.analysisStatus = :status, m.score = :score, m.aiEvaluation = :aiEvaluation " +
+           "WHERE m.id = :id AND m.imageUrl = :imageUrl")
+    int updateAnalysis(@Param("id") Long id, @Param("imageUrl") String imageUrl,
+                       @Param("status") MealCheck.AnalysisStatus status,
+                       @Param("score") Integer score, @Param("aiEvaluation") String aiEvaluation);
+
+    /**
+     * 분석 실패한 식단 삭제 (분석 도중 사진이 교체되었으면 0건)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM MealCheck m WHERE m.id = :id AND m.imageUrl = :imageUrl")
+    int deleteIfImageUnchanged(@Param("id") Long id, @Param("imageUrl") String imageUrl);
 }
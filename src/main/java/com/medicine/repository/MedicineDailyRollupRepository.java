@@ -0,0 +1,65 @@
+package com.medicine.repository;
+
+import com.medicine.model.MedicineDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MedicineDailyRollupRepository extends JpaRepository<MedicineDailyRollup, Long> {
+
+    List<MedicineDailyRollup> findByYearAndMonthOrderByDayAsc(Integer year, Integer month);
+
+    List<MedicineDailyRollup> findByYearOrderByMonthAscDayAsc(Integer year);
+
+    /**
+     * 약 하나의 복용 여부/시각 반영 (그날 첫 기록이면 행 생성)
+     * 조회 후 저장하지 않고 한 문장으로 처리하여 동시 기록 시 유니크 충돌/덮어쓰기 없음
+     *
+     * @param bit      1 << MedicineType.ordinal()
+     * @param setBits  복용이면 bit, 취소면 0
+     * @param type     MedicineType 이름 (해당 시각 컬럼만 갱신)
+     * @param takenAt  복용 시각 (취소면 null)
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO medicine_daily_rollups (year, month, day, taken_bits, morning_taken_at, lunch_taken_at, evening_taken_at) " +
+                   "VALUES (:year, :month, :day, :setBits, " +
+                   "  CASE WHEN :type = 'MORNING' THEN CAST(:takenAt AS timestamp) END, " +
+                   "  CASE WHEN :type = 'LUNCH' THEN CAST(:takenAt AS timestamp) END, " +
+                   "  CASE WHEN :type = 'EVENING' THEN CAST(:takenAt AS timestamp) END) " +
+                   "ON CONFLICT (year, month, day) DO UPDATE SET " +
+                   "  taken_bits = (medicine_daily_rollups.taken_bits & ~CAST(:bit AS integer)) | CAST(:setBits AS integer), " +
+                   "  morning_taken_at = CASE WHEN :type = 'MORNING' THEN EXCLUDED.morning_taken_at ELSE medicine_daily_rollups.morning_taken_at END, " +
+                   "  lunch_taken_at = CASE WHEN :type = 'LUNCH' THEN EXCLUDED.lunch_taken_at ELSE medicine_daily_rollups.lunch_taken_at END, " +
+                   "  evening_taken_at = CASE WHEN :type = 'EVENING' THEN EXCLUDED.evening_taken_at ELSE medicine_daily_rollups.evening_taken_at END",
+           nativeQuery = true)
+    int upsertDose(@Param("year") int year, @Param("month") int month, @Param("day") int day,
+                   @Param("bit") int bit, @Param("setBits") int setBits,
+                   @Param("type") String type, @Param("takenAt") LocalDateTime takenAt);
+
+    /**
+     * 기간 내 복용 기록으로 집계 행 생성 (백필용, 이미 있는 날은 건드리지 않음)
+     * 비트 값은 MedicineType 순서(MORNING=1, LUNCH=2, EVENING=4)와 같아야 함
+     *
+     * @return 새로 만든 행 수
+     */
+    @Modifying
+    @Query(value = "INSERT INTO medicine_daily_rollups (year, month, day, taken_bits, morning_taken_at, lunch_taken_at, evening_taken_at) " +
+                   "SELECT CAST(EXTRACT(YEAR FROM r.date) AS integer), CAST(EXTRACT(MONTH FROM r.date) AS integer), " +
+                   "  CAST(EXTRACT(DAY FROM r.date) AS integer), " +
+                   "  BIT_OR(CASE r.medicine_type WHEN 'MORNING' THEN 1 WHEN 'LUNCH' THEN 2 WHEN 'EVENING' THEN 4 ELSE 0 END), " +
+                   "  MAX(CASE WHEN r.medicine_type = 'MORNING' THEN r.taken_time END), " +
+                   "  MAX(CASE WHEN r.medicine_type = 'LUNCH' THEN r.taken_time END), " +
+                   "  MAX(CASE WHEN r.medicine_type = 'EVENING' THEN r.taken_time END) " +
+                   "FROM medicine_records r WHERE r.taken = true AND r.date BETWEEN :startDate AND :endDate " +
+                   "GROUP BY r.date " +
+                   "ON CONFLICT (year, month, day) DO NOTHING",
+           nativeQuery = true)
+    int insertFromRecords(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
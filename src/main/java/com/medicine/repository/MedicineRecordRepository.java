@@ -3,6 +3,7 @@ package com.medicine.repository;
 import com.medicine.model.MedicineRecord;
 import com.medicine.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -21,4 +22,7 @@ public interface MedicineRecordRepository extends JpaRepository<MedicineRecord,
     List<MedicineRecord> findByDateBetweenOrderByDateDescMedicineTypeAsc(LocalDate startDate, LocalDate endDate);
 
     List<MedicineRecord> findByDateAndTakenTrue(LocalDate date);
+
+    @Query("SELECT MIN(r.date) FROM MedicineRecord r WHERE r.taken = true")
+    Optional<LocalDate> findFirstTakenDate();
 }
@@ -1,8 +1,11 @@
 package com.medicine.repository;
 
+import com.medicine.dto.PointHistoryDto;
 import com.medicine.model.PointHistory;
 import com.medicine.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,6 +22,49 @@ public interface PointHistoryRepository extends JpaRepository<PointHistory, Long
     @Query("SELECT SUM(ph.points) FROM PointHistory ph WHERE ph.user = :user")
     Integer getTotalPointsByUser(@Param("user") User user);
 
+    boolean existsByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * 히스토리 기록 (같은 idempotency_key 가 이미 있으면 무시)
+     * 동시에 같은 키로 들어온 요청은 먼저 커밋된 쪽만 1건 반영되고 나머지는 0 반환
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO point_history (user_id, points, type, description, point_item_id, idempotency_key, created_at) " +
+                   "VALUES (:userId, :points, :type, :description, CAST(:pointItemId AS bigint), :idempotencyKey, :createdAt) " +
+                   "ON CONFLICT (idempotency_key) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("points") int points, @Param("type") String type,
+                       @Param("description") String description, @Param("pointItemId") Long pointItemId,
+                       @Param("idempotencyKey") String idempotencyKey, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * 키셋 페이지네이션 첫 페이지 (created_at DESC, id DESC)
+     */
+    @Query("SELECT new com.medicine.dto.PointHistoryDto(ph.id, ph.points, ph.type, ph.description, pi.name, ph.createdAt) " +
+           "FROM PointHistory ph LEFT JOIN ph.pointItem pi " +
+           "WHERE ph.user.id = :userId ORDER BY ph.createdAt DESC, ph.id DESC")
+    List<PointHistoryDto> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * 키셋 페이지네이션 다음 페이지 ((createdAt, id) 커서 이후)
+     */
+    @Query("SELECT new com.medicine.dto.PointHistoryDto(ph.id, ph.points, ph.type, ph.description, pi.name, ph.createdAt) " +
+           "FROM PointHistory ph LEFT JOIN ph.pointItem pi " +
+           "WHERE ph.user.id = :userId " +
+           "AND (ph.createdAt < :createdAt OR (ph.createdAt = :createdAt AND ph.id < :id)) " +
+           "ORDER BY ph.createdAt DESC, ph.id DESC")
+    List<PointHistoryDto> findPageByUserIdBefore(@Param("userId") Long userId,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+
+    /**
+     * 사용자별 [id, username, 잔액, 원장 합계] (한 번의 조회로 스냅샷)
+     */
+    @Query("SELECT u.id, u.username, COALESCE(u.points, 0), " +
+           "COALESCE((SELECT SUM(ph.points) FROM PointHistory ph WHERE ph.user = u), 0) FROM User u")
+    List<Object[]> findBalancesWithLedgerSum();
+
     @Query("SELECT ph FROM PointHistory ph WHERE ph.user = :user AND ph.createdAt >= :startDate ORDER BY ph.createdAt DESC")
     List<PointHistory> findByUserAndCreatedAtAfter(@Param("user") User user, @Param("startDate") LocalDateTime startDate);
 }
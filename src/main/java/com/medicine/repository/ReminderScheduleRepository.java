@@ -0,0 +1,23 @@
+package com.medicine.repository;
+
+import com.medicine.model.ReminderSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReminderScheduleRepository extends JpaRepository<ReminderSchedule, Long> {
+
+    @Query("SELECT rs FROM ReminderSchedule rs JOIN FETCH rs.user")
+    List<ReminderSchedule> findAllWithUser();
+
+    Optional<ReminderSchedule> findByUserId(Long userId);
+
+    @Query("SELECT rs FROM ReminderSchedule rs JOIN FETCH rs.user u WHERE u.username IN :usernames")
+    List<ReminderSchedule> findByUsernames(@Param("usernames") Collection<String> usernames);
+}
@@ -6,9 +6,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StockRepository extends JpaRepository<Stock, Long> {
     List<Stock> findByUserOrderByPurchaseDateDesc(User user);
     List<Stock> findByUser(User user);
+    Optional<Stock> findByIdempotencyKey(String idempotencyKey);
 }
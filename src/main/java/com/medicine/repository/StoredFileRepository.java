@@ -0,0 +1,45 @@
+package com.medicine.repository;
+
+import com.medicine.model.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    /**
+     * 참조 추가 (처음이면 참조 1로 생성)
+     * 행 잠금은 트랜잭션 종료까지 유지되므로 같은 파일의 삭제와 직렬화됨
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_files (filename, size, ref_count, created_at, last_acquired_at) " +
+                   "VALUES (:filename, :size, 1, :now, :now) " +
+                   "ON CONFLICT (filename) DO UPDATE SET ref_count = stored_files.ref_count + 1, last_acquired_at = :now",
+           nativeQuery = true)
+    int acquire(@Param("filename") String filename, @Param("size") long size, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE stored_files SET ref_count = ref_count - 1 WHERE filename = :filename AND ref_count > 0",
+           nativeQuery = true)
+    int release(@Param("filename") String filename);
+
+    /**
+     * 참조가 모두 사라진 항목 제거 (제거되었으면 1 → 파일 삭제)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM stored_files WHERE filename = :filename AND ref_count <= 0", nativeQuery = true)
+    int deleteIfUnreferenced(@Param("filename") String filename);
+
+    /**
+     * GC: 유예 기간 이후 참조가 추가되지 않은 항목 제거 (참조 수와 무관, 실제 참조는 호출자가 확인)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM stored_files WHERE filename = :filename " +
+                   "AND COALESCE(last_acquired_at, created_at) < :acquiredBefore", nativeQuery = true)
+    int deleteIfNotAcquiredSince(@Param("filename") String filename, @Param("acquiredBefore") LocalDateTime acquiredBefore);
+}
@@ -1,13 +1,43 @@
 package com.medicine.repository;
 
+import com.medicine.model.Role;
 import com.medicine.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
+
+    @Query("SELECT u.id FROM User u WHERE u.role = :role")
+    List<Long> findIdsByRole(@Param("role") Role role);
+
+    @Query("SELECT COALESCE(u.points, 0) FROM User u WHERE u.id = :userId")
+    Integer findPointsById(@Param("userId") Long userId);
+
+    /**
+     * 잔액 조건부 증감 (음수가 되는 경우 0건 갱신)
+     * 영속성 컨텍스트는 비우지 않으므로 새 잔액이 필요한 호출 측에서 해당 User 만 다시 읽음
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.points = COALESCE(u.points, 0) + :delta " +
+           "WHERE u.id = :userId AND COALESCE(u.points, 0) + :delta >= 0")
+    int applyPointDelta(@Param("userId") Long userId, @Param("delta") int delta);
+
+    /**
+     * 잔액 보정 (조회 시점 이후 변경이 없었던 경우에만)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.points = :points WHERE u.id = :userId AND COALESCE(u.points, 0) = :expected")
+    int resetPoints(@Param("userId") Long userId, @Param("expected") int expected, @Param("points") int points);
 }
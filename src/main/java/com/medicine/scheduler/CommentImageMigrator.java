@@ -0,0 +1,35 @@
+package com.medicine.scheduler;
+
+import com.medicine.service.CommentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 댓글 Base64 이미지 파일 이관 작업
+ * 기동 직후 한 번 전체를 이관하고, 이후에는 실패했던 건만 주기적으로 재시도 (대상이 없으면 ID 조회 1회)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentImageMigrator {
+
+    private static final String JOB_NAME = "comment-image-migration";
+    private static final Duration LEASE = Duration.ofMinutes(30);
+    private static final Duration LOCK_AT_LEAST = Duration.ofSeconds(30);
+
+    private final CommentService commentService;
+    private final ScheduledJobCoordinator jobCoordinator;
+
+    @Value("${comments.image-migration.batch-size:50}")
+    private int batchSize;
+
+    @Scheduled(initialDelay = 60_000, fixedDelayString = "${comments.image-migration.interval-ms:3600000}")
+    public void migrate() {
+        jobCoordinator.runExclusive(JOB_NAME, LEASE, LOCK_AT_LEAST, () -> commentService.migrateInlineImages(batchSize));
+    }
+}
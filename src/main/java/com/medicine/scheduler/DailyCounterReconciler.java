@@ -0,0 +1,50 @@
+package com.medicine.scheduler;
+
+import com.medicine.service.DailyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 일상 게시물 좋아요/댓글 수 보정 작업
+ * likes_count/comments_count 를 daily_like, daily_comment 행 수와 대조하여 다르면 보정
+ * 한 번도 성공한 적이 없으면 (comments_count 컬럼 추가 직후) 기동 시 바로 실행
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyCounterReconciler {
+
+    private static final String JOB_NAME = "daily-counter-reconcile";
+    private static final Duration LEASE = Duration.ofMinutes(10);
+    private static final Duration LOCK_AT_LEAST = Duration.ofMinutes(1);
+
+    private final DailyService dailyService;
+    private final ScheduledJobCoordinator jobCoordinator;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnFirstStart() {
+        if (jobCoordinator.getLastSuccess(JOB_NAME).isEmpty()) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${daily.reconcile.cron:0 45 4 * * *}")
+    public void reconcile() {
+        jobCoordinator.runExclusive(JOB_NAME, LEASE, LOCK_AT_LEAST, this::doReconcile);
+    }
+
+    private void doReconcile() {
+        int corrected = dailyService.reconcileCounters();
+        if (corrected > 0) {
+            log.warn("일상 좋아요/댓글 수 보정 - {}건", corrected);
+        } else {
+            log.info("일상 좋아요/댓글 수 검증 완료 - 불일치 없음");
+        }
+    }
+}
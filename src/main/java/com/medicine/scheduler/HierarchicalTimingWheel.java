@@ -0,0 +1,182 @@
+package com.medicine.scheduler;
+
+import java.util.*;
+
+/**
+ * 계층형 타이밍 휠 (메모리 기반 타이머)
+ * 초/분/시/일 단위 휠을 겹쳐 두고, 상위 휠 버킷의 시간이 되면 항목을 하위 휠로 내려 보내는 방식.
+ * 등록/취소는 O(1), 시간 진행은 경과한 틱 수에 비례하므로 많은 타이머를 적은 비용으로 유지할 수 있음.
+ *
+ * 스레드 안전하며, 만료된 작업은 advance() 의 반환값으로 넘겨 호출자가 잠금 밖에서 실행하도록 함
+ */
+public class HierarchicalTimingWheel {
+
+    private static final long SECOND = 1000L;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    private final Level[] levels;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final List<Entry> expiredOnSchedule = new ArrayList<>();
+
+    public HierarchicalTimingWheel(long startMs) {
+        // 각 휠의 전체 범위가 다음 휠의 한 틱과 같도록 구성
+        this.levels = new Level[]{
+                new Level(SECOND, 60, startMs),
+                new Level(MINUTE, 60, startMs),
+                new Level(HOUR, 24, startMs),
+                new Level(DAY, 8, startMs)
+        };
+    }
+
+    /**
+     * 작업 등록 (같은 키의 기존 작업은 대체)
+     */
+    public synchronized void schedule(String key, long expirationMs, Runnable task) {
+        cancel(key);
+        Entry entry = new Entry(key, expirationMs, task);
+        entries.put(key, entry);
+        if (!place(entry)) {
+            expiredOnSchedule.add(entry);
+        }
+    }
+
+    /**
+     * 작업 취소
+     *
+     * @return 취소된 작업이 있었는지 여부
+     */
+    public synchronized boolean cancel(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        if (entry.bucket != null) {
+            entry.bucket.remove(entry);
+            entry.bucket = null;
+        }
+        expiredOnSchedule.remove(entry);
+        return true;
+    }
+
+    /**
+     * 등록된 작업의 만료 시각
+     */
+    public synchronized OptionalLong getExpiration(String key) {
+        Entry entry = entries.get(key);
+        return entry != null ? OptionalLong.of(entry.expirationMs) : OptionalLong.empty();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 시계를 nowMs 까지 진행하고 만료된 작업을 반환
+     */
+    public synchronized List<Runnable> advance(long nowMs) {
+        List<Entry> expired = new ArrayList<>(expiredOnSchedule);
+        expiredOnSchedule.clear();
+
+        // 하위 휠부터 진행하여, 상위 휠에서 내려오는 항목이 이미 지나간 버킷에 놓이지 않도록 함
+        for (Level level : levels) {
+            while (level.currentTime + level.tickMs <= nowMs) {
+                level.currentTime += level.tickMs;
+                Set<Entry> bucket = level.bucketFor(level.currentTime);
+                if (bucket.isEmpty()) {
+                    continue;
+                }
+                List<Entry> drained = new ArrayList<>(bucket);
+                bucket.clear();
+                for (Entry entry : drained) {
+                    entry.bucket = null;
+                    if (!place(entry)) {
+                        expired.add(entry);
+                    }
+                }
+            }
+        }
+
+        List<Runnable> tasks = new ArrayList<>(expired.size());
+        for (Entry entry : expired) {
+            // 현재 틱 안에서 아직 시각이 오지 않은 항목은 다음 진행 때 실행
+            if (entry.expirationMs > nowMs) {
+                expiredOnSchedule.add(entry);
+                continue;
+            }
+            entries.remove(entry.key);
+            tasks.add(entry.task);
+        }
+        return tasks;
+    }
+
+    /**
+     * 만료 시각에 맞는 휠 버킷에 배치
+     *
+     * @return 이미 만료되어 배치하지 않았으면 false
+     */
+    private boolean place(Entry entry) {
+        Level lowest = levels[0];
+        if (entry.expirationMs < lowest.currentTime + lowest.tickMs) {
+            return false;
+        }
+
+        for (Level level : levels) {
+            if (entry.expirationMs < level.currentTime + level.span()) {
+                level.add(entry, entry.expirationMs);
+                return true;
+            }
+        }
+
+        // 최상위 휠 범위를 넘으면 마지막 버킷에 두었다가 해당 시점에 다시 배치
+        Level top = levels[levels.length - 1];
+        top.add(entry, top.currentTime + top.span() - top.tickMs);
+        return true;
+    }
+
+    private static final class Level {
+        private final long tickMs;
+        private final int size;
+        private final Set<Entry>[] buckets;
+        private long currentTime;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMs, int size, long startMs) {
+            this.tickMs = tickMs;
+            this.size = size;
+            this.buckets = new Set[size];
+            for (int i = 0; i < size; i++) {
+                buckets[i] = new LinkedHashSet<>();
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        private long span() {
+            return tickMs * size;
+        }
+
+        private Set<Entry> bucketFor(long timeMs) {
+            return buckets[(int) ((timeMs / tickMs) % size)];
+        }
+
+        private void add(Entry entry, long slotTimeMs) {
+            Set<Entry> bucket = bucketFor(slotTimeMs);
+            bucket.add(entry);
+            entry.bucket = bucket;
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final long expirationMs;
+        private final Runnable task;
+        private Set<Entry> bucket;
+
+        private Entry(String key, long expirationMs, Runnable task) {
+            this.key = key;
+            this.expirationMs = expirationMs;
+            this.task = task;
+        }
+    }
+}
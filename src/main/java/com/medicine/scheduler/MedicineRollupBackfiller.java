@@ -0,0 +1,52 @@
+package com.medicine.scheduler;
+
+import com.medicine.service.MedicineRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 약 복용 일별 집계 백필 작업
+ * 완료 표식이 없으면 기동 시 실행하고, 실패했거나 다른 노드가 실행 중이었으면 1시간마다 다시 시도
+ * 성공한 뒤에는 표식만 확인하고 끝남 (집계 테이블이 비었는지로 판단하지 않음)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MedicineRollupBackfiller {
+
+    private static final String JOB_NAME = "medicine-rollup-backfill";
+    private static final Duration LEASE = Duration.ofMinutes(30);
+    private static final Duration LOCK_AT_LEAST = Duration.ZERO;
+
+    private final MedicineRollupService medicineRollupService;
+    private final ScheduledJobCoordinator jobCoordinator;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStart() {
+        backfillIfIncomplete();
+    }
+
+    @Scheduled(fixedDelay = 60 * 60 * 1000, initialDelay = 60 * 60 * 1000)
+    public void backfillIfIncomplete() {
+        if (jobCoordinator.getMarker(JOB_NAME).isPresent()) {
+            return;
+        }
+        jobCoordinator.runExclusive(JOB_NAME, LEASE, LOCK_AT_LEAST, this::doBackfill);
+    }
+
+    private void doBackfill() {
+        // 잠금을 기다리는 사이 다른 노드가 끝냈으면 다시 하지 않음
+        if (jobCoordinator.getMarker(JOB_NAME).isPresent()) {
+            return;
+        }
+        medicineRollupService.backfill();
+        jobCoordinator.setMarker(JOB_NAME, LocalDateTime.now().toString());
+    }
+}
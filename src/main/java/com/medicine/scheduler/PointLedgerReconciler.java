@@ -0,0 +1,46 @@
+package com.medicine.scheduler;
+
+import com.medicine.service.PointService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 포인트 잔액 검증 작업
+ * users.points와 point_history 합계를 대조하여 불일치를 보고(설정 시 보정)
+ * 최초 성공 실행 전에는 원장 도입 이전 잔액을 ADJUSTMENT 히스토리로 이관
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PointLedgerReconciler {
+
+    private static final String JOB_NAME = "point-ledger-reconcile";
+    private static final Duration LEASE = Duration.ofMinutes(10);
+    private static final Duration LOCK_AT_LEAST = Duration.ofMinutes(1);
+
+    private final PointService pointService;
+    private final ScheduledJobCoordinator jobCoordinator;
+
+    @Value("${points.reconcile.auto-correct:false}")
+    private boolean autoCorrect;
+
+    @Scheduled(cron = "${points.reconcile.cron:0 30 4 * * *}")
+    public void reconcile() {
+        jobCoordinator.runExclusive(JOB_NAME, LEASE, LOCK_AT_LEAST, this::doReconcile);
+    }
+
+    private void doReconcile() {
+        boolean openingBalance = jobCoordinator.getLastSuccess(JOB_NAME).isEmpty();
+        List<Map<String, Object>> mismatches = pointService.reconcileBalances(openingBalance, autoCorrect);
+
+        log.info("포인트 잔액 검증 완료 - 불일치: {}건 (기존 잔액 이관: {}, 자동 보정: {})",
+                mismatches.size(), openingBalance, autoCorrect);
+    }
+}
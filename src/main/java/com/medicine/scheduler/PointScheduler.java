@@ -1,18 +1,24 @@
 package com.medicine.scheduler;
 
-import com.medicine.model.MealCheck;
+import com.medicine.dto.DailyMealScore;
+import com.medicine.dto.PointCredit;
 import com.medicine.model.PointHistory;
 import com.medicine.model.Role;
-import com.medicine.model.User;
 import com.medicine.repository.MealCheckRepository;
 import com.medicine.repository.UserRepository;
 import com.medicine.service.PointService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Slf4j
@@ -23,6 +29,13 @@ public class PointScheduler {
     private final UserRepository userRepository;
     private final MealCheckRepository mealCheckRepository;
     private final PointService pointService;
+    private final ScheduledJobCoordinator jobCoordinator;
+
+    private static final String JOB_NAME = "daily-meal-points";
+    private static final LocalTime SCHEDULED_TIME = LocalTime.of(0, 1);
+    private static final Duration LEASE = Duration.ofMinutes(30);
+    private static final Duration LOCK_AT_LEAST = Duration.ofMinutes(5);
+    private static final int MAX_BACKFILL_DAYS = 7;  // 실행 누락 시 보충할 최대 일수
 
     /**
      * 매일 자정 1분에 실행
@@ -30,70 +43,92 @@ public class PointScheduler {
      */
     @Scheduled(cron = "0 1 0 * * *")  // 매일 00:01:00에 실행
     public void calculateDailyMealPoints() {
-        log.info("=== 일일 식단 포인트 계산 시작 ===");
+        jobCoordinator.runExclusive(JOB_NAME, LEASE, LOCK_AT_LEAST, this::doCalculateDailyMealPoints);
+    }
+
+    /**
+     * 기동 시 놓친 실행 보충 (배포/장애로 00:01 실행이 누락된 경우)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpDailyMealPoints() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lastScheduledFire = LocalDate.now().atTime(SCHEDULED_TIME);
+        if (now.isBefore(lastScheduledFire)) {
+            lastScheduledFire = lastScheduledFire.minusDays(1);
+        }
 
         try {
-            // FATHER 권한 사용자만 조회
-            List<User> fatherUsers = userRepository.findAll().stream()
-                    .filter(user -> user.getRole() == Role.FATHER)
-                    .toList();
-
-            if (fatherUsers.isEmpty()) {
-                log.info("FATHER 권한 사용자가 없습니다.");
-                return;
-            }
+            jobCoordinator.catchUpIfMissed(JOB_NAME, lastScheduledFire, LEASE, LOCK_AT_LEAST, this::doCalculateDailyMealPoints);
+        } catch (Exception e) {
+            log.error("일일 식단 포인트 보충 실행 확인 실패", e);
+        }
+    }
+
+    /**
+     * 표식 다음 날부터 어제까지(최대 MAX_BACKFILL_DAYS일) 일별 평균 점수를 한 번에 집계하고
+     * FATHER 사용자별 적립을 한 번의 일괄 INSERT로 처리.
+     * 적립 키(meal-daily:{날짜}:{사용자})가 유니크하므로 재실행/중복 실행돼도 한 번만 적립됨
+     */
+    private void doCalculateDailyMealPoints() {
+        log.info("=== 일일 식단 포인트 계산 시작 ===");
+
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        LocalDate from = jobCoordinator.getMarker(JOB_NAME)
+                .map(marker -> LocalDate.parse(marker).plusDays(1))
+                .filter(date -> !date.isBefore(yesterday.minusDays(MAX_BACKFILL_DAYS - 1)))
+                .orElse(yesterday);
 
-            LocalDate yesterday = LocalDate.now().minusDays(1);
-
-            for (User user : fatherUsers) {
-                try {
-                    // 전날 식단 조회
-                    List<MealCheck> meals = mealCheckRepository.findByDateOrderByMealTypeAsc(yesterday);
-
-                    if (meals.isEmpty()) {
-                        log.info("식단 없음 - User: {}, Date: {}", user.getUsername(), yesterday);
-                        continue;
-                    }
-
-                    // 평균 점수 계산
-                    double avgScore = meals.stream()
-                            .filter(m -> m.getScore() != null)
-                            .mapToInt(MealCheck::getScore)
-                            .average()
-                            .orElse(0.0);
-
-                    // 점수에 따른 포인트 계산
-                    int points;
-                    if (avgScore >= 80) {
-                        points = 70;
-                    } else if (avgScore >= 60) {
-                        points = 50;
-                    } else if (avgScore >= 40) {
-                        points = 30;
-                    } else {
-                        points = 20;
-                    }
-
-                    // 포인트 적립
-                    pointService.addPoints(
-                            user,
-                            points,
-                            PointHistory.PointType.MEAL,
-                            String.format("%s 식단 관리 (평균 %.0f점)", yesterday, avgScore)
-                    );
-
-                    log.info("식단 포인트 적립 - User: {}, Date: {}, AvgScore: {}, Points: +{}",
-                            user.getUsername(), yesterday, avgScore, points);
-
-                } catch (Exception e) {
-                    log.error("식단 포인트 계산 실패 - User: {}", user.getUsername(), e);
-                }
+        if (from.isAfter(yesterday)) {
+            log.info("이미 처리된 날짜입니다 - 마지막 처리일: {}", yesterday);
+            return;
+        }
+
+        // FATHER 권한 사용자만 조회
+        List<Long> fatherIds = userRepository.findIdsByRole(Role.FATHER);
+        if (fatherIds.isEmpty()) {
+            log.info("FATHER 권한 사용자가 없습니다.");
+            jobCoordinator.setMarker(JOB_NAME, yesterday.toString());
+            return;
+        }
+
+        List<DailyMealScore> dailyScores = mealCheckRepository.findDailyScoresBetween(from, yesterday);
+
+        List<PointCredit> credits = new ArrayList<>();
+        for (DailyMealScore dailyScore : dailyScores) {
+            double avgScore = dailyScore.getAverageScore() != null ? dailyScore.getAverageScore() : 0.0;
+            int points = pointsForScore(avgScore);
+
+            for (Long userId : fatherIds) {
+                credits.add(PointCredit.builder()
+                        .userId(userId)
+                        .points(points)
+                        .type(PointHistory.PointType.MEAL)
+                        .description(String.format("%s 식단 관리 (평균 %.0f점)", dailyScore.getDate(), avgScore))
+                        .idempotencyKey("meal-daily:" + dailyScore.getDate() + ":" + userId)
+                        .build());
             }
 
-            log.info("=== 일일 식단 포인트 계산 완료 ===");
+            log.info("식단 포인트 계산 - Date: {}, Meals: {}, AvgScore: {}, Points: +{}",
+                    dailyScore.getDate(), dailyScore.getMealCount(), avgScore, points);
+        }
 
-        } catch (Exception e) {
-            log.error("일일 식단 포인트 계산 중 오류 발생", e);
+        int applied = pointService.creditBatch(credits);
+        jobCoordinator.setMarker(JOB_NAME, yesterday.toString());
+
+        log.info("=== 일일 식단 포인트 계산 완료 - 기간: {} ~ {}, 식단 있는 날: {}, 적립: {}건 ===",
+                from, yesterday, dailyScores.size(), applied);
+    }
+
+    // 점수에 따른 포인트 계산
+    private int pointsForScore(double avgScore) {
+        if (avgScore >= 80) {
+            return 70;
+        } else if (avgScore >= 60) {
+            return 50;
+        } else if (avgScore >= 40) {
+            return 30;
         }
+        return 20;
     }
 }
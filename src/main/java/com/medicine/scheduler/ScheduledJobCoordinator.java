@@ -0,0 +1,181 @@
+package com.medicine.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Redis 임대(lease) 기반 스케줄 작업 조정기
+ * 여러 노드에서 같은 @Scheduled 작업이 동시에 실행되지 않도록 SET NX PX 잠금을 잡고 실행하며,
+ * 작업별 마지막 실행 기록과 실행 시간/결과 통계를 Redis 에 남김
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduledJobCoordinator {
+
+    private static final String LOCK_KEY_PREFIX = "job:lock:";
+    private static final String STATS_KEY_PREFIX = "job:stats:";
+    private static final String JOB_NAMES_KEY = "job:names";
+
+    /**
+     * 잠금 해제 스크립트: 내가 잡은 잠금일 때만 삭제하거나 남은 최소 보유 시간으로 만료 시간 단축
+     * KEYS[1] = 잠금 키, ARGV = [잠금 값, 최소 보유 시간(ms)]
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end\n" +
+            "if tonumber(ARGV[2]) > 0 then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end\n" +
+            "return redis.call('DEL', KEYS[1])",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public enum Outcome {
+        SUCCESS,
+        FAILURE,
+        SKIPPED
+    }
+
+    /**
+     * 잠금을 획득한 노드에서만 작업 실행
+     *
+     * @param jobName     작업 이름 (잠금/통계 키)
+     * @param lease       잠금 최대 보유 시간 (작업이 죽어도 이 시간 후 자동 해제)
+     * @param lockAtLeast 작업이 빨리 끝나도 잠금을 유지할 최소 시간 (노드 간 시계 오차 흡수)
+     * @param task        실행할 작업
+     * @return 실행 결과
+     */
+    public Outcome runExclusive(String jobName, Duration lease, Duration lockAtLeast, Runnable task) {
+        String lockKey = LOCK_KEY_PREFIX + jobName;
+        String lockValue = nodeId + ":" + UUID.randomUUID();
+
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, lockValue, lease);
+        if (!Boolean.TRUE.equals(acquired)) {
+            log.info("Job {} skipped - lease held by {}", jobName, redisTemplate.opsForValue().get(lockKey));
+            recordSkip(jobName);
+            return Outcome.SKIPPED;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.SUCCESS;
+        try {
+            task.run();
+        } catch (Exception e) {
+            outcome = Outcome.FAILURE;
+            log.error("Job {} failed", jobName, e);
+        } finally {
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            long holdMs = Math.max(0, lockAtLeast.toMillis() - durationMs);
+            try {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), lockValue, String.valueOf(holdMs));
+                recordRun(jobName, outcome, startedAt, durationMs);
+            } catch (Exception e) {
+                log.error("Failed to release lease for job {}", jobName, e);
+            }
+            log.info("Job {} finished - Outcome: {}, Duration: {}ms", jobName, outcome, durationMs);
+        }
+        return outcome;
+    }
+
+    /**
+     * 단발성 작업의 중복 실행 방지
+     * 여러 노드가 같은 키로 호출하면 처음 호출한 노드만 true (통계는 남기지 않음)
+     */
+    public boolean acquireOnce(String key, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY_PREFIX + key, nodeId, ttl));
+    }
+
+    /**
+     * 놓친 실행 보충 (기동 시 호출)
+     * 마지막 성공 시각이 직전 예정 시각보다 이르면 한 번 실행.
+     * 실행 기록이 아예 없으면 이전 실행 여부를 알 수 없으므로 중복 방지를 위해 보충하지 않음
+     *
+     * @param lastScheduledFire 직전 예정 실행 시각
+     */
+    public Outcome catchUpIfMissed(String jobName, LocalDateTime lastScheduledFire,
+                                   Duration lease, Duration lockAtLeast, Runnable task) {
+        Optional<LocalDateTime> lastSuccess = getLastSuccess(jobName);
+        if (lastSuccess.isEmpty()) {
+            log.info("Job {} has no run record - catch-up skipped", jobName);
+            return Outcome.SKIPPED;
+        }
+        if (!lastSuccess.get().isBefore(lastScheduledFire)) {
+            return Outcome.SKIPPED;
+        }
+
+        log.warn("Job {} missed run at {} (last success: {}) - catching up", jobName, lastScheduledFire, lastSuccess.get());
+        return runExclusive(jobName, lease, lockAtLeast, task);
+    }
+
+    /**
+     * 마지막 성공 시작 시각
+     */
+    public Optional<LocalDateTime> getLastSuccess(String jobName) {
+        Object value = redisTemplate.opsForHash().get(STATS_KEY_PREFIX + jobName, "lastSuccessAt");
+        return Optional.ofNullable(value).map(v -> LocalDateTime.parse(v.toString()));
+    }
+
+    /**
+     * 작업별 진행 표식 (예: 마지막으로 처리 완료한 날짜)
+     */
+    public Optional<String> getMarker(String jobName) {
+        Object value = redisTemplate.opsForHash().get(STATS_KEY_PREFIX + jobName, "marker");
+        return Optional.ofNullable(value).map(Object::toString);
+    }
+
+    public void setMarker(String jobName, String marker) {
+        redisTemplate.opsForHash().put(STATS_KEY_PREFIX + jobName, "marker", marker);
+    }
+
+    /**
+     * 모든 작업의 실행 기록/통계
+     */
+    public Map<String, Map<Object, Object>> getAllStats() {
+        Map<String, Map<Object, Object>> result = new TreeMap<>();
+        Set<String> jobNames = redisTemplate.opsForSet().members(JOB_NAMES_KEY);
+        if (jobNames != null) {
+            for (String jobName : jobNames) {
+                result.put(jobName, redisTemplate.opsForHash().entries(STATS_KEY_PREFIX + jobName));
+            }
+        }
+        return result;
+    }
+
+    private void recordRun(String jobName, Outcome outcome, LocalDateTime startedAt, long durationMs) {
+        String key = STATS_KEY_PREFIX + jobName;
+        Map<String, String> fields = new HashMap<>();
+        fields.put("lastOutcome", outcome.name());
+        fields.put("lastStartedAt", startedAt.toString());
+        fields.put("lastFinishedAt", LocalDateTime.now().toString());
+        fields.put("lastDurationMs", String.valueOf(durationMs));
+        fields.put("lastNode", nodeId);
+        if (outcome == Outcome.SUCCESS) {
+            fields.put("lastSuccessAt", startedAt.toString());
+        }
+
+        redisTemplate.opsForHash().putAll(key, fields);
+        redisTemplate.opsForHash().increment(key, outcome == Outcome.SUCCESS ? "successCount" : "failureCount", 1);
+        redisTemplate.opsForHash().increment(key, "totalDurationMs", durationMs);
+        redisTemplate.opsForSet().add(JOB_NAMES_KEY, jobName);
+    }
+
+    private void recordSkip(String jobName) {
+        try {
+            redisTemplate.opsForHash().increment(STATS_KEY_PREFIX + jobName, "skippedCount", 1);
+            redisTemplate.opsForSet().add(JOB_NAMES_KEY, jobName);
+        } catch (Exception e) {
+            log.warn("Failed to record skip for job {}", jobName, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.medicine.scheduler;
+
+import com.medicine.service.StorageGcService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 업로드 저장소 정리 작업
+ * DB 에서 참조하지 않는 파일(교체/실패로 남은 사진 등)을 유예 기간 후 삭제
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageGarbageCollector {
+
+    private static final String JOB_NAME = "storage-gc";
+    private static final Duration LEASE = Duration.ofHours(2);
+    private static final Duration LOCK_AT_LEAST = Duration.ofMinutes(1);
+
+    private final StorageGcService storageGcService;
+    private final ScheduledJobCoordinator jobCoordinator;
+
+    @Scheduled(cron = "${storage.gc.cron:0 0 5 * * *}")
+    public void collect() {
+        jobCoordinator.runExclusive(JOB_NAME, LEASE, LOCK_AT_LEAST, storageGcService::collect);
+    }
+}
@@ -0,0 +1,109 @@
+package com.medicine.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 달력 응답 버전 관리 (ETag / Cache-Control)
+ * - 월 단위 수정 카운터를 Redis에 보관하고, 기록이 바뀔 때마다 증가
+ * - 카운터가 없으면 현재 시각으로 초기화하여 Redis 초기화 후에도 이전 ETag와 겹치지 않도록 함
+ * - 트랜잭션 안에서 호출되면 커밋 후에 증가 (커밋 전 다른 요청이 새 ETag 로 이전 데이터를 캐시하지 않도록)
+ * - 카운터는 마지막 변경 후 ttl-days 가 지나면 만료 (만료 후 첫 조회 시 새 값으로 다시 시작)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CalendarVersionService {
+
+    public static final String MEDICINE = "medicine";
+    public static final String MEAL = "meal";
+
+    private static final String VERSION_KEY_PREFIX = "calendar:version:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${calendar.version.ttl-days:90}")
+    private long ttlDays;
+
+    /**
+     * 해당 날짜가 속한 월의 버전 증가 (트랜잭션 중이면 커밋 후)
+     */
+    public void bump(String scope, LocalDate date) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(scope, date);
+                }
+            });
+            return;
+        }
+        increment(scope, date);
+    }
+
+    private void increment(String scope, LocalDate date) {
+        String key = versionKey(scope, date.getYear(), date.getMonthValue());
+        try {
+            stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()), ttl());
+            stringRedisTemplate.opsForValue().increment(key);
+            stringRedisTemplate.expire(key, ttl());
+        } catch (Exception e) {
+            log.warn("달력 버전 갱신 실패 - scope: {}, date: {}", scope, date, e);
+        }
+    }
+
+    /**
+     * 현재 월 버전 기반 ETag (variant: 응답 형식 구분용)
+     * Redis 조회 실패 시 null (조건부 요청 없이 매번 새로 응답)
+     */
+    public String etag(String scope, int year, int month, String variant) {
+        String key = versionKey(scope, year, month);
+        String version;
+        try {
+            stringRedisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()), ttl());
+            version = stringRedisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.warn("달력 버전 조회 실패 - scope: {}, {}-{}", scope, year, month, e);
+            return null;
+        }
+
+        StringBuilder etag = new StringBuilder("\"")
+                .append(scope).append('-').append(year).append('-').append(month)
+                .append("-v").append(version);
+        if (variant != null && !variant.isEmpty()) {
+            etag.append('-').append(variant);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * 지난 달이면서 이후 기록 변경이 없는 달력은 immutable,
+     * 그 외에는 매번 ETag로 재검증
+     */
+    public CacheControl cacheControl(int year, int month, boolean closedMonthsImmutable) {
+        boolean closed = YearMonth.of(year, month).isBefore(YearMonth.now());
+        if (closed && closedMonthsImmutable) {
+            return CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+        }
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    private Duration ttl() {
+        return Duration.ofDays(ttlDays);
+    }
+
+    private String versionKey(String scope, int year, int month) {
+        return VERSION_KEY_PREFIX + scope + ":" + year + "-" + month;
+    }
+}
@@ -6,8 +6,10 @@ import com.medicine.model.User;
 import com.medicine.repository.CommentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -17,17 +19,15 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CommentService {
 
+    private static final String INLINE_IMAGE_PREFIX = "data:";
+
     private final CommentRepository commentRepository;
     private final ActivityService activityService;
+    private final FileStorageService fileStorageService;
 
     public List<Comment> getAllComments() {
-        List<Comment> comments = new ArrayList<>();
-        commentRepository.findAll().forEach(comments::add);
-
-        // 최신순 정렬
-        return comments.stream()
-                .sorted(Comparator.comparing(Comment::getCreatedAt).reversed())
-                .collect(Collectors.toList());
+        // 최신순 정렬 (이미지는 파일 URL 만 저장되어 있음)
+        return commentRepository.findAllByOrderByCreatedAtDesc();
     }
 
     public Map<String, List<Comment>> getCommentsGrouped() {
@@ -47,12 +47,18 @@ public class CommentService {
         return result;
     }
 
-    public Comment createComment(String content, String imageData, User user, Long parentCommentId) {
+    public Comment createComment(String content, String imageData, User user, Long parentCommentId) throws IOException {
         Comment comment = new Comment();
         comment.setContent(content);
-        comment.setImageUrl(imageData);
         comment.setUser(user);
 
+        // Base64 이미지는 DB 대신 파일로 저장하고 URL 만 기록
+        if (imageData != null && imageData.startsWith(INLINE_IMAGE_PREFIX)) {
+            comment.setImageUrl(fileStorageService.storeCommentImageData(imageData, "comment"));
+        } else {
+            comment.setImageUrl(imageData);
+        }
+
         // 부모 댓글 설정 (대댓글인 경우)
         if (parentCommentId != null) {
             commentRepository.findById(parentCommentId).ifPresent(comment::setParentComment);
@@ -103,12 +109,66 @@ public class CommentService {
             List<Comment> replies = commentRepository.findByParentCommentOrderByCreatedAtAsc(comment);
             replies.forEach(reply -> {
                 commentRepository.deleteById(reply.getId());
+                deleteImageFile(reply);
                 log.debug("Reply deleted: {}", reply.getId());
             });
 
             // 부모 댓글 삭제
             commentRepository.deleteById(commentId);
+            deleteImageFile(comment);
             log.debug("Comment deleted: {}", commentId);
         }
     }
+
+    /**
+     * Base64 로 저장된 기존 댓글 이미지를 파일로 이관
+     * ID 목록만 batchSize 개씩 읽고 이미지 본문은 한 건씩 읽어 저장하므로 메모리 사용이 이미지 1장 수준
+     *
+     * @return 이관한 댓글 수
+     */
+    public int migrateInlineImages(int batchSize) {
+        int migrated = 0;
+        long afterId = 0;
+
+        while (true) {
+            List<Long> ids = commentRepository.findIdsWithInlineImage(afterId, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            for (Long id : ids) {
+                afterId = id;
+                String imageData = commentRepository.findImageUrlById(id);
+                if (imageData == null || !imageData.startsWith(INLINE_IMAGE_PREFIX)) {
+                    continue;
+                }
+
+                String imageUrl;
+                try {
+                    imageUrl = fileStorageService.storeCommentImageData(imageData, "comment_" + id);
+                } catch (IOException | IllegalArgumentException e) {
+                    log.warn("댓글 이미지 이관 실패 - CommentId: {}", id, e);
+                    continue;
+                }
+
+                if (commentRepository.replaceInlineImage(id, imageUrl) == 0) {
+                    fileStorageService.deleteFile(imageUrl);  // 그 사이 삭제된 댓글
+                    continue;
+                }
+                migrated++;
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("댓글 이미지 파일 이관 완료 - {}건", migrated);
+        }
+        return migrated;
+    }
+
+    private void deleteImageFile(Comment comment) {
+        String imageUrl = comment.getImageUrl();
+        if (imageUrl != null && imageUrl.startsWith("/files/")) {
+            fileStorageService.deleteFile(imageUrl);
+        }
+    }
 }
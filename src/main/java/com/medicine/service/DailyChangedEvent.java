@@ -0,0 +1,16 @@
+package com.medicine.service;
+
+/**
+ * 일상 게시물 변경 이벤트 (피드 캐시 무효화용)
+ *
+ * @param dailyId 게시물 ID (RECONCILE, PROFILE, 사용자 삭제로 인한 DELETE 는 null)
+ * @param action  CREATE, UPDATE, DELETE (WebSocket 전송과 동일), PROFILE (작성자 이름/사진 변경)
+ *                또는 LIKE, COMMENT, RECONCILE (카운터 변경)
+ * @param userId  LIKE 를 누른 사용자 ID (그 외에는 null)
+ */
+public record DailyChangedEvent(Long dailyId, String action, Long userId) {
+
+    public DailyChangedEvent(Long dailyId, String action) {
+        this(dailyId, action, null);
+    }
+}
@@ -0,0 +1,228 @@
+package com.medicine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medicine.dto.DailyFeedPage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 일상 피드 Redis 캐시
+ * - 보는 사용자와 무관한 피드 페이지(JSON)와 사용자별 좋아요 게시물 ID 목록을 저장
+ * - 모든 값에 피드 버전을 붙여 저장하고, 게시물 작성/수정/삭제, 작성자 프로필 변경, 카운터 보정이 커밋되면
+ *   버전만 올려 한 번에 무효화 (이전 버전 값은 TTL 로 만료)
+ * - 좋아요/댓글 수는 페이지에 넣지 않고 게시물별 키로 따로 저장하여, 좋아요/댓글 변경 시 해당 게시물 수와
+ *   누른 사용자의 좋아요 목록만 삭제 (다른 페이지 캐시는 유지)
+ * - 조회는 버전/페이지/좋아요 목록을 MGET 한 번, 페이지 게시물 수를 MGET 한 번으로 가져옴
+ * - Redis 오류 시 캐시 없이 DB 조회
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyFeedCache {
+
+    private static final String VERSION_KEY = "daily:feed:version";
+    private static final String PAGE_KEY_PREFIX = "daily:feed:page:";
+    private static final String LIKED_KEY_PREFIX = "daily:feed:liked:";
+    private static final String COUNTS_KEY_PREFIX = "daily:feed:counts:";
+    private static final String FIRST_PAGE = "first";
+    private static final char VERSION_SEPARATOR = '|';
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${daily.feed-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${daily.feed-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    // 삭제 직전에 읽은 이전 수가 다시 저장되는 경우를 대비해 짧게 유지
+    @Value("${daily.feed-cache.counts-ttl-seconds:60}")
+    private long countsTtlSeconds;
+
+    /**
+     * 게시물 좋아요/댓글 수
+     */
+    public record Counts(int likes, int comments) {
+    }
+
+    /**
+     * 캐시 조회 결과
+     *
+     * @param version       조회 시점 피드 버전 (null 이면 캐시 사용 불가, 저장하지 않음)
+     * @param page          캐시된 페이지 (없으면 null)
+     * @param likedDailyIds 캐시된 좋아요 게시물 ID (없으면 null)
+     */
+    public record Lookup(String version, DailyFeedPage page, Set<Long> likedDailyIds) {
+
+        private static final Lookup MISS = new Lookup(null, null, null);
+    }
+
+    public Lookup lookup(String cursor, int size, Long viewerId) {
+        if (!enabled) {
+            return Lookup.MISS;
+        }
+
+        try {
+            List<String> values = stringRedisTemplate.opsForValue()
+                    .multiGet(List.of(VERSION_KEY, pageKey(cursor, size), likedKey(viewerId)));
+            if (values == null) {
+                return Lookup.MISS;
+            }
+
+            String version = values.get(0);
+            if (version == null) {
+                // Redis 초기화 후에도 이전 버전 값과 겹치지 않도록 현재 시각으로 시작
+                stringRedisTemplate.opsForValue().setIfAbsent(VERSION_KEY, String.valueOf(System.currentTimeMillis()));
+                return new Lookup(stringRedisTemplate.opsForValue().get(VERSION_KEY), null, null);
+            }
+
+            String pageJson = payload(values.get(1), version);
+            DailyFeedPage page = pageJson != null ? objectMapper.readValue(pageJson, DailyFeedPage.class) : null;
+            String liked = payload(values.get(2), version);
+            return new Lookup(version, page, liked != null ? parseIds(liked) : null);
+        } catch (Exception e) {
+            log.warn("피드 캐시 조회 실패 - cursor: {}, size: {}", cursor, size, e);
+            return Lookup.MISS;
+        }
+    }
+
+    public void storePage(String version, String cursor, int size, DailyFeedPage page) {
+        if (version == null) {
+            return;
+        }
+        try {
+            set(pageKey(cursor, size), version, objectMapper.writeValueAsString(page));
+        } catch (Exception e) {
+            log.warn("피드 캐시 저장 실패 - cursor: {}, size: {}", cursor, size, e);
+        }
+    }
+
+    public void storeLiked(String version, Long viewerId, Collection<Long> likedDailyIds) {
+        if (version == null) {
+            return;
+        }
+        try {
+            String ids = likedDailyIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+            set(likedKey(viewerId), version, ids);
+        } catch (Exception e) {
+            log.warn("좋아요 캐시 저장 실패 - userId: {}", viewerId, e);
+        }
+    }
+
+    /**
+     * 게시물별 좋아요/댓글 수 조회 (캐시에 없는 게시물은 결과에서 빠짐)
+     */
+    public Map<Long, Counts> lookupCounts(String version, List<Long> dailyIds) {
+        Map<Long, Counts> counts = new HashMap<>();
+        if (version == null || dailyIds.isEmpty()) {
+            return counts;
+        }
+        try {
+            List<String> values = stringRedisTemplate.opsForValue()
+                    .multiGet(dailyIds.stream().map(DailyFeedCache::countsKey).toList());
+            if (values == null) {
+                return counts;
+            }
+            for (int i = 0; i < dailyIds.size(); i++) {
+                String value = payload(values.get(i), version);
+                if (value != null) {
+                    int separator = value.indexOf(',');
+                    counts.put(dailyIds.get(i), new Counts(Integer.parseInt(value.substring(0, separator)),
+                            Integer.parseInt(value.substring(separator + 1))));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("게시물 수 캐시 조회 실패 - dailyIds: {}", dailyIds, e);
+        }
+        return counts;
+    }
+
+    public void storeCounts(String version, Map<Long, Counts> counts) {
+        if (version == null || counts.isEmpty()) {
+            return;
+        }
+        try {
+            Duration ttl = Duration.ofSeconds(countsTtlSeconds);
+            counts.forEach((dailyId, c) -> stringRedisTemplate.opsForValue()
+                    .set(countsKey(dailyId), version + VERSION_SEPARATOR + c.likes() + "," + c.comments(), ttl));
+        } catch (Exception e) {
+            log.warn("게시물 수 캐시 저장 실패 - dailyIds: {}", counts.keySet(), e);
+        }
+    }
+
+    /**
+     * 게시물 변경이 커밋되면 캐시 무효화
+     * - LIKE: 해당 게시물 수와 누른 사용자의 좋아요 목록만 삭제
+     * - COMMENT: 해당 게시물 수만 삭제
+     * - 그 외 (CREATE, UPDATE, DELETE, PROFILE, RECONCILE): 페이지 구성이 바뀌므로 피드 버전 증가
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDailyChanged(DailyChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            switch (event.action()) {
+                case "LIKE" -> stringRedisTemplate.delete(List.of(countsKey(event.dailyId()), likedKey(event.userId())));
+                case "COMMENT" -> stringRedisTemplate.delete(countsKey(event.dailyId()));
+                default -> stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+            }
+            log.debug("피드 캐시 무효화 - dailyId: {}, action: {}", event.dailyId(), event.action());
+        } catch (Exception e) {
+            log.warn("피드 캐시 무효화 실패 - dailyId: {}, action: {}", event.dailyId(), event.action(), e);
+        }
+    }
+
+    private void set(String key, String version, String payload) {
+        stringRedisTemplate.opsForValue().set(key, version + VERSION_SEPARATOR + payload, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * "{version}|{payload}" 에서 버전이 일치할 때만 payload 반환
+     */
+    private static String payload(String value, String version) {
+        if (value == null) {
+            return null;
+        }
+        int separator = value.indexOf(VERSION_SEPARATOR);
+        if (separator < 0 || !version.equals(value.substring(0, separator))) {
+            return null;
+        }
+        return value.substring(separator + 1);
+    }
+
+    private static Set<Long> parseIds(String ids) {
+        Set<Long> parsed = new HashSet<>();
+        if (!ids.isEmpty()) {
+            Arrays.stream(ids.split(",")).map(Long::valueOf).forEach(parsed::add);
+        }
+        return parsed;
+    }
+
+    private static String pageKey(String cursor, int size) {
+        return PAGE_KEY_PREFIX + (cursor == null || cursor.isBlank() ? FIRST_PAGE : cursor) + ":" + size;
+    }
+
+    private static String likedKey(Long viewerId) {
+        return LIKED_KEY_PREFIX + viewerId;
+    }
+
+    private static String countsKey(Long dailyId) {
+        return COUNTS_KEY_PREFIX + dailyId;
+    }
+}
@@ -0,0 +1,226 @@
+package com.medicine.service;
+
+import com.medicine.dto.DailyFeedItem;
+import com.medicine.dto.DailyFeedPage;
+import com.medicine.model.Daily;
+import com.medicine.model.DailyImage;
+import com.medicine.model.User;
+import com.medicine.repository.DailyImageRepository;
+import com.medicine.repository.DailyLikeRepository;
+import com.medicine.repository.DailyRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 일상 피드 조회
+ * 게시물 페이지(작성자 포함), 이미지, 좋아요/댓글 수, 좋아요 여부를 게시물 수와 무관하게 고정된 4개 쿼리로 조회
+ * 페이지는 (createdAt, id) 커서 기준이라 전체 게시물 수와 관계없이 일정한 비용
+ * 보는 사용자와 무관한 페이지, 게시물별 좋아요/댓글 수, 사용자별 좋아요 목록은 DailyFeedCache(Redis)에
+ * 따로 캐시하여 응답 시 합침 (좋아요/댓글 변경이 페이지 캐시를 무효화하지 않도록 수는 페이지에 넣지 않음)
+ */
+@Service
+@RequiredArgsConstructor
+public class DailyFeedService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 50;
+    private static final int NEW_BADGE_DAYS = 3;
+
+    private final DailyRepository dailyRepository;
+    private final DailyImageRepository dailyImageRepository;
+    private final DailyLikeRepository dailyLikeRepository;
+    private final DailyFeedCache dailyFeedCache;
+
+    /**
+     * 피드 한 페이지 조회 (캐시 적중 시 Redis 조회 2회)
+     *
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @return dailies: 게시물 목록, nextCursor: 다음 페이지 커서 (마지막 페이지면 null)
+     * @throws IllegalArgumentException 커서 형식이 잘못된 경우
+     */
+    public Map<String, Object> getFeedPage(Long viewerId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        DailyFeedCache.Lookup cached = dailyFeedCache.lookup(cursor, pageSize, viewerId);
+
+        DailyFeedPage page = cached.page();
+        if (page == null) {
+            page = loadPage(cursor, pageSize);
+            dailyFeedCache.storePage(cached.version(), cursor, pageSize, page);
+        }
+
+        Set<Long> liked = cached.likedDailyIds();
+        if (liked == null) {
+            liked = new HashSet<>(dailyLikeRepository.findDailyIdsByUserId(viewerId));
+            dailyFeedCache.storeLiked(cached.version(), viewerId, liked);
+        }
+
+        List<Long> dailyIds = page.getDailies().stream().map(DailyFeedItem::getId).toList();
+        Map<Long, DailyFeedCache.Counts> counts = dailyFeedCache.lookupCounts(cached.version(), dailyIds);
+        if (counts.size() < dailyIds.size()) {
+            Map<Long, DailyFeedCache.Counts> loaded = loadCounts(
+                    dailyIds.stream().filter(id -> !counts.containsKey(id)).toList());
+            dailyFeedCache.storeCounts(cached.version(), loaded);
+            counts.putAll(loaded);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("dailies", toResponse(page.getDailies(), counts, liked));
+        response.put("nextCursor", page.getNextCursor());
+        return response;
+    }
+
+    /**
+     * 전체 게시물 조회 (검색, 위시 연결 선택 등 전체 목록이 필요한 화면용, 캐시하지 않음)
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllDailies(Long viewerId) {
+        List<Daily> dailies = dailyRepository.findFeed(Pageable.unpaged());
+        if (dailies.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, DailyFeedCache.Counts> counts = new HashMap<>();
+        for (Daily daily : dailies) {
+            counts.put(daily.getId(), new DailyFeedCache.Counts(daily.getLikesCount(), daily.getCommentsCount()));
+        }
+        List<Long> dailyIds = dailies.stream().map(Daily::getId).toList();
+        return toResponse(toFeedItems(dailies), counts,
+                new HashSet<>(dailyLikeRepository.findLikedDailyIds(viewerId, dailyIds)));
+    }
+
+    private Map<Long, DailyFeedCache.Counts> loadCounts(List<Long> dailyIds) {
+        Map<Long, DailyFeedCache.Counts> counts = new HashMap<>();
+        for (Object[] row : dailyRepository.findCountsByIds(dailyIds)) {
+            counts.put((Long) row[0], new DailyFeedCache.Counts(
+                    row[1] != null ? ((Number) row[1]).intValue() : 0,
+                    row[2] != null ? ((Number) row[2]).intValue() : 0));
+        }
+        return counts;
+    }
+
+    private DailyFeedPage loadPage(String cursor, int pageSize) {
+        // 다음 페이지 존재 여부 확인용으로 1건 더 조회
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<Daily> dailies;
+        if (cursor == null || cursor.isBlank()) {
+            dailies = dailyRepository.findFeed(pageable);
+        } else {
+            FeedCursor position = FeedCursor.parse(cursor);
+            dailies = dailyRepository.findFeedBefore(position.createdAt(), position.id(), pageable);
+        }
+
+        String nextCursor = null;
+        if (dailies.size() > pageSize) {
+            dailies = dailies.subList(0, pageSize);
+            Daily last = dailies.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).toString();
+        }
+        return new DailyFeedPage(toFeedItems(dailies), nextCursor);
+    }
+
+    /**
+     * 보는 사용자와 무관한 게시물 정보 (이미지, 작성자 포함)
+     */
+    private List<DailyFeedItem> toFeedItems(List<Daily> dailies) {
+        if (dailies.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> dailyIds = dailies.stream().map(Daily::getId).toList();
+
+        Map<Long, List<Map<String, Object>>> imagesByDaily = new HashMap<>();
+        for (DailyImage image : dailyImageRepository.findByDailyIds(dailyIds)) {
+            Map<String, Object> imageMap = new HashMap<>();
+            imageMap.put("id", image.getId());
+            imageMap.put("imageUrl", image.getImageUrl());
+            imageMap.put("imageOrder", image.getImageOrder());
+            imageMap.put("mediaType", image.getMediaType());
+            imagesByDaily.computeIfAbsent(image.getDaily().getId(), id -> new ArrayList<>()).add(imageMap);
+        }
+
+        List<DailyFeedItem> items = new ArrayList<>(dailies.size());
+        for (Daily daily : dailies) {
+            // User 정보 맵 생성 (profileImageUpdatedAt은 null일 수 있으므로 HashMap 사용)
+            User author = daily.getUser();
+            Map<String, Object> userMap = new HashMap<>();
+            userMap.put("id", author.getId());
+            userMap.put("username", author.getUsername());
+            userMap.put("displayName", author.getDisplayName() != null ? author.getDisplayName() : author.getUsername());
+            userMap.put("profileImage", author.getProfileImage() != null ? author.getProfileImage() : "");
+            userMap.put("profileImageUpdatedAt", author.getProfileImageUpdatedAt());
+
+            items.add(DailyFeedItem.builder()
+                    .id(daily.getId())
+                    .content(daily.getContent())
+                    .mediaUrl(daily.getMediaUrl())
+                    .mediaType(daily.getMediaType())
+                    .createdAt(daily.getCreatedAt())
+                    .images(imagesByDaily.getOrDefault(daily.getId(), List.of()))
+                    .user(userMap)
+                    .build());
+        }
+        return items;
+    }
+
+    /**
+     * 좋아요/댓글 수와 보는 사용자 기준 정보 (좋아요 여부, NEW 뱃지)를 더한 응답
+     */
+    private List<Map<String, Object>> toResponse(List<DailyFeedItem> items, Map<Long, DailyFeedCache.Counts> counts,
+                                                 Set<Long> liked) {
+        LocalDateTime newSince = LocalDateTime.now().minusDays(NEW_BADGE_DAYS);
+
+        List<Map<String, Object>> response = new ArrayList<>(items.size());
+        for (DailyFeedItem item : items) {
+            DailyFeedCache.Counts count = counts.getOrDefault(item.getId(), new DailyFeedCache.Counts(0, 0));
+            Map<String, Object> dailyMap = new HashMap<>();
+            dailyMap.put("id", item.getId());
+            dailyMap.put("content", item.getContent());
+            dailyMap.put("mediaUrl", item.getMediaUrl());
+            dailyMap.put("mediaType", item.getMediaType());
+            dailyMap.put("likesCount", count.likes());
+            dailyMap.put("createdAt", item.getCreatedAt());
+            dailyMap.put("isNew", item.getCreatedAt() != null && item.getCreatedAt().isAfter(newSince));
+            dailyMap.put("commentsCount", count.comments());
+            dailyMap.put("images", item.getImages());
+            dailyMap.put("user", item.getUser());
+            dailyMap.put("isLiked", liked.contains(item.getId()));
+            response.add(dailyMap);
+        }
+        return response;
+    }
+
+    /**
+     * 피드 커서 ("{createdAt}_{id}")
+     */
+    private record FeedCursor(LocalDateTime createdAt, Long id) {
+
+        static FeedCursor parse(String value) {
+            int separator = value.lastIndexOf('_');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+            try {
+                return new FeedCursor(LocalDateTime.parse(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return createdAt + "_" + id;
+        }
+    }
+}
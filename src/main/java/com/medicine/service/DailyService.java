@@ -11,6 +11,7 @@ import com.medicine.repository.DailyLikeRepository;
 import com.medicine.repository.DailyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -31,6 +32,7 @@ public class DailyService {
     private final FileStorageService fileStorageService;
     private final ActivityService activityService;
     private final WebSocketService webSocketService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 모든 일상 게시물 조회 (최신순)
@@ -125,7 +127,8 @@ public class DailyService {
             log.error("Failed to create activity for daily post", e);
         }
 
-        // WebSocket 실시간 업데이트 전송
+        // 피드 캐시 무효화 (커밋 후) 및 WebSocket 실시간 업데이트 전송
+        eventPublisher.publishEvent(new DailyChangedEvent(saved.getId(), "CREATE"));
         try {
             webSocketService.broadcastDailyUpdate(saved, "CREATE");
         } catch (Exception e) {
@@ -150,7 +153,8 @@ public class DailyService {
         daily.setContent(content);
         Daily updated = dailyRepository.save(daily);
 
-        // WebSocket 실시간 업데이트 전송
+        // 피드 캐시 무효화 (커밋 후) 및 WebSocket 실시간 업데이트 전송
+        eventPublisher.publishEvent(new DailyChangedEvent(id, "UPDATE"));
         try {
             webSocketService.broadcastDailyUpdate(updated, "UPDATE");
         } catch (Exception e) {
@@ -187,7 +191,8 @@ public class DailyService {
         dailyRepository.delete(daily);
         log.info("Daily post deleted - User: {}, ID: {}", user.getUsername(), id);
 
-        // WebSocket 실시간 업데이트 전송
+        // 피드 캐시 무효화 (커밋 후) 및 WebSocket 실시간 업데이트 전송
+        eventPublisher.publishEvent(new DailyChangedEvent(id, "DELETE"));
         try {
             webSocketService.broadcastDailyUpdate(daily, "DELETE");
         } catch (Exception e) {
@@ -197,42 +202,47 @@ public class DailyService {
 
     /**
      * 좋아요 토글
+     * 좋아요 행 추가/삭제 결과(영향받은 행 수)에 따라 likes_count 를 원자적으로 증감하므로 동시 요청에도 수가 어긋나지 않음
      */
     @Transactional
     public boolean toggleLike(Long dailyId, User user) {
-        Daily daily = dailyRepository.findById(dailyId)
-                .orElseThrow(() -> new IllegalArgumentException("게시물을 찾을 수 없습니다."));
-
-        Optional<DailyLike> existingLike = dailyLikeRepository.findByDailyIdAndUserId(dailyId, user.getId());
+        if (!dailyRepository.existsById(dailyId)) {
+            throw new IllegalArgumentException("게시물을 찾을 수 없습니다.");
+        }
 
-        if (existingLike.isPresent()) {
-            // 좋아요 취소
-            dailyLikeRepository.delete(existingLike.get());
-            daily.setLikesCount(Math.max(0, daily.getLikesCount() - 1));
-            dailyRepository.save(daily);
+        // 좋아요 취소
+        if (dailyLikeRepository.deleteLike(dailyId, user.getId()) > 0) {
+            dailyRepository.adjustLikesCount(dailyId, -1);
+            eventPublisher.publishEvent(new DailyChangedEvent(dailyId, "LIKE", user.getId()));
             log.info("Daily like removed - User: {}, DailyId: {}", user.getUsername(), dailyId);
             return false;
-        } else {
-            // 좋아요 추가
-            DailyLike like = new DailyLike();
-            like.setDaily(daily);
-            like.setUser(user);
-            dailyLikeRepository.save(like);
-
-            daily.setLikesCount(daily.getLikesCount() + 1);
-            dailyRepository.save(daily);
-            log.info("Daily like added - User: {}, DailyId: {}", user.getUsername(), dailyId);
-
-            // 활동 기록 생성
-            try {
-                String message = user.getDisplayName() + "님이 일상에 좋아요를 눌렀습니다";
-                activityService.createActivity(user, Activity.ActivityType.DAILY_LIKE, message, dailyId);
-            } catch (Exception e) {
-                log.error("Failed to create activity for daily like", e);
-            }
+        }
 
+        // 좋아요 추가 (동시에 같은 요청이 먼저 추가했으면 0)
+        if (dailyLikeRepository.insertIfAbsent(dailyId, user.getId()) == 0) {
             return true;
         }
+        dailyRepository.adjustLikesCount(dailyId, 1);
+        eventPublisher.publishEvent(new DailyChangedEvent(dailyId, "LIKE", user.getId()));
+        log.info("Daily like added - User: {}, DailyId: {}", user.getUsername(), dailyId);
+
+        // 활동 기록 생성
+        try {
+            String message = user.getDisplayName() + "님이 일상에 좋아요를 눌렀습니다";
+            activityService.createActivity(user, Activity.ActivityType.DAILY_LIKE, message, dailyId);
+        } catch (Exception e) {
+            log.error("Failed to create activity for daily like", e);
+        }
+
+        return true;
+    }
+
+    /**
+     * 좋아요 수 조회 (DB 값)
+     */
+    public int getLikesCount(Long dailyId) {
+        Integer likesCount = dailyRepository.findLikesCountById(dailyId);
+        return likesCount != null ? likesCount : 0;
     }
 
     /**
@@ -256,6 +266,8 @@ public class DailyService {
         }
 
         DailyComment saved = dailyCommentRepository.save(comment);
+        dailyRepository.adjustCommentsCount(dailyId, 1);
+        eventPublisher.publishEvent(new DailyChangedEvent(dailyId, "COMMENT"));
         log.info("Daily comment added - User: {}, DailyId: {}, ParentCommentId: {}",
                 user.getUsername(), dailyId, parentCommentId);
 
@@ -290,9 +302,24 @@ public class DailyService {
         }
 
         dailyCommentRepository.delete(comment);
+        dailyRepository.adjustCommentsCount(comment.getDaily().getId(), -1);
+        eventPublisher.publishEvent(new DailyChangedEvent(comment.getDaily().getId(), "COMMENT"));
         log.info("Daily comment deleted - User: {}, CommentId: {}", user.getUsername(), commentId);
     }
 
+    /**
+     * 좋아요/댓글 수 보정 (원자적 증감 외 경로로 생긴 차이 정리)
+     *
+     * @return 보정된 게시물 수
+     */
+    public int reconcileCounters() {
+        int corrected = dailyRepository.reconcileCounters();
+        if (corrected > 0) {
+            eventPublisher.publishEvent(new DailyChangedEvent(null, "RECONCILE"));
+        }
+        return corrected;
+    }
+
     /**
      * 사용자가 좋아요를 눌렀는지 확인
      */
@@ -0,0 +1,11 @@
+package com.medicine.service;
+
+import java.nio.file.Path;
+
+/**
+ * 업로드 파일 삭제 이벤트 (원본과 축소본이 함께 삭제됨)
+ *
+ * @param path 삭제된 원본 파일 경로
+ */
+public record FileDeletedEvent(Path path) {
+}
@@ -1,28 +1,84 @@
 package com.medicine.service;
 
+import com.medicine.repository.StoredFileRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Service
 public class FileStorageService {
 
+    // 업로드 이미지의 가로 폭별 축소본 ({원본 파일명}.w{폭}.jpg, 원본과 같은 디렉토리)
+    private static final Pattern VARIANT_FILENAME = Pattern.compile(".+\\.w\\d+\\.jpg");
+    // 내용 주소 방식 파일명: {sha256}{확장자}[.w{폭}.jpg]
+    private static final Pattern CONTENT_ADDRESSED_FILENAME = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,10})?(\\.w\\d+\\.jpg)?");
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[a-z0-9]{1,10}");
+    private static final Map<String, String> MIME_EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/jpg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp",
+            "image/heic", ".heic",
+            "image/bmp", ".bmp");
+
     private final Path profileStorageLocation;
     private final Path imageStorageLocation;
     private final Path mealStorageLocation;
     private final Path pointItemStorageLocation;
     private final Path dailyStorageLocation;
     private final Path wishStorageLocation;
+    private final Path contentStorageLocation;
+    private final Path contentTempLocation;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StoredFileRepository storedFileRepository;
+    private final TransactionTemplate refCountTransaction;
+
+    @Value("${file.variants.widths:64,320,1080}")
+    private int[] variantWidths;
+
+    @Value("${file.storage.content-addressed:true}")
+    private boolean contentAddressed;
+
+    public FileStorageService(ApplicationEventPublisher eventPublisher,
+                              StoredFileRepository storedFileRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.eventPublisher = eventPublisher;
+        this.storedFileRepository = storedFileRepository;
+
+        // 참조 수 갱신은 호출자 트랜잭션과 분리하여 행 잠금을 짧게 유지
+        this.refCountTransaction = new TransactionTemplate(transactionManager);
+        this.refCountTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 
-    public FileStorageService() {
         // Get the directory where the JAR is running
         String baseDir = System.getProperty("user.dir");
 
@@ -32,6 +88,8 @@ public class FileStorageService {
         this.pointItemStorageLocation = Paths.get(baseDir, "pointitem").toAbsolutePath().normalize();
         this.dailyStorageLocation = Paths.get(baseDir, "daily").toAbsolutePath().normalize();
         this.wishStorageLocation = Paths.get(baseDir, "wish").toAbsolutePath().normalize();
+        this.contentStorageLocation = Paths.get(baseDir, "content").toAbsolutePath().normalize();
+        this.contentTempLocation = contentStorageLocation.resolve("tmp");
 
         try {
             Files.createDirectories(this.profileStorageLocation);
@@ -40,6 +98,7 @@ public class FileStorageService {
             Files.createDirectories(this.pointItemStorageLocation);
             Files.createDirectories(this.dailyStorageLocation);
             Files.createDirectories(this.wishStorageLocation);
+            Files.createDirectories(this.contentTempLocation);
             log.info("Storage directories created/verified:");
             log.info("  Profile: {}", this.profileStorageLocation);
             log.info("  Image: {}", this.imageStorageLocation);
@@ -47,6 +106,7 @@ public class FileStorageService {
             log.info("  PointItem: {}", this.pointItemStorageLocation);
             log.info("  Daily: {}", this.dailyStorageLocation);
             log.info("  Wish: {}", this.wishStorageLocation);
+            log.info("  Content: {}", this.contentStorageLocation);
         } catch (Exception ex) {
             log.error("Could not create storage directories", ex);
             throw new RuntimeException("Could not create storage directories", ex);
@@ -139,6 +199,41 @@ public class FileStorageService {
             extension = originalFilename.substring(lastDotIndex);
         }
 
+        try (InputStream input = file.getInputStream()) {
+            return storeStream(input, extension, storageLocation, type, identifier);
+        }
+    }
+
+    /**
+     * Store comment image from a Base64 data URL (e.g., "data:image/png;base64,....")
+     * 문자열 전체를 다시 디코딩해 메모리에 올리지 않고 스트림으로 풀어서 저장
+     *
+     * @param dataUrl   the Base64 data URL
+     * @param commentId the comment ID
+     * @return the relative path to the stored file (e.g., "/files/image/comment_123_abc.png")
+     */
+    public String storeCommentImageData(String dataUrl, String commentId) throws IOException {
+        int comma = dataUrl.indexOf(',');
+        if (!dataUrl.startsWith("data:") || comma < 0 || !dataUrl.substring(0, comma).endsWith(";base64")) {
+            throw new IOException("Invalid data URL");
+        }
+
+        String mimeType = dataUrl.substring("data:".length(), comma - ";base64".length());
+        String extension = MIME_EXTENSIONS.getOrDefault(mimeType.toLowerCase(Locale.ROOT), "");
+
+        byte[] encoded = dataUrl.getBytes(StandardCharsets.US_ASCII);
+        try (InputStream input = Base64.getMimeDecoder().wrap(
+                new ByteArrayInputStream(encoded, comma + 1, encoded.length - comma - 1))) {
+            return storeStream(input, extension, imageStorageLocation, "image", commentId);
+        }
+    }
+
+    private String storeStream(InputStream input, String extension, Path storageLocation,
+                               String type, String identifier) throws IOException {
+        if (contentAddressed) {
+            return storeContentAddressed(input, type, extension);
+        }
+
         // Generate unique filename: {identifier}_{timestamp}_{uuid}.{extension}
         String timestamp = String.valueOf(System.currentTimeMillis());
         String uuid = UUID.randomUUID().toString().substring(0, 8);
@@ -146,15 +241,148 @@ public class FileStorageService {
 
         // Store file
         Path targetLocation = storageLocation.resolve(filename);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        long size = Files.copy(input, targetLocation, StandardCopyOption.REPLACE_EXISTING);
 
         log.info("File stored successfully: type={}, filename={}, size={} bytes",
-                type, filename, file.getSize());
+                type, filename, size);
+
+        // 축소본 생성 등 후처리 (비동기)
+        eventPublisher.publishEvent(new FileStoredEvent(type, targetLocation));
 
         // Return relative URL path
         return "/files/" + type + "/" + filename;
     }
 
+    /**
+     * 내용 주소 방식 저장
+     * 업로드를 임시 파일로 받으면서 SHA-256 을 계산하고, content/ab/cd/{hash}{확장자} 에 둠.
+     * 같은 내용이 이미 있으면 파일은 그대로 두고 참조 수만 증가
+     */
+    private String storeContentAddressed(InputStream source, String type, String extension) throws IOException {
+        String normalizedExtension = extension.toLowerCase(Locale.ROOT);
+        if (!SAFE_EXTENSION.matcher(normalizedExtension).matches()) {
+            normalizedExtension = "";
+        }
+
+        Path temp = Files.createTempFile(contentTempLocation, "upload-", ".tmp");
+        try {
+            MessageDigest digest = newSha256();
+            long size;
+            size = Files.copy(new DigestInputStream(source, digest), temp, StandardCopyOption.REPLACE_EXISTING);
+
+            String filename = HexFormat.of().formatHex(digest.digest()) + normalizedExtension;
+            Path targetLocation = getContentAddressedPath(filename);
+
+            // 참조 행 잠금을 잡은 상태에서 파일을 두므로 같은 파일의 마지막 참조 삭제와 겹치지 않음
+            Boolean created = refCountTransaction.execute(status -> {
+                storedFileRepository.acquire(filename, size, LocalDateTime.now());
+                if (Files.exists(targetLocation)) {
+                    return false;
+                }
+                try {
+                    Files.createDirectories(targetLocation.getParent());
+                    Files.move(temp, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            });
+
+            log.info("File stored successfully: type={}, filename={}, size={} bytes, deduplicated={}",
+                    type, filename, size, !Boolean.TRUE.equals(created));
+
+            eventPublisher.publishEvent(new FileStoredEvent(type, targetLocation));
+            return "/files/" + type + "/" + filename;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 내용 주소 방식 파일의 참조 해제 (마지막 참조였으면 파일과 축소본 삭제)
+     */
+    private void releaseContentAddressed(String filePath, String filename) {
+        Path fileLocation = getContentAddressedPath(filename);
+        Boolean unlinked = refCountTransaction.execute(status -> {
+            storedFileRepository.release(filename);
+            if (storedFileRepository.deleteIfUnreferenced(filename) == 0) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(fileLocation);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            deleteVariants(fileLocation);
+            return true;
+        });
+
+        log.info("File reference released: {} (unlinked={})", filePath, Boolean.TRUE.equals(unlinked));
+    }
+
+    /**
+     * content/{hash 앞 2자리}/{다음 2자리}/{파일명}
+     */
+    private Path getContentAddressedPath(String filename) {
+        return contentStorageLocation.resolve(filename.substring(0, 2)).resolve(filename.substring(2, 4)).resolve(filename);
+    }
+
+    /**
+     * GC: DB 참조가 없는 내용 주소 파일 삭제
+     * 유예 기간 안에 같은 내용이 다시 업로드되었으면 (참조 추가) 건너뜀
+     *
+     * @return 삭제했으면 true
+     */
+    public boolean deleteUnreferencedContent(String filename, LocalDateTime acquiredBefore) {
+        Path fileLocation = getContentAddressedPath(filename);
+        Boolean deleted = refCountTransaction.execute(status -> {
+            if (storedFileRepository.deleteIfNotAcquiredSince(filename, acquiredBefore) == 0
+                    && storedFileRepository.existsById(filename)) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(fileLocation);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            deleteVariants(fileLocation);
+            return true;
+        });
+        return Boolean.TRUE.equals(deleted);
+    }
+
+    /**
+     * 업로드 구분별 저장 디렉토리 (기존 방식 파일)
+     */
+    public Map<String, Path> getStorageLocations() {
+        Map<String, Path> locations = new LinkedHashMap<>();
+        for (String type : List.of("profile", "image", "meal", "pointitem", "daily", "wish")) {
+            locations.put(type, getStorageLocation(type));
+        }
+        return locations;
+    }
+
+    /**
+     * 내용 주소 방식 저장 루트 (content/ab/cd/..., content/tmp)
+     */
+    public Path getContentStorageLocation() {
+        return contentStorageLocation;
+    }
+
+    public boolean isContentAddressedFilename(String filename) {
+        return CONTENT_ADDRESSED_FILENAME.matcher(filename).matches();
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Delete file
      *
@@ -177,25 +405,21 @@ public class FileStorageService {
             String type = parts[2]; // "profile" or "image"
             String filename = parts[3];
 
+            if (isContentAddressedFilename(filename)) {
+                releaseContentAddressed(filePath, filename);
+                return;
+            }
+
             Path fileLocation;
-            if ("profile".equals(type)) {
-                fileLocation = profileStorageLocation.resolve(filename);
-            } else if ("image".equals(type)) {
-                fileLocation = imageStorageLocation.resolve(filename);
-            } else if ("meal".equals(type)) {
-                fileLocation = mealStorageLocation.resolve(filename);
-            } else if ("pointitem".equals(type)) {
-                fileLocation = pointItemStorageLocation.resolve(filename);
-            } else if ("daily".equals(type)) {
-                fileLocation = dailyStorageLocation.resolve(filename);
-            } else if ("wish".equals(type)) {
-                fileLocation = wishStorageLocation.resolve(filename);
-            } else {
+            try {
+                fileLocation = getFilePath(type, filename);
+            } catch (IllegalArgumentException e) {
                 log.warn("Unknown file type: {}", type);
                 return;
             }
 
             Files.deleteIfExists(fileLocation);
+            deleteVariants(fileLocation);
             log.info("File deleted successfully: {}", filePath);
         } catch (Exception e) {
             log.error("Failed to delete file: {}", filePath, e);
@@ -206,19 +430,83 @@ public class FileStorageService {
      * Get file path for serving
      */
     public Path getFilePath(String type, String filename) {
+        Path storageLocation = getStorageLocation(type);
+        if (isContentAddressedFilename(filename)) {
+            return getContentAddressedPath(filename);
+        }
+        return storageLocation.resolve(filename);
+    }
+
+    private Path getStorageLocation(String type) {
         if ("profile".equals(type)) {
-            return profileStorageLocation.resolve(filename);
+            return profileStorageLocation;
         } else if ("image".equals(type)) {
-            return imageStorageLocation.resolve(filename);
+            return imageStorageLocation;
         } else if ("meal".equals(type)) {
-            return mealStorageLocation.resolve(filename);
+            return mealStorageLocation;
         } else if ("pointitem".equals(type)) {
-            return pointItemStorageLocation.resolve(filename);
+            return pointItemStorageLocation;
         } else if ("daily".equals(type)) {
-            return dailyStorageLocation.resolve(filename);
+            return dailyStorageLocation;
         } else if ("wish".equals(type)) {
-            return wishStorageLocation.resolve(filename);
+            return wishStorageLocation;
         }
         throw new IllegalArgumentException("Unknown file type: " + type);
     }
+
+    /**
+     * 요청 폭에 맞는 축소본 폭 (요청 이상 중 가장 작은 것, 없으면 가장 큰 것)
+     */
+    public int selectVariantWidth(int requestedWidth) {
+        int[] widths = getVariantWidths();
+        for (int width : widths) {
+            if (width >= requestedWidth) {
+                return width;
+            }
+        }
+        return widths[widths.length - 1];
+    }
+
+    public int[] getVariantWidths() {
+        int[] widths = variantWidths.clone();
+        Arrays.sort(widths);
+        return widths;
+    }
+
+    /**
+     * 원본 파일의 축소본 경로
+     */
+    public Path getVariantPath(Path original, int width) {
+        return original.resolveSibling(original.getFileName() + ".w" + width + ".jpg");
+    }
+
+    /**
+     * 축소본 파일명인지 (원본으로 취급하지 않아야 하는 파일)
+     */
+    public boolean isVariantFilename(String filename) {
+        return VARIANT_FILENAME.matcher(filename).matches();
+    }
+
+    /**
+     * 축소본의 원본 경로
+     */
+    public Path getVariantOriginal(Path variant) {
+        String filename = variant.getFileName().toString();
+        return variant.resolveSibling(filename.substring(0, filename.lastIndexOf(".w")));
+    }
+
+    /**
+     * 원본의 축소본 모두 삭제
+     * 원본을 지운 뒤 항상 호출되므로 삭제 이벤트(메모리 캐시 무효화 등)도 여기서 발행
+     */
+    public void deleteVariants(Path original) {
+        for (int width : variantWidths) {
+            try {
+                Files.deleteIfExists(getVariantPath(original, width));
+            } catch (IOException e) {
+                log.warn("Failed to delete variant: {} (w{})", original, width, e);
+            }
+        }
+        eventPublisher.publishEvent(new FileDeletedEvent(original));
+    }
 }
@@ -0,0 +1,12 @@
+package com.medicine.service;
+
+import java.nio.file.Path;
+
+/**
+ * 업로드 파일 저장 완료 이벤트 (축소본 생성 등 후처리용)
+ *
+ * @param type 저장소 구분 (profile, image, meal, pointitem, daily, wish)
+ * @param path 저장된 원본 파일 경로
+ */
+public record FileStoredEvent(String type, Path path) {
+}
@@ -0,0 +1,197 @@
+package com.medicine.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 작은 업로드 파일(프로필, 포인트 상품 이미지, 아바타 축소본 등) 메모리 캐시
+ * - 파일 크기 한도(max-file-bytes) 이하만 보관, 전체 바이트 한도(max-bytes)를 넘으면 가장 오래 안 쓴 항목부터 제거 (LRU)
+ * - 본문과 ETag/Last-Modified/Content-Type 을 미리 만들어 두어 적중 시 디스크를 전혀 읽지 않음
+ * - direct=true 면 본문을 힙 밖(direct ByteBuffer)에 보관
+ * - 같은 노드의 삭제는 FileDeletedEvent 로 즉시 무효화
+ * - 다른 노드에서 삭제/교체된 파일은 이벤트가 오지 않으므로 적중 시 stat 으로 크기/수정 시각을 확인하고,
+ *   파일이 없거나 달라졌으면 항목을 버림 (revalidate=false 면 생략)
+ */
+@Service
+@RequiredArgsConstructor
+public class HotMediaCache {
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${file.hot-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${file.hot-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${file.hot-cache.max-file-bytes:262144}")
+    private long maxFileBytes;
+
+    @Value("${file.hot-cache.direct:false}")
+    private boolean direct;
+
+    @Value("${file.hot-cache.revalidate:true}")
+    private boolean revalidate;
+
+    // 접근 순서 LinkedHashMap (맨 앞이 가장 오래 안 쓴 항목)
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long stale;
+
+    /**
+     * 캐시된 응답 (body 는 공유되므로 읽을 때 duplicate() 사용)
+     */
+    public record Entry(ByteBuffer body, String etag, long lastModified, String contentType) {
+
+        public long length() {
+            return body.capacity();
+        }
+    }
+
+    public Entry get(Path file) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(file);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+        }
+
+        if (revalidate && !isCurrent(file, entry)) {
+            synchronized (this) {
+                if (entries.get(file) == entry) {
+                    remove(file);
+                }
+                stale++;
+                misses++;
+            }
+            return null;
+        }
+
+        synchronized (this) {
+            hits++;
+        }
+        return entry;
+    }
+
+    /**
+     * 디스크의 파일이 캐시 시점과 같은지 (크기 + 수정 시각, 본문은 읽지 않음)
+     */
+    private boolean isCurrent(Path file, Entry entry) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.size() == entry.length()
+                    && attributes.lastModifiedTime().toMillis() == entry.lastModified();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public boolean isCacheable(long length) {
+        return enabled && length <= maxFileBytes && length <= maxBytes;
+    }
+
+    /**
+     * 파일을 읽어 캐시에 넣고 반환
+     * 파일 크기가 stat 결과와 다르면 (읽는 중 교체 등) 캐시하지 않고 null 반환
+     */
+    public Entry load(Path file, long length, String etag, long lastModified, String contentType) throws IOException {
+        long generation;
+        synchronized (this) {
+            generation = invalidations;
+        }
+
+        ByteBuffer body = direct ? ByteBuffer.allocateDirect((int) length) : ByteBuffer.allocate((int) length);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (body.hasRemaining()) {
+                if (channel.read(body) < 0) {
+                    return null;
+                }
+            }
+            if (channel.size() != length) {
+                return null;
+            }
+        }
+        body.flip();
+
+        Entry entry = new Entry(body.asReadOnlyBuffer(), etag, lastModified, contentType);
+        put(file, entry, generation);
+        return entry;
+    }
+
+    @EventListener
+    public void onFileDeleted(FileDeletedEvent event) {
+        Path original = event.path();
+        synchronized (this) {
+            invalidations++;
+            remove(original);
+            for (int width : fileStorageService.getVariantWidths()) {
+                remove(fileStorageService.getVariantPath(original, width));
+            }
+        }
+    }
+
+    /**
+     * 캐시 통계 (관리자 화면용)
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("direct", direct);
+        stats.put("entries", entries.size());
+        stats.put("usedBytes", usedBytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("maxFileBytes", maxFileBytes);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("stale", stale);
+        stats.put("revalidate", revalidate);
+        return stats;
+    }
+
+    private synchronized void put(Path file, Entry entry, long generation) {
+        if (generation != invalidations) {
+            return;  // 읽는 도중 삭제가 있었으면 이미 지워진 파일일 수 있으므로 보관하지 않음
+        }
+        remove(file);
+        entries.put(file, entry);
+        usedBytes += entry.length();
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().length();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(Path file) {
+        Entry removed = entries.remove(file);
+        if (removed != null) {
+            usedBytes -= removed.length();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.medicine.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * 이미지 전처리 (디코딩 → EXIF 방향 보정 → 축소 → JPEG 재인코딩)
+ * 원본 해상도로 디코딩하지 않도록 소스 서브샘플링으로 먼저 줄여 읽으므로
+ * 대용량 사진도 목표 해상도 수준의 메모리만 사용
+ */
+@Slf4j
+@Service
+public class ImageProcessingService {
+
+    /**
+     * 긴 변이 maxDimension 이하가 되도록 축소한 JPEG 바이트
+     */
+    public byte[] resizeToJpeg(Path source, int maxDimension, float quality) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        resizeToJpeg(source, maxDimension, quality, output);
+        return output.toByteArray();
+    }
+
+    /**
+     * 긴 변이 maxDimension 이하가 되도록 축소하여 output 에 JPEG 로 기록
+     *
+     * @throws IOException 디코딩할 수 없는 형식인 경우 포함
+     */
+    public void resizeToJpeg(Path source, int maxDimension, float quality, OutputStream output) throws IOException {
+        int orientation = readExifOrientation(source);
+        BufferedImage decoded = decodeSubsampled(source, (width, height) -> Math.max(width, height) / (maxDimension * 2));
+        BufferedImage oriented = applyOrientation(decoded, orientation);
+        double ratio = (double) maxDimension / Math.max(oriented.getWidth(), oriented.getHeight());
+        writeJpeg(scale(oriented, ratio), quality, output);
+    }
+
+    /**
+     * 가로가 maxWidth 이하가 되도록 축소하여 output 에 JPEG 로 기록 (확대하지 않음)
+     * 세로 사진도 카드/아바타 폭에 맞춰야 하므로 긴 변이 아닌 보정 후 가로 기준
+     *
+     * @throws IOException 디코딩할 수 없는 형식인 경우 포함
+     */
+    public void resizeToWidth(Path source, int maxWidth, float quality, OutputStream output) throws IOException {
+        int orientation = readExifOrientation(source);
+        boolean rotated = orientation >= 5 && orientation <= 8;  // 보정 후 가로 = 원본 세로
+        BufferedImage decoded = decodeSubsampled(source, (width, height) -> (rotated ? height : width) / (maxWidth * 2));
+        BufferedImage oriented = applyOrientation(decoded, orientation);
+        writeJpeg(scale(oriented, (double) maxWidth / oriented.getWidth()), quality, output);
+    }
+
+    /**
+     * 디코딩 가능한 이미지 형식인지 (헤더만 확인)
+     */
+    public boolean isDecodable(Path source) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            return input != null && ImageIO.getImageReaders(input).hasNext();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * dHash (64비트 차이 해시)
+     * 9x8 회색조로 축소한 뒤 가로로 인접한 픽셀의 밝기 증감을 비트로 기록.
+     * 재압축/크기 변경에 강하고, 두 해시의 해밍 거리가 작을수록 비슷한 이미지
+     */
+    public long differenceHash(byte[] imageBytes) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        if (image == null) {
+            throw new IOException("지원하지 않는 이미지 형식입니다.");
+        }
+
+        BufferedImage gray = new BufferedImage(9, 8, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = gray.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, 9, 8, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                int left = gray.getRaster().getSample(x, y, 0);
+                int right = gray.getRaster().getSample(x + 1, y, 0);
+                hash = (hash << 1) | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 목표 크기의 2배 이상이면 정수 배율로 건너뛰며 디코딩
+     *
+     * @param subsamplingFor 원본 (가로, 세로) → 건너뛸 배율 (1 이하이면 전체 디코딩)
+     */
+    private BufferedImage decodeSubsampled(Path source, IntBinaryOperator subsamplingFor) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                throw new IOException("이미지를 열 수 없습니다: " + source);
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("지원하지 않는 이미지 형식입니다: " + source);
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, subsamplingFor.applyAsInt(width, height));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+
+                BufferedImage image = reader.read(0, param);
+                log.debug("Image decoded - {}x{} -> {}x{} (subsampling {})",
+                        width, height, image.getWidth(), image.getHeight(), subsampling);
+                return image;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * ratio 배율로 축소 (1 이상이면 크기 유지, RGB 로만 변환)
+     */
+    private BufferedImage scale(BufferedImage image, double ratio) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        ratio = Math.min(1.0, ratio);
+
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        // JPEG 는 알파 채널이 없으므로 항상 RGB 로 다시 그림 (투명 영역은 흰색)
+        BufferedImage result = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, targetWidth, targetHeight);
+            graphics.drawImage(image, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    private void writeJpeg(BufferedImage image, float quality, OutputStream output) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * EXIF Orientation(1~8)에 맞게 회전/반전
+     */
+    private BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return image;
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        boolean swap = orientation >= 5;
+
+        // 원본 좌표 (x, y) → 결과 좌표 변환 행렬 (m00, m10, m01, m11, m02, m12)
+        AffineTransform transform;
+        switch (orientation) {
+            case 2:  // 좌우 반전
+                transform = new AffineTransform(-1, 0, 0, 1, width, 0);
+                break;
+            case 3:  // 180도
+                transform = new AffineTransform(-1, 0, 0, -1, width, height);
+                break;
+            case 4:  // 상하 반전
+                transform = new AffineTransform(1, 0, 0, -1, 0, height);
+                break;
+            case 5:  // 대각 반전 (transpose)
+                transform = new AffineTransform(0, 1, 1, 0, 0, 0);
+                break;
+            case 6:  // 시계 방향 90도
+                transform = new AffineTransform(0, 1, -1, 0, height, 0);
+                break;
+            case 7:  // 반대 대각 반전 (transverse)
+                transform = new AffineTransform(0, -1, -1, 0, height, width);
+                break;
+            default:  // 8: 반시계 방향 90도
+                transform = new AffineTransform(0, -1, 1, 0, 0, width);
+        }
+
+        BufferedImage result = new BufferedImage(swap ? height : width, swap ? width : height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = result.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    /**
+     * JPEG APP1(Exif) 세그먼트에서 Orientation 태그(0x0112) 읽기
+     * JPEG 가 아니거나 태그가 없으면 1
+     */
+    int readExifOrientation(Path source) {
+        try (InputStream stream = Files.newInputStream(source);
+             DataInputStream input = new DataInputStream(stream)) {
+            if (input.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+
+            while (true) {
+                int marker = input.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;  // 이미지 데이터 시작 전까지 Exif 없음
+                }
+                int length = input.readUnsignedShort() - 2;
+                if (marker != 0xFFE1) {
+                    input.skipNBytes(length);
+                    continue;
+                }
+
+                byte[] segment = input.readNBytes(length);
+                if (segment.length < 14 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i' || segment[3] != 'f') {
+                    continue;
+                }
+                return parseOrientation(ByteBuffer.wrap(segment, 6, segment.length - 6).slice());
+            }
+        } catch (EOFException e) {
+            return 1;
+        } catch (IOException | RuntimeException e) {
+            log.debug("Failed to read EXIF orientation - {}", source, e);
+            return 1;
+        }
+    }
+
+    private int parseOrientation(ByteBuffer tiff) {
+        tiff.order(tiff.getShort(0) == 0x4949 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifdOffset = tiff.getInt(4);
+        int entries = tiff.getShort(ifdOffset) & 0xFFFF;
+
+        for (int i = 0; i < entries; i++) {
+            int entry = ifdOffset + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == 0x0112) {
+                return tiff.getShort(entry + 8) & 0xFFFF;
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,147 @@
+package com.medicine.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업로드 이미지 축소본 생성
+ * - 업로드 직후 설정된 폭(file.variants.widths)별 JPEG 축소본을 원본 옆에 비동기로 생성
+ * - 기존 업로드처럼 축소본이 없는 파일은 처음 요청될 때 원본을 내려주고 생성 예약
+ * - 동영상 등 디코딩할 수 없는 파일은 건너뜀
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    private final FileStorageService fileStorageService;
+    private final ImageProcessingService imageProcessingService;
+
+    @Value("${file.variants.workers:1}")
+    private int workerCount;
+
+    @Value("${file.variants.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${file.variants.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    // 같은 원본이 큐에 중복으로 들어가지 않도록
+    private final Set<Path> queued = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdown();
+    }
+
+    @EventListener
+    public void onFileStored(FileStoredEvent event) {
+        enqueue(event.path());
+    }
+
+    /**
+     * 요청 폭에 맞는 축소본 경로
+     * 아직 생성되지 않았으면 생성을 예약하고 원본 경로 반환
+     */
+    public Path resolve(Path original, int requestedWidth) {
+        Path variant = fileStorageService.getVariantPath(original, fileStorageService.selectVariantWidth(requestedWidth));
+        if (Files.exists(variant)) {
+            return variant;
+        }
+        if (Files.exists(original)) {
+            enqueue(original);
+        }
+        return original;
+    }
+
+    private void enqueue(Path original) {
+        if (!queued.add(original)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    generate(original);
+                } finally {
+                    queued.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(original);
+            log.warn("축소본 생성 큐가 가득 참 - {} (다음 요청 때 재시도)", original);
+        }
+    }
+
+    private void generate(Path original) {
+        if (!imageProcessingService.isDecodable(original)) {
+            return;  // 동영상 등
+        }
+
+        long start = System.currentTimeMillis();
+        for (int width : fileStorageService.getVariantWidths()) {
+            Path variant = fileStorageService.getVariantPath(original, width);
+            if (Files.exists(variant)) {
+                continue;
+            }
+
+            // 임시 파일에 기록 후 교체하여 생성 중인 파일이 서빙되지 않도록
+            Path temp = variant.resolveSibling(variant.getFileName() + ".tmp");
+            try {
+                try (OutputStream output = Files.newOutputStream(temp)) {
+                    imageProcessingService.resizeToWidth(original, width, jpegQuality, output);
+                }
+                Files.move(temp, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                log.warn("축소본 생성 실패 - {} (w{})", original, width, e);
+                deleteQuietly(temp);
+                return;
+            }
+        }
+
+        // 생성 도중 원본이 삭제되었으면 방금 만든 축소본도 정리
+        if (!Files.exists(original)) {
+            fileStorageService.deleteVariants(original);
+            return;
+        }
+        log.debug("축소본 생성 완료 - {} ({}ms)", original, System.currentTimeMillis() - start);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.debug("임시 파일 삭제 실패 - {}", path, e);
+        }
+    }
+}
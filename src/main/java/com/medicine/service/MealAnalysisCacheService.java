@@ -0,0 +1,154 @@
+package com.medicine.service;
+
+import com.medicine.model.MealAnalysisCache;
+import com.medicine.repository.MealAnalysisCacheRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 식단 AI 분석 결과의 지각 해시(dHash) 캐시
+ * - 해시 목록은 메모리에 두고 해밍 거리로 가장 가까운 항목을 찾음 (64비트 XOR + bitCount)
+ * - 다른 노드가 추가한 항목은 조회 시 마지막으로 읽은 id 이후만 가져와 반영
+ *   (id 는 발급 순서와 커밋 순서가 다를 수 있어 마지막 id 아래 rescan-window 구간도 다시 읽고 이미 읽은 id 는 건너뜀)
+ * - 재사용 횟수와 절약한 분석 시간(최초 분석 소요 시간 합)을 집계
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MealAnalysisCacheService {
+
+    private final MealAnalysisCacheRepository cacheRepository;
+
+    @Value("${meal.analysis.cache.enabled:true}")
+    private boolean enabled;
+
+    // 이 거리 이하면 같은 식단 사진으로 간주 (64비트 중 다른 비트 수)
+    @Value("${meal.analysis.cache.max-distance:3}")
+    private int maxDistance;
+
+    // 늦게 커밋된 항목을 놓치지 않도록 마지막으로 읽은 id 아래로 다시 읽는 범위
+    @Value("${meal.analysis.cache.rescan-window:200}")
+    private int rescanWindow;
+
+    private long[] ids = new long[0];
+    private long[] hashes = new long[0];
+    private final Set<Long> loadedIds = new HashSet<>();
+    private long lastLoadedId = 0;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong savedMs = new AtomicLong();
+
+    /**
+     * 가장 가까운 캐시 항목 (maxDistance 이내)
+     */
+    public Optional<MealAnalysisCache> lookup(long imageHash) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        lookups.incrementAndGet();
+
+        long bestId = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        synchronized (this) {
+            refresh();
+            for (int i = 0; i < hashes.length; i++) {
+                int distance = Long.bitCount(hashes[i] ^ imageHash);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestId = ids[i];
+                }
+            }
+        }
+
+        if (bestId < 0 || bestDistance > maxDistance) {
+            return Optional.empty();
+        }
+
+        Optional<MealAnalysisCache> entry = cacheRepository.findById(bestId);
+        entry.ifPresent(cache -> {
+            cacheRepository.recordHit(cache.getId(), LocalDateTime.now());
+            hits.incrementAndGet();
+            if (cache.getAnalysisMs() != null) {
+                savedMs.addAndGet(cache.getAnalysisMs());
+            }
+            log.info("식단 분석 캐시 적중 - CacheId: {}, Distance: {}, Saved: {}ms",
+                    cache.getId(), bestDistance, cache.getAnalysisMs());
+        });
+        return entry;
+    }
+
+    /**
+     * 분석 결과 저장
+     */
+    public void store(long imageHash, int score, String aiEvaluation, long analysisMs) {
+        if (!enabled) {
+            return;
+        }
+        MealAnalysisCache cache = new MealAnalysisCache();
+        cache.setImageHash(imageHash);
+        cache.setScore(score);
+        cache.setAiEvaluation(aiEvaluation);
+        cache.setAnalysisMs(analysisMs);
+        cache.setHitCount(0);
+        cacheRepository.save(cache);
+    }
+
+    /**
+     * 캐시 현황 (이번 기동 이후 + 누적)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxDistance", maxDistance);
+        stats.put("lookups", lookups.get());
+        stats.put("hits", hits.get());
+        stats.put("hitRate", lookups.get() == 0 ? 0.0 : Math.round(hits.get() * 1000.0 / lookups.get()) / 10.0);
+        stats.put("savedMs", savedMs.get());
+
+        List<Object[]> summary = cacheRepository.summarizeHits();
+        if (!summary.isEmpty()) {
+            Object[] row = summary.get(0);
+            stats.put("totalHits", ((Number) row[0]).longValue());
+            stats.put("totalSavedMs", ((Number) row[1]).longValue());
+            stats.put("entries", ((Number) row[2]).longValue());
+        }
+        return stats;
+    }
+
+    // 마지막으로 읽은 id - rescanWindow 이후 추가된 해시 중 아직 읽지 않은 것만 반영 (호출자가 동기화)
+    private void refresh() {
+        List<Object[]> rows = new ArrayList<>(cacheRepository.findHashesAfter(Math.max(0, lastLoadedId - rescanWindow)));
+        rows.removeIf(row -> loadedIds.contains((Long) row[0]));
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        int size = hashes.length;
+        long[] newIds = Arrays.copyOf(ids, size + rows.size());
+        long[] newHashes = Arrays.copyOf(hashes, size + rows.size());
+        for (Object[] row : rows) {
+            long id = (Long) row[0];
+            newIds[size] = id;
+            newHashes[size] = (Long) row[1];
+            loadedIds.add(id);
+            lastLoadedId = Math.max(lastLoadedId, id);
+            size++;
+        }
+        ids = newIds;
+        hashes = newHashes;
+    }
+}
@@ -0,0 +1,405 @@
+package com.medicine.service;
+
+import com.medicine.model.Activity;
+import com.medicine.model.MealAnalysisCache;
+import com.medicine.model.MealCheck;
+import com.medicine.model.User;
+import com.medicine.repository.MealCheckRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 식단 AI 분석 비동기 처리
+ * - 업로드는 이미지 저장 + PENDING 기록까지만 하고 즉시 응답
+ * - meal_checks.analysis_status 가 영속 큐 역할을 하며, 작업자는 조건부 UPDATE 로 점유 후 분석
+ * - 로컬 작업 큐가 가득 차거나 노드가 죽어도 주기적 복구 스캔이 PENDING/방치된 작업을 다시 넣음
+ * - 점유할 때마다 시도 횟수가 늘고, max-attempts 를 다 쓴 식단은 더 분석하지 않고 실패 처리
+ * - 결과는 /topic/meals 로 전달
+ * - 업로드 활동 기록과 푸시 알림은 분석이 끝나 식단이 확정된 경우(ANALYZED)에만 전송
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MealAnalysisService {
+
+    // 작업자가 죽은 것으로 간주하는 점유 시간
+    private static final Duration STALE_CLAIM = Duration.ofMinutes(5);
+    // 전처리 실패 시 원본을 그대로 보낼 수 있는 최대 크기 (OpenAI 이미지 한도)
+    private static final long MAX_PASSTHROUGH_BYTES = 20L * 1024 * 1024;
+    private static final String ANALYSIS_ERROR_MESSAGE = "식단 분석 중 오류가 발생했습니다. 사진을 다시 올려주세요.";
+
+    private final MealCheckRepository mealCheckRepository;
+    private final FileStorageService fileStorageService;
+    private final OpenAIService openAIService;
+    private final OpenAIClient openAIClient;
+    private final ImageProcessingService imageProcessingService;
+    private final MealAnalysisCacheService mealAnalysisCacheService;
+    private final WebSocketService webSocketService;
+    private final CalendarVersionService calendarVersionService;
+    private final ActivityService activityService;
+    private final PushNotificationService pushNotificationService;
+
+    @Value("${meal.analysis.workers:2}")
+    private int workerCount;
+
+    @Value("${meal.analysis.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${meal.analysis.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${openai.image.max-dimension:1024}")
+    private int imageMaxDimension;
+
+    @Value("${openai.image.jpeg-quality:0.8}")
+    private float imageJpegQuality;
+
+    // 같은 식단이 로컬 큐에 중복으로 들어가지 않도록
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor workers;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "meal-analysis-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        recover();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * 분석 작업 등록 (큐가 가득 차면 PENDING 으로 남아 복구 스캔 때 처리)
+     */
+    public void enqueue(Long mealId) {
+        if (workers == null || !queued.add(mealId)) {
+            return;
+        }
+        try {
+            workers.execute(() -> {
+                queued.remove(mealId);
+                analyze(mealId);
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(mealId);
+            log.warn("식단 분석 큐가 가득 참 - MealId: {} (복구 스캔 때 재시도)", mealId);
+        }
+    }
+
+    /**
+     * 복구 스캔: 대기 중이거나 작업자 장애로 방치된 분석 작업을 다시 등록
+     */
+    @Scheduled(fixedDelayString = "${meal.analysis.recover-interval-ms:30000}", initialDelay = 30000)
+    public void recover() {
+        if (workers == null) {
+            return;
+        }
+        LocalDateTime staleBefore = LocalDateTime.now().minus(STALE_CLAIM);
+
+        for (Long mealId : mealCheckRepository.findIdsExhausted(staleBefore, maxAttempts)) {
+            mealCheckRepository.findById(mealId).ifPresent(meal -> {
+                log.warn("식단 분석 시도 횟수 소진 - MealId: {}, Attempts: {}", mealId, meal.getAnalysisAttempts());
+                fail(meal, ANALYSIS_ERROR_MESSAGE);
+            });
+        }
+
+        List<Long> mealIds = mealCheckRepository.findIdsAwaitingAnalysis(staleBefore, maxAttempts);
+        if (!mealIds.isEmpty()) {
+            log.info("식단 분석 대기 작업 {}건 등록", mealIds.size());
+            mealIds.forEach(this::enqueue);
+        }
+    }
+
+    /**
+     * 대기/처리 현황
+     */
+    public Map<String, Object> getQueueStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("workers", workerCount);
+        stats.put("active", workers != null ? workers.getActiveCount() : 0);
+        stats.put("queued", workers != null ? workers.getQueue().size() : 0);
+        stats.put("completed", workers != null ? workers.getCompletedTaskCount() : 0);
+        stats.put("cache", mealAnalysisCacheService.getStats());
+        stats.put("openai", openAIClient.getStats());
+        return stats;
+    }
+
+    private void analyze(Long mealId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (mealCheckRepository.claimForAnalysis(mealId, now, now.minus(STALE_CLAIM), maxAttempts) == 0) {
+            return;  // 다른 작업자가 처리 중이거나 이미 완료/삭제됨, 또는 시도 횟수 소진
+        }
+
+        Optional<MealCheck> mealOpt = mealCheckRepository.findWithUploaderById(mealId);
+        if (mealOpt.isEmpty()) {
+            return;
+        }
+        MealCheck meal = mealOpt.get();
+
+        try {
+            analyzeClaimed(meal);
+        } catch (RuntimeException e) {
+            // 점유한 채로 남지 않도록 재시도 대기로 되돌리거나, 시도 횟수를 다 썼으면 실패 처리
+            int attempts = meal.getAnalysisAttempts() != null ? meal.getAnalysisAttempts() : 1;
+            log.error("식단 분석 오류 - MealId: {}, Attempt: {}/{}", mealId, attempts, maxAttempts, e);
+            if (attempts < maxAttempts) {
+                mealCheckRepository.updateAnalysis(mealId, meal.getImageUrl(), MealCheck.AnalysisStatus.PENDING, null, null);
+            } else {
+                fail(meal, ANALYSIS_ERROR_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * 점유한 식단 분석 (분석 결과 반영 전 RuntimeException 은 호출자가 재시도/실패 처리)
+     */
+    private void analyzeClaimed(MealCheck meal) {
+        Long mealId = meal.getId();
+        String imageUrl = meal.getImageUrl();
+
+        PreparedImage prepared;
+        try {
+            prepared = prepareImage(imageUrl);
+        } catch (IOException e) {
+            log.error("식단 이미지 읽기 실패 - MealId: {}, Path: {}", mealId, imageUrl, e);
+            fail(meal, "이미지를 읽을 수 없습니다.");
+            return;
+        }
+        if (prepared == null) {
+            fail(meal, "지원하지 않는 이미지 형식입니다. JPEG, PNG, WEBP 사진으로 다시 올려주세요.");
+            return;
+        }
+        byte[] image = prepared.bytes();
+
+        // 같은/거의 같은 사진이 이미 분석되었으면 결과 재사용
+        Long imageHash = hashOf(image);
+        Optional<MealAnalysisCache> cached = imageHash != null
+                ? mealAnalysisCacheService.lookup(imageHash) : Optional.empty();
+
+        long start = System.nanoTime();
+        Map<String, Object> aiResponse;
+        if (cached.isPresent()) {
+            aiResponse = new HashMap<>();
+            aiResponse.put("success", true);
+            aiResponse.put("score", cached.get().getScore());
+            aiResponse.put("fullResponse", cached.get().getAiEvaluation());
+        } else {
+            aiResponse = openAIService.analyzeMealImage(image, prepared.mimeType());
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        boolean success = (boolean) aiResponse.get("success");
+        int score = (int) aiResponse.get("score");
+        String evaluation = (String) aiResponse.get("evaluation");
+        String fullResponse = (String) aiResponse.getOrDefault("fullResponse", evaluation);
+
+        if (!success) {
+            boolean retryable = Boolean.TRUE.equals(aiResponse.get("retryable"));
+            int attempts = meal.getAnalysisAttempts() != null ? meal.getAnalysisAttempts() : 1;
+            if (retryable && attempts < maxAttempts) {
+                mealCheckRepository.updateAnalysis(mealId, imageUrl, MealCheck.AnalysisStatus.PENDING, null, null);
+                log.warn("식단 AI 분석 실패, 재시도 예정 - MealId: {}, Status: {}, Attempt: {}/{}",
+                        mealId, aiResponse.get("status"), attempts, maxAttempts);
+                return;
+            }
+            if (!retryable) {
+                log.warn("식단 AI 분석 실패, 재시도 불가 - MealId: {}, Status: {}", mealId, aiResponse.get("status"));
+            }
+            // AI가 음식을 찾지 못했거나 재시도 소진
+            fail(meal, fullResponse);
+            return;
+        }
+
+        if (mealCheckRepository.updateAnalysis(mealId, imageUrl, MealCheck.AnalysisStatus.COMPLETED, score, fullResponse) == 0) {
+            log.info("분석 도중 식단 사진이 교체됨 - MealId: {} (결과 폐기)", mealId);
+            return;
+        }
+        log.info("AI analysis completed - MealId: {}, Score: {}, Elapsed: {}ms, Cached: {}",
+                mealId, score, elapsedMs, cached.isPresent());
+
+        // 결과가 이미 반영되었으므로 이후 단계의 오류는 재시도하지 않음
+        try {
+            calendarVersionService.bump(CalendarVersionService.MEAL, meal.getDate());
+
+            if (cached.isEmpty() && imageHash != null) {
+                mealAnalysisCacheService.store(imageHash, score, fullResponse, elapsedMs);
+            }
+
+            Map<String, Object> payload = toPayload(meal);
+            payload.put("score", score);
+            payload.put("aiEvaluation", fullResponse);
+            webSocketService.broadcastMealUpdate(payload, "ANALYZED");
+        } catch (RuntimeException e) {
+            log.error("식단 분석 결과 후처리 실패 - MealId: {}", mealId, e);
+        }
+
+        notifyUploaded(meal);
+    }
+
+    /**
+     * 식단 업로드 활동 기록 및 다른 가족에게 알림 (분석 완료 후 1회)
+     */
+    private void notifyUploaded(MealCheck meal) {
+        User uploader = meal.getUploadedBy();
+        if (uploader == null) {
+            return;
+        }
+        String mealTypeName = meal.getMealType().getDisplayName();
+
+        try {
+            String message = uploader.getDisplayName() + "님이 " + mealTypeName + " 식단을 업로드했습니다";
+            activityService.createActivity(uploader, Activity.ActivityType.MEAL_UPLOADED, message, meal.getId());
+            log.info("Activity created for meal upload - User: {}, Type: {}", uploader.getUsername(), mealTypeName);
+        } catch (Exception e) {
+            log.error("Failed to create activity for meal upload", e);
+        }
+
+        try {
+            pushNotificationService.sendNotificationToAllUsersExcept(
+                    uploader.getUsername(),
+                    "🍽️ 식사 업로드 알림",
+                    mealTypeName + " 식사가 업로드되었습니다",
+                    "/medicine",
+                    Map.of(
+                            "type", "meal-upload",
+                            "mealType", meal.getMealType().name().toLowerCase(),
+                            "date", meal.getDate().toString()
+                    )
+            );
+            log.info("FCM notification sent for meal upload - Type: {}", mealTypeName);
+        } catch (Exception e) {
+            log.error("Failed to send meal upload notification", e);
+        }
+    }
+
+    /**
+     * 분석 불가: 업로드 당시 동기 처리와 같이 기록과 이미지를 삭제하고 사유를 전달
+     */
+    private void fail(MealCheck meal, String reason) {
+        if (mealCheckRepository.deleteIfImageUnchanged(meal.getId(), meal.getImageUrl()) == 0) {
+            return;
+        }
+        fileStorageService.deleteFile(meal.getImageUrl());
+        calendarVersionService.bump(CalendarVersionService.MEAL, meal.getDate());
+
+        log.info("식단 분석 실패로 삭제 - MealId: {}, Reason: {}", meal.getId(), reason);
+
+        Map<String, Object> payload = toPayload(meal);
+        payload.put("error", reason);
+        webSocketService.broadcastMealUpdate(payload, "FAILED");
+    }
+
+    private Long hashOf(byte[] image) {
+        try {
+            return imageProcessingService.differenceHash(image);
+        } catch (IOException e) {
+            log.debug("이미지 해시 계산 불가 (캐시 미사용)", e);
+            return null;
+        }
+    }
+
+    private Map<String, Object> toPayload(MealCheck meal) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("mealId", meal.getId());
+        payload.put("date", meal.getDate().toString());
+        payload.put("mealType", meal.getMealType().name());
+        payload.put("imageUrl", meal.getImageUrl());
+        return payload;
+    }
+
+    /**
+     * OpenAI 전송용 이미지
+     */
+    private record PreparedImage(byte[] bytes, String mimeType) {
+    }
+
+    /**
+     * OpenAI 전송용 이미지 준비: 방향 보정 + 긴 변 maxDimension 축소 + JPEG 재인코딩
+     * ImageIO 가 디코딩하지 못하면 OpenAI 가 받는 형식(JPEG/PNG/WEBP/GIF)일 때만 용량 한도 내에서 원본을 실제 형식으로 전송
+     *
+     * @return 전송할 이미지, OpenAI 가 받지 않는 형식(HEIC 등)이면 null
+     */
+    private PreparedImage prepareImage(String imageUrl) throws IOException {
+        // imageUrl 형식: /files/meal/meal_2025-01-13_breakfast_abc.jpg
+        String[] parts = imageUrl.split("/");
+        if (parts.length < 4) {
+            throw new IOException("Invalid image URL format");
+        }
+
+        String type = parts[2]; // "meal"
+        String filename = parts[3];
+        Path imagePath = fileStorageService.getFilePath(type, filename);
+
+        try {
+            byte[] jpeg = imageProcessingService.resizeToJpeg(imagePath, imageMaxDimension, imageJpegQuality);
+            log.debug("Meal image prepared - {} bytes -> {} bytes", Files.size(imagePath), jpeg.length);
+            return new PreparedImage(jpeg, "image/jpeg");
+        } catch (IOException e) {
+            long size = Files.size(imagePath);
+            if (size > MAX_PASSTHROUGH_BYTES) {
+                throw e;
+            }
+            byte[] original = Files.readAllBytes(imagePath);
+            String mimeType = detectMimeType(original);
+            if (mimeType == null) {
+                log.warn("식단 이미지 형식 미지원 - Path: {}, Size: {}", imagePath, size);
+                return null;
+            }
+            log.warn("식단 이미지 전처리 실패, 원본 전송 - Path: {}, Size: {}, Type: {}", imagePath, size, mimeType);
+            return new PreparedImage(original, mimeType);
+        }
+    }
+
+    /**
+     * 파일 시그니처로 OpenAI 가 받는 이미지 형식 판별 (그 외 형식은 null)
+     */
+    private static String detectMimeType(byte[] bytes) {
+        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xFF && (bytes[1] & 0xFF) == 0xD8 && (bytes[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (bytes.length >= 8 && (bytes[0] & 0xFF) == 0x89 && bytes[1] == 'P' && bytes[2] == 'N' && bytes[3] == 'G') {
+            return "image/png";
+        }
+        if (bytes.length >= 6 && bytes[0] == 'G' && bytes[1] == 'I' && bytes[2] == 'F' && bytes[3] == '8') {
+            return "image/gif";
+        }
+        if (bytes.length >= 12 && bytes[0] == 'R' && bytes[1] == 'I' && bytes[2] == 'F' && bytes[3] == 'F'
+                && bytes[8] == 'W' && bytes[9] == 'E' && bytes[10] == 'B' && bytes[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.medicine.service;
 
+import com.medicine.dto.DailyMealScore;
 import com.medicine.model.MealCheck;
 import com.medicine.model.User;
 import com.medicine.repository.MealCheckRepository;
@@ -9,13 +10,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -24,10 +21,13 @@ public class MealCheckService {
 
     private final MealCheckRepository mealCheckRepository;
     private final FileStorageService fileStorageService;
-    private final OpenAIService openAIService;
+    private final MealAnalysisService mealAnalysisService;
+    private final CalendarVersionService calendarVersionService;
 
     /**
-     * 식단 이미지 업로드 및 AI 분석
+     * 식단 이미지 업로드
+     * 이미지를 저장하고 분석 대기(PENDING) 상태로 기록한 뒤 바로 반환.
+     * AI 분석은 MealAnalysisService 작업자가 처리하고 결과는 WebSocket(/topic/meals)으로 전달
      */
     public MealCheck uploadMealImage(LocalDate date, MealCheck.MealType mealType,
                                      MultipartFile image, User user) throws IOException {
@@ -46,64 +46,27 @@ public class MealCheckService {
 
         log.info("Meal image stored - Date: {}, Type: {}, Path: {}", date, mealType, imageUrl);
 
-        // 이미지를 Base64로 인코딩하여 OpenAI에 전송
-        String imageBase64 = encodeImageToBase64(imageUrl);
-
-        Map<String, Object> aiResponse = openAIService.analyzeMealImage(imageBase64);
-
-        boolean success = (boolean) aiResponse.get("success");
-        int score = (int) aiResponse.get("score");
-        String evaluation = (String) aiResponse.get("evaluation");
-        String fullResponse = (String) aiResponse.getOrDefault("fullResponse", evaluation);
-
-        log.info("AI analysis completed - Success: {}, Score: {}", success, score);
-
-        // AI가 음식을 찾지 못한 경우 예외 발생
-        if (!success) {
-            // 업로드된 이미지 삭제
-            fileStorageService.deleteFile(imageUrl);
-            throw new IllegalArgumentException(fullResponse);
-        }
-
-        // MealCheck 객체 생성 또는 업데이트
-        MealCheck mealCheck;
-        if (existingMealOpt.isPresent()) {
-            mealCheck = existingMealOpt.get();
-            mealCheck.setImageUrl(imageUrl);
-            mealCheck.setUploadedAt(LocalDateTime.now());
-            mealCheck.setAiEvaluation(fullResponse);
-            mealCheck.setScore(score);
-        } else {
-            mealCheck = new MealCheck();
-            mealCheck.setDate(date);
-            mealCheck.setMealType(mealType);
-            mealCheck.setImageUrl(imageUrl);
-            mealCheck.setUploadedAt(LocalDateTime.now());
-            mealCheck.setUploadedBy(user);
-            mealCheck.setAiEvaluation(fullResponse);
-            mealCheck.setScore(score);
-        }
-
-        return mealCheckRepository.save(mealCheck);
-    }
-
-    /**
-     * 이미지 파일을 Base64로 인코딩
-     */
-    private String encodeImageToBase64(String imageUrl) throws IOException {
-        // imageUrl 형식: /files/meal/meal_2025-01-13_breakfast_abc.jpg
-        String[] parts = imageUrl.split("/");
-        if (parts.length < 4) {
-            throw new IOException("Invalid image URL format");
-        }
-
-        String type = parts[2]; // "meal"
-        String filename = parts[3];
-
-        Path imagePath = fileStorageService.getFilePath(type, filename);
-        byte[] imageBytes = Files.readAllBytes(imagePath);
-
-        return Base64.getEncoder().encodeToString(imageBytes);
+        // MealCheck 객체 생성 또는 업데이트 (분석 결과는 비워두고 대기 상태로)
+        MealCheck mealCheck = existingMealOpt.orElseGet(() -> {
+            MealCheck newMeal = new MealCheck();
+            newMeal.setDate(date);
+            newMeal.setMealType(mealType);
+            newMeal.setUploadedBy(user);
+            return newMeal;
+        });
+        mealCheck.setImageUrl(imageUrl);
+        mealCheck.setUploadedAt(LocalDateTime.now());
+        mealCheck.setAiEvaluation(null);
+        mealCheck.setScore(null);
+        mealCheck.setAnalysisStatus(MealCheck.AnalysisStatus.PENDING);
+        mealCheck.setAnalysisStartedAt(null);
+        mealCheck.setAnalysisAttempts(0);
+
+        MealCheck saved = mealCheckRepository.save(mealCheck);
+        calendarVersionService.bump(CalendarVersionService.MEAL, date);
+
+        mealAnalysisService.enqueue(saved.getId());
+        return saved;
     }
 
     /**
@@ -170,33 +133,20 @@ public class MealCheckService {
         LocalDate startDate = LocalDate.of(year, month, 1);
         LocalDate endDate = startDate.plusMonths(1).minusDays(1);
 
-        // JPA를 사용하여 날짜 범위로 조회
-        List<MealCheck> meals = mealCheckRepository.findByDateBetweenOrderByDateDescMealTypeAsc(startDate, endDate);
-
-        // 날짜별로 그룹화
-        Map<LocalDate, List<MealCheck>> mealsByDate = meals.stream()
-                .collect(Collectors.groupingBy(MealCheck::getDate));
+        // 날짜별 평균 점수/식단 수는 DB에서 집계 (평가 본문 등 엔티티 전체를 읽지 않음)
+        List<DailyMealScore> dailyScores = mealCheckRepository.findDailyScoresBetween(startDate, endDate);
 
         // 각 날짜별 평균 점수와 이모티콘 계산
         List<Map<String, Object>> dailyStats = new ArrayList<>();
 
-        for (Map.Entry<LocalDate, List<MealCheck>> entry : mealsByDate.entrySet()) {
-            LocalDate date = entry.getKey();
-            List<MealCheck> dailyMeals = entry.getValue();
-
-            double averageScore = dailyMeals.stream()
-                    .filter(m -> m.getScore() != null)
-                    .mapToInt(MealCheck::getScore)
-                    .average()
-                    .orElse(0.0);
-
-            String emoji = getEmojiForScore((int) averageScore);
+        for (DailyMealScore dailyScore : dailyScores) {
+            int averageScore = dailyScore.getAverageScore() != null ? dailyScore.getAverageScore().intValue() : 0;
 
             Map<String, Object> stat = new HashMap<>();
-            stat.put("date", date.toString());
-            stat.put("averageScore", (int) averageScore);
-            stat.put("emoji", emoji);
-            stat.put("mealCount", dailyMeals.size());
+            stat.put("date", dailyScore.getDate().toString());
+            stat.put("averageScore", averageScore);
+            stat.put("emoji", getEmojiForScore(averageScore));
+            stat.put("mealCount", dailyScore.getMealCount());
 
             dailyStats.add(stat);
         }
@@ -225,6 +175,7 @@ public class MealCheckService {
 
             // DB에서 삭제
             mealCheckRepository.deleteById(mealId);
+            calendarVersionService.bump(CalendarVersionService.MEAL, meal.getDate());
 
             log.info("Meal deleted - ID: {}, Date: {}, Type: {}",
                     mealId, meal.getDate(), meal.getMealType());
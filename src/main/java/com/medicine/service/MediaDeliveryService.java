@@ -0,0 +1,271 @@
+package com.medicine.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 업로드 파일 응답 전송
+ * - 파일 크기/수정 시각 기반 강한 ETag + Last-Modified, 조건부 요청이면 304
+ * - 단일 Range 요청은 206 (동영상 탐색), 만족할 수 없는 범위는 416
+ * - 본문은 Tomcat sendfile 로, 지원하지 않으면 FileChannel.transferTo 로 전송 (사용자 공간 버퍼 복사 없음)
+ * - 작은 파일은 HotMediaCache 에 올려 두고 메모리에서 전송 (stat/open/read 없음)
+ * - 허용 목록의 이미지/동영상 형식만 그 타입으로 inline 응답하고, 그 외(html, svg 등)는
+ *   application/octet-stream + attachment 로 내려 업로드 파일이 이 사이트 문서로 실행되지 않도록 함 (항상 nosniff)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MediaDeliveryService {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // inline 으로 응답하는 형식 (svg 는 스크립트를 포함할 수 있어 제외)
+    private static final Set<String> INLINE_TYPES = Set.of(
+            "image/jpeg", "image/png", "image/gif", "image/webp", "image/bmp", "image/avif", "image/heic", "image/heif",
+            "video/mp4", "video/webm", "video/quicktime", "video/ogg", "video/3gpp");
+
+    private final HotMediaCache hotMediaCache;
+
+    /**
+     * 파일을 응답으로 전송
+     * 작은 파일은 메모리 캐시(HotMediaCache)에서 바로 응답하고, 처음 요청될 때 캐시에 적재
+     *
+     * @return 파일이 없거나 읽을 수 없으면 false (응답에 아무것도 쓰지 않음)
+     */
+    public boolean send(Path file, String cacheControl, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        HotMediaCache.Entry cached = hotMediaCache.get(file);
+        if (cached != null) {
+            sendCached(cached, cacheControl, request, response);
+            return true;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return false;
+        }
+        if (!attributes.isRegularFile() || !Files.isReadable(file)) {
+            return false;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        if (hotMediaCache.isCacheable(length)) {
+            cached = hotMediaCache.load(file, length, etag, lastModified, detectContentType(file).toString());
+            if (cached != null) {
+                sendCached(cached, cacheControl, request, response);
+                return true;
+            }
+        }
+
+        long[] range = prepare(length, etag, lastModified, () -> detectContentType(file).toString(),
+                cacheControl, request, response);
+        if (range == null) {
+            return true;
+        }
+        long start = range[0];
+        long end = range[1];
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // 서블릿이 끝난 뒤 Tomcat 이 커널 sendfile 로 전송
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return true;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = end - start + 1;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;  // 전송 중 파일이 잘린 경우
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        return true;
+    }
+
+    private void sendCached(HotMediaCache.Entry entry, String cacheControl,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long[] range = prepare(entry.length(), entry.etag(), entry.lastModified(), entry::contentType,
+                cacheControl, request, response);
+        if (range == null) {
+            return;
+        }
+
+        ByteBuffer body = entry.body().duplicate();
+        body.limit((int) range[1] + 1).position((int) range[0]);
+        WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            target.write(body);
+        }
+    }
+
+    /**
+     * 공통 헤더, 조건부 요청(304), Range(206/416) 처리
+     *
+     * @return 전송할 {start, end}, 본문을 보낼 필요가 없으면 (304/416/HEAD/빈 파일) null
+     */
+    private long[] prepare(long length, String etag, long lastModified, Supplier<String> contentType,
+                           String cacheControl, HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return null;  // 304
+        }
+
+        String type = contentType.get();
+        response.setContentType(type);
+        if (!INLINE_TYPES.contains(type)) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment");
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && length > 0 && matchesIfRange(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return null;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return null;
+        }
+        return new long[]{start, end};
+    }
+
+    /**
+     * 확장자 기준 MIME 타입, 확장자가 없거나 모르는 형식이면 파일 앞부분으로 판별
+     * 허용 목록(INLINE_TYPES)에 없는 형식은 application/octet-stream
+     */
+    public MediaType detectContentType(Path file) {
+        MediaType detected = MediaTypeFactory.getMediaType(file.getFileName().toString()).orElse(null);
+        if (detected == null) {
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(file))) {
+                String sniffed = URLConnection.guessContentTypeFromStream(input);
+                if (sniffed != null) {
+                    detected = MediaType.parseMediaType(sniffed);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.debug("Failed to detect content type: {}", file, e);
+            }
+        }
+
+        if (detected != null && INLINE_TYPES.contains(detected.getType() + "/" + detected.getSubtype())) {
+            return new MediaType(detected.getType(), detected.getSubtype());
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    /**
+     * If-Range 가 없거나 현재 파일과 일치할 때만 Range 적용 (다르면 전체 전송)
+     */
+    private boolean matchesIfRange(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            long since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return lastModified / 1000 == since / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * "bytes=a-b" / "bytes=a-" / "bytes=-n" 단일 범위 해석
+     *
+     * @return {start, end}, 여러 범위거나 형식이 다르면 빈 배열 (전체 전송), 만족할 수 없으면 null
+     */
+    private long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+                if (end < start) {
+                    return new long[0];  // 형식 오류는 무시
+                }
+                if (start >= length) {
+                    return null;
+                }
+                end = Math.min(end, length - 1);
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.medicine.service;
+
+import com.medicine.model.MedicineRecord;
+
+/**
+ * 오늘 약 복용 기록 변경 이벤트 (커밋 후 알림 재예약용)
+ *
+ * @param medicineType 약 종류
+ * @param taken        복용이면 true, 복용 취소면 false
+ */
+public record MedicineDoseChangedEvent(MedicineRecord.MedicineType medicineType, boolean taken) {
+}
@@ -0,0 +1,216 @@
+package com.medicine.service;
+
+import com.medicine.model.MedicineDailyRollup;
+import com.medicine.model.MedicineRecord;
+import com.medicine.repository.MedicineDailyRollupRepository;
+import com.medicine.repository.MedicineRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * 약 복용 일별 집계 서비스
+ * - markAsTaken/cancelTaken 시점에 하루 한 행을 증분 갱신
+ * - 월간 달력/연간 복용률·연속 복용일을 집계 테이블 한 번의 인덱스 조회로 계산
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MedicineRollupService {
+
+    // 복용률/연속일 계산 대상 (아침 + 저녁)
+    private static final List<MedicineRecord.MedicineType> TRACKED_TYPES =
+            List.of(MedicineRecord.MedicineType.MORNING, MedicineRecord.MedicineType.EVENING);
+    private static final int FULL_DAY_MASK =
+            MedicineDailyRollup.bitOf(MedicineRecord.MedicineType.MORNING)
+                    | MedicineDailyRollup.bitOf(MedicineRecord.MedicineType.EVENING);
+
+    private final MedicineDailyRollupRepository rollupRepository;
+    private final MedicineRecordRepository medicineRecordRepository;
+    private final CalendarVersionService calendarVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 기존 복용 기록으로 집계 행 백필 (한 달씩, 이미 있는 날은 건너뜀)
+     * 실행 여부는 호출 측(MedicineRollupBackfiller)이 완료 표식으로 판단
+     *
+     * @return 새로 만든 행 수
+     */
+    public int backfill() {
+        Optional<LocalDate> first = medicineRecordRepository.findFirstTakenDate();
+        if (first.isEmpty()) {
+            return 0;
+        }
+
+        int inserted = 0;
+        YearMonth current = YearMonth.now();
+        for (YearMonth month = YearMonth.from(first.get()); !month.isAfter(current); month = month.plusMonths(1)) {
+            YearMonth target = month;
+            Integer rows = transactionTemplate.execute(status ->
+                    rollupRepository.insertFromRecords(target.atDay(1), target.atEndOfMonth()));
+            if (rows != null && rows > 0) {
+                calendarVersionService.bump(CalendarVersionService.MEDICINE, target.atDay(1));
+                inserted += rows;
+            }
+        }
+        log.info("약 복용 일별 집계 백필 완료 - {}일", inserted);
+        return inserted;
+    }
+
+    /**
+     * 복용 상태 변경을 집계에 반영 (upsert 한 문장)
+     */
+    @Transactional
+    public void apply(LocalDate date, MedicineRecord.MedicineType medicineType, boolean taken, LocalDateTime takenTime) {
+        int bit = MedicineDailyRollup.bitOf(medicineType);
+        rollupRepository.upsertDose(date.getYear(), date.getMonthValue(), date.getDayOfMonth(),
+                bit, taken ? bit : 0, medicineType.name(), taken ? takenTime : null);
+        calendarVersionService.bump(CalendarVersionService.MEDICINE, date);
+    }
+
+    /**
+     * 월간 달력 데이터
+     * records: 기존 화면 호환용 (medicine_records 를 그대로 변환, 미복용 기록 포함)
+     * compact 요청 시 days[i] = (i+1)일의 복용 비트(1 << MedicineType.ordinal()),
+     * morningMinutes/eveningMinutes[i] = 복용 시각(자정 기준 분, 미복용 -1)
+     */
+    public Map<String, Object> getMonthCalendarData(int year, int month, boolean compact) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+
+        Map<String, Object> calendarData = new HashMap<>();
+        if (compact) {
+            List<MedicineDailyRollup> rollups = rollupRepository.findByYearAndMonthOrderByDayAsc(year, month);
+            int length = yearMonth.lengthOfMonth();
+            int[] days = new int[length];
+            int[] morningMinutes = new int[length];
+            int[] eveningMinutes = new int[length];
+            Arrays.fill(morningMinutes, -1);
+            Arrays.fill(eveningMinutes, -1);
+
+            for (MedicineDailyRollup rollup : rollups) {
+                int index = rollup.getDay() - 1;
+                days[index] = rollup.getTakenBits();
+                morningMinutes[index] = toMinutes(rollup.getMorningTakenAt());
+                eveningMinutes[index] = toMinutes(rollup.getEveningTakenAt());
+            }
+
+            calendarData.put("year", year);
+            calendarData.put("month", month);
+            calendarData.put("days", days);
+            calendarData.put("morningMinutes", morningMinutes);
+            calendarData.put("eveningMinutes", eveningMinutes);
+            log.debug("Retrieved {} rollup days for calendar {}-{}", rollups.size(), year, month);
+        } else {
+            // 기존 화면 호환: 미복용 기록까지 포함한 원래 응답 형태 그대로
+            List<MedicineRecord> records = medicineRecordRepository.findByDateBetweenOrderByDateDescMedicineTypeAsc(
+                    yearMonth.atDay(1), yearMonth.atEndOfMonth());
+            List<Map<String, Object>> recordList = new ArrayList<>();
+            for (MedicineRecord record : records) {
+                Map<String, Object> recordMap = new HashMap<>();
+                recordMap.put("date", record.getDate().toString());
+                recordMap.put("medicineType", record.getMedicineType().name());
+                recordMap.put("taken", record.isTaken());
+                if (record.getTakenTime() != null) {
+                    recordMap.put("takenTime", record.getTakenTime().toString());
+                }
+                recordList.add(recordMap);
+            }
+            calendarData.put("records", recordList);
+            log.debug("Retrieved {} medicine records for calendar {}-{}", recordList.size(), year, month);
+        }
+
+        return calendarData;
+    }
+
+    /**
+     * 연간 복용률 및 연속 복용일
+     * - 월별: 아침/저녁/전체 복용률(%) (오늘까지 경과한 날 기준, 미래 월은 null)
+     * - longestStreak: 해당 연도 내 아침·저녁 모두 복용한 최장 연속일
+     * - currentStreak: 오늘(또는 오늘 미완료 시 어제)까지 이어진 연속일 (해당 연도 내)
+     */
+    public Map<String, Object> getYearAdherence(int year) {
+        LocalDate today = LocalDate.now();
+        List<MedicineDailyRollup> rollups = rollupRepository.findByYearOrderByMonthAscDayAsc(year);
+
+        Map<LocalDate, Integer> bitsByDate = new HashMap<>();
+        for (MedicineDailyRollup rollup : rollups) {
+            bitsByDate.put(LocalDate.of(year, rollup.getMonth(), rollup.getDay()), rollup.getTakenBits());
+        }
+
+        List<Map<String, Object>> months = new ArrayList<>();
+        int yearExpectedDays = 0;
+        int yearTakenDoses = 0;
+        int longestStreak = 0;
+        int runningStreak = 0;
+
+        for (int month = 1; month <= 12; month++) {
+            YearMonth yearMonth = YearMonth.of(year, month);
+            int elapsedDays = elapsedDays(yearMonth, today);
+
+            int morningTaken = 0;
+            int eveningTaken = 0;
+            int fullDays = 0;
+            for (int day = 1; day <= elapsedDays; day++) {
+                int bits = bitsByDate.getOrDefault(yearMonth.atDay(day), 0);
+                if ((bits & MedicineDailyRollup.bitOf(MedicineRecord.MedicineType.MORNING)) != 0) morningTaken++;
+                if ((bits & MedicineDailyRollup.bitOf(MedicineRecord.MedicineType.EVENING)) != 0) eveningTaken++;
+
+                if ((bits & FULL_DAY_MASK) == FULL_DAY_MASK) {
+                    fullDays++;
+                    runningStreak++;
+                    longestStreak = Math.max(longestStreak, runningStreak);
+                } else if (!yearMonth.atDay(day).equals(today)) {
+                    // 오늘은 아직 진행 중이므로 연속일을 끊지 않음
+                    runningStreak = 0;
+                }
+            }
+
+            Map<String, Object> monthData = new HashMap<>();
+            monthData.put("month", month);
+            monthData.put("elapsedDays", elapsedDays);
+            monthData.put("fullDays", fullDays);
+            monthData.put("morningRate", percent(morningTaken, elapsedDays));
+            monthData.put("eveningRate", percent(eveningTaken, elapsedDays));
+            monthData.put("rate", percent(morningTaken + eveningTaken, elapsedDays * TRACKED_TYPES.size()));
+            months.add(monthData);
+
+            yearExpectedDays += elapsedDays;
+            yearTakenDoses += morningTaken + eveningTaken;
+        }
+
+        boolean yearOngoing = year == today.getYear();
+        Map<String, Object> result = new HashMap<>();
+        result.put("year", year);
+        result.put("months", months);
+        result.put("rate", percent(yearTakenDoses, yearExpectedDays * TRACKED_TYPES.size()));
+        result.put("longestStreak", longestStreak);
+        result.put("currentStreak", yearOngoing ? runningStreak : 0);
+        return result;
+    }
+
+    private int elapsedDays(YearMonth yearMonth, LocalDate today) {
+        YearMonth current = YearMonth.from(today);
+        if (yearMonth.isAfter(current)) {
+            return 0;
+        }
+        return yearMonth.equals(current) ? today.getDayOfMonth() : yearMonth.lengthOfMonth();
+    }
+
+    private Double percent(int value, int total) {
+        if (total == 0) {
+            return null;
+        }
+        return Math.round(value * 1000.0 / total) / 10.0;
+    }
+
+    private int toMinutes(LocalDateTime time) {
+        return time == null ? -1 : time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -1,74 +1,414 @@
 package com.medicine.service;
 
+import com.medicine.dto.ReminderScheduleRequest;
 import com.medicine.model.MedicineRecord;
+import com.medicine.model.ReminderSchedule;
 import com.medicine.model.User;
 import com.medicine.repository.MedicineRecordRepository;
+import com.medicine.repository.ReminderScheduleRepository;
 import com.medicine.repository.UserRepository;
+import com.medicine.scheduler.HierarchicalTimingWheel;
+import com.medicine.scheduler.ScheduledJobCoordinator;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.time.LocalDate;
-import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+/**
+ * 사용자별 약 복용 알림 스케줄러
+ * 사용자마다 설정한 시각/재알림 간격/방해 금지 시간에 맞춰 계층형 타이밍 휠에 알림을 예약.
+ * 기동 시 DB 에서 설정을 읽어 휠을 재구성하고, 복용 기록이 커밋되면 해당 약의 오늘 남은 알림을 취소
+ * 새로 만든 사용자는 생성 즉시 예약하고, 다른 노드에서 만든 사용자도 주기적 동기화로 예약 (삭제된 사용자는 해제)
+ * 한 틱에 만료된 알림은 약 종류별로 묶어 한 번에 발송
+ * 설정 변경/다시 알림은 처리한 노드의 휠에만 즉시 반영되므로, 발송 직전에 DB 에서 설정을 다시 읽어
+ * 예약 시각이 최신 설정 기준과 다르거나 꺼져 있으면 보내지 않고 최신 설정으로 재예약
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MedicineSchedulerService {
 
+    private static final List<MedicineRecord.MedicineType> REMINDER_TYPES =
+            List.of(MedicineRecord.MedicineType.MORNING, MedicineRecord.MedicineType.EVENING);
+
+    // 같은 알림을 여러 노드가 동시에 보내지 않도록 잡는 잠금 유지 시간
+    private static final Duration FIRE_DEDUPE_TTL = Duration.ofHours(1);
+
     private final MedicineRecordRepository medicineRecordRepository;
     private final UserRepository userRepository;
+    private final ReminderScheduleRepository reminderScheduleRepository;
     private final PushNotificationService pushNotificationService;
+    private final ScheduledJobCoordinator jobCoordinator;
+
+    // 같은 시각으로 설정한 사용자들의 발송을 분산시키는 최대 오프셋 (초)
+    @Value("${medicine.reminder.spread-seconds:300}")
+    private int spreadSeconds;
+
+    private final Map<String, ReminderSchedule> schedules = new ConcurrentHashMap<>();
+    private final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(System.currentTimeMillis());
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 틱 스레드에서만 접근 (만료된 휠 작업이 추가하고 tick 에서 꺼냄)
+    private final List<DueReminder> due = new ArrayList<>();
+    private final ExecutorService workers = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "reminder-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rehydrate();
+        ticker.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        workers.shutdown();
+    }
+
+    /**
+     * DB 의 알림 설정으로 휠 재구성
+     * 기동 시 1회, 이후 노드 간 어긋난 예약 정리를 위해 매일 새벽 재실행
+     */
+    @Scheduled(cron = "0 0 4 * * *")
+    public void rehydrate() {
+        try {
+            Map<Long, ReminderSchedule> byUserId = reminderScheduleRepository.findAllWithUser().stream()
+                    .collect(Collectors.toMap(schedule -> schedule.getUser().getId(), schedule -> schedule));
+            Set<MedicineRecord.MedicineType> takenToday = takenTypes(LocalDate.now());
+
+            int armed = 0;
+            for (User user : userRepository.findAll()) {
+                ReminderSchedule schedule = byUserId.getOrDefault(user.getId(), defaultSchedule(user));
+                schedules.put(user.getUsername(), schedule);
+                for (MedicineRecord.MedicineType type : REMINDER_TYPES) {
+                    arm(user.getUsername(), type, takenToday.contains(type));
+                }
+                armed++;
+            }
+
+            log.info("Medicine reminder wheel rehydrated - Users: {}, Pending reminders: {}", armed, wheel.size());
+        } catch (Exception e) {
+            log.error("Failed to rehydrate medicine reminders", e);
+        }
+    }
+
+    /**
+     * 주기적 사용자 동기화 - 다른 노드에서 생성/삭제된 사용자를 이 노드의 휠에 반영
+     */
+    @Scheduled(fixedDelayString = "${medicine.reminder.user-sync-ms:300000}", initialDelay = 300000)
+    public void syncUsers() {
+        try {
+            Set<String> usernames = new HashSet<>(userRepository.findAllUsernames());
+
+            for (String username : new ArrayList<>(schedules.keySet())) {
+                if (!usernames.contains(username)) {
+                    schedules.remove(username);
+                    REMINDER_TYPES.forEach(type -> wheel.cancel(username + ":" + type.name()));
+                    log.info("Medicine reminders removed for deleted user: {}", username);
+                }
+            }
+
+            for (String username : usernames) {
+                if (!schedules.containsKey(username)) {
+                    userRepository.findByUsername(username).ifPresent(this::armUser);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to sync medicine reminder users", e);
+        }
+    }
+
+    /**
+     * 사용자 생성 커밋 후 바로 알림 예약 (다음 재구성까지 기다리지 않음)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        try {
+            userRepository.findById(event.userId()).ifPresent(this::armUser);
+        } catch (Exception e) {
+            log.error("Failed to arm medicine reminders for new user: {}", event.username(), e);
+        }
+    }
+
+    /**
+     * 복용 기록/취소가 커밋된 뒤 재예약
+     * 복용 기록은 가족 전체가 공유하므로 모든 사용자의 해당 약 알림이 대상
+     * (다른 노드의 휠은 발송 직전 DB 의 복용 여부를 확인하므로 별도 전파 없음)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDoseChanged(MedicineDoseChangedEvent event) {
+        MedicineRecord.MedicineType medicineType = event.medicineType();
+        if (!REMINDER_TYPES.contains(medicineType)) {
+            return;
+        }
+        // 복용: 오늘 남은 알림 취소 후 내일 첫 알림 예약, 취소: 오늘 남은 알림 다시 예약
+        schedules.keySet().forEach(username -> arm(username, medicineType, event.taken()));
+        log.debug("Reminders rescheduled after dose {} - Type: {}", event.taken() ? "taken" : "cancelled", medicineType);
+    }
+
+    /**
+     * 사용자 알림 설정 조회 (설정이 없으면 기본값)
+     */
+    public ReminderSchedule getSchedule(User user) {
+        return reminderScheduleRepository.findByUserId(user.getId()).orElseGet(() -> defaultSchedule(user));
+    }
+
+    /**
+     * 사용자 알림 설정 저장 후 즉시 재예약
+     */
+    public ReminderSchedule updateSchedule(User user, ReminderScheduleRequest request) {
+        if (request.getMorningTime() == null || request.getEveningTime() == null) {
+            throw new IllegalArgumentException("알림 시각을 입력해주세요.");
+        }
+        if (request.getRepeatIntervalMinutes() == null || request.getRepeatIntervalMinutes() < 5) {
+            throw new IllegalArgumentException("재알림 간격은 5분 이상이어야 합니다.");
+        }
+        if (request.getMaxRepeats() == null || request.getMaxRepeats() < 1 || request.getMaxRepeats() > 12) {
+            throw new IllegalArgumentException("알림 횟수는 1~12회 사이여야 합니다.");
+        }
+
+        ReminderSchedule schedule = getSchedule(user);
+        schedule.setEnabled(request.isEnabled());
+        schedule.setMorningTime(request.getMorningTime());
+        schedule.setEveningTime(request.getEveningTime());
+        schedule.setRepeatIntervalMinutes(request.getRepeatIntervalMinutes());
+        schedule.setMaxRepeats(request.getMaxRepeats());
+        schedule.setQuietStart(request.getQuietStart());
+        schedule.setQuietEnd(request.getQuietEnd());
+
+        ReminderSchedule saved = reminderScheduleRepository.save(schedule);
+        schedules.put(user.getUsername(), saved);
+
+        Set<MedicineRecord.MedicineType> takenToday = takenTypes(LocalDate.now());
+        for (MedicineRecord.MedicineType type : REMINDER_TYPES) {
+            arm(user.getUsername(), type, takenToday.contains(type));
+        }
+
+        log.info("Reminder schedule updated - User: {}, Morning: {}, Evening: {}, Enabled: {}",
+                user.getUsername(), saved.getMorningTime(), saved.getEveningTime(), saved.isEnabled());
+        return saved;
+    }
+
+    /**
+     * 다시 알림 (지정한 시간 뒤에 한 번 더 알림, 그 전의 정기 재알림은 건너뜀)
+     */
+    public LocalDateTime snooze(User user, MedicineRecord.MedicineType medicineType, int minutes) {
+        if (!REMINDER_TYPES.contains(medicineType)) {
+            throw new IllegalArgumentException("잘못된 약 복용 타입입니다.");
+        }
+        if (minutes < 1 || minutes > 12 * 60) {
+            throw new IllegalArgumentException("다시 알림 시간이 올바르지 않습니다.");
+        }
 
-    // 아침 약 복용 알림: 오전 9시부터 12시까지 1시간마다 실행
-    @Scheduled(cron = "0 0 9-11 * * *")  // 9시, 10시, 11시
-    public void checkMorningMedicine() {
-        log.info("Checking morning medicine at {}", LocalTime.now());
-        checkAndNotify(MedicineRecord.MedicineType.MORNING, "아침 약복용을 잊으신건 아니죠?");
-    }
-
-    // 저녁 약 복용 알림: 오후 7시부터 10시까지 1시간마다 실행
-    @Scheduled(cron = "0 0 19-21 * * *")  // 19시, 20시, 21시
-    public void checkEveningMedicine() {
-        log.info("Checking evening medicine at {}", LocalTime.now());
-        checkAndNotify(MedicineRecord.MedicineType.EVENING, "저녁 약복용을 잊으신건 아니죠?");
-    }
-
-    private void checkAndNotify(MedicineRecord.MedicineType medicineType, String message) {
-        LocalDate today = LocalDate.now();
-
-        // Get all users
-        List<User> allUsers = new ArrayList<>();
-        userRepository.findAll().forEach(allUsers::add);
-
-        for (User user : allUsers) {
-            // Get all medicine records for today
-            List<MedicineRecord> allRecords = new ArrayList<>();
-            medicineRecordRepository.findAll().forEach(allRecords::add);
-
-            Optional<MedicineRecord> recordOpt = allRecords.stream()
-                    .filter(r -> r.getDate().equals(today) && r.getMedicineType() == medicineType)
-                    .findFirst();
-
-            // If no record exists or medicine is not taken, send notification
-            if (recordOpt.isEmpty() || !recordOpt.get().isTaken()) {
-                log.info("Sending {} medicine reminder to user: {}", medicineType, user.getUsername());
-                pushNotificationService.sendNotification(
-                        user.getUsername(),
-                        "💊 약 복용 알림",
-                        message,
-                        "/medicine",
-                        Map.of(
-                                "type", "medicine-reminder",
-                                "medicineType", medicineType.name().toLowerCase()
-                        )
-                );
+        ReminderSchedule schedule = getSchedule(user);
+        schedule.setSnoozedUntil(LocalDateTime.now().plusMinutes(minutes));
+        schedule.setSnoozedType(medicineType);
+
+        ReminderSchedule saved = reminderScheduleRepository.save(schedule);
+        schedules.put(user.getUsername(), saved);
+        arm(user.getUsername(), medicineType, false);
+
+        log.info("Reminder snoozed - User: {}, Type: {}, Until: {}", user.getUsername(), medicineType, saved.getSnoozedUntil());
+        return saved.getSnoozedUntil();
+    }
+
+    /**
+     * 사용자 한 명의 설정을 읽어 예약
+     */
+    private void armUser(User user) {
+        ReminderSchedule schedule = reminderScheduleRepository.findByUserId(user.getId())
+                .orElseGet(() -> defaultSchedule(user));
+        schedules.put(user.getUsername(), schedule);
+
+        Set<MedicineRecord.MedicineType> takenToday = takenTypes(LocalDate.now());
+        for (MedicineRecord.MedicineType type : REMINDER_TYPES) {
+            arm(user.getUsername(), type, takenToday.contains(type));
+        }
+        log.info("Medicine reminders armed for user: {}", user.getUsername());
+    }
+
+    /**
+     * 만료된 알림 예약
+     */
+    private record DueReminder(String username, MedicineRecord.MedicineType medicineType, LocalDateTime scheduledAt) {
+    }
+
+    private void tick() {
+        try {
+            for (Runnable task : wheel.advance(System.currentTimeMillis())) {
+                task.run();
+            }
+            if (!due.isEmpty()) {
+                List<DueReminder> batch = new ArrayList<>(due);
+                due.clear();
+                workers.execute(() -> fire(batch));
+            }
+        } catch (Exception e) {
+            log.error("Medicine reminder wheel tick failed", e);
+        }
+    }
+
+    /**
+     * 다음 알림 시각 계산 후 휠에 예약 (같은 사용자/약의 기존 예약은 대체)
+     */
+    private void arm(String username, MedicineRecord.MedicineType medicineType, boolean skipToday) {
+        String key = username + ":" + medicineType.name();
+        ReminderSchedule schedule = schedules.get(username);
+        if (schedule == null || !schedule.isEnabled()) {
+            wheel.cancel(key);
+            return;
+        }
+
+        LocalDateTime next = nextFireTime(schedule, username, medicineType, LocalDateTime.now(), skipToday);
+        if (next == null) {
+            wheel.cancel(key);
+            return;
+        }
+
+        long expirationMs = next.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        wheel.schedule(key, expirationMs, () -> due.add(new DueReminder(username, medicineType, next)));
+    }
+
+    private LocalDateTime nextFireTime(ReminderSchedule schedule, String username,
+                                       MedicineRecord.MedicineType medicineType, LocalDateTime now, boolean skipToday) {
+        LocalDateTime snoozedUntil = schedule.getSnoozedUntil();
+        if (!skipToday && schedule.getSnoozedType() == medicineType && snoozedUntil != null
+                && snoozedUntil.isAfter(now) && snoozedUntil.toLocalDate().equals(now.toLocalDate())) {
+            return snoozedUntil;
+        }
+
+        // 사용자별 고정 오프셋 - 모든 노드에서 같은 값이 나오도록 username 해시 사용
+        long offsetSeconds = spreadSeconds > 0 ? Math.floorMod(username.hashCode(), spreadSeconds) : 0;
+        int repeats = Math.max(1, schedule.getMaxRepeats());
+
+        for (int day = skipToday ? 1 : 0; day <= 2; day++) {
+            LocalDateTime first = now.toLocalDate().plusDays(day)
+                    .atTime(schedule.getTimeFor(medicineType))
+                    .plusSeconds(offsetSeconds);
+            for (int attempt = 0; attempt < repeats; attempt++) {
+                LocalDateTime candidate = first.plusMinutes((long) attempt * schedule.getRepeatIntervalMinutes());
+                if (candidate.isAfter(now) && !schedule.isQuiet(candidate.toLocalTime())) {
+                    return candidate;
+                }
             }
         }
+        return null;
+    }
+
+    /**
+     * 한 틱에 만료된 알림 발송 (복용 여부와 설정은 한 번씩만 조회, 약 종류별로 sendNotificationToUsers 한 번)
+     */
+    private void fire(List<DueReminder> batch) {
+        Set<MedicineRecord.MedicineType> takenToday;
+        try {
+            takenToday = takenTypes(LocalDate.now());
+            reloadSchedules(batch.stream().map(DueReminder::username).collect(Collectors.toSet()));
+        } catch (Exception e) {
+            log.error("Failed to load today's medicine records for reminders", e);
+            batch.forEach(reminder -> arm(reminder.username(), reminder.medicineType(), false));
+            return;
+        }
+
+        Map<MedicineRecord.MedicineType, List<DueReminder>> byType = batch.stream()
+                .collect(Collectors.groupingBy(DueReminder::medicineType));
+        byType.forEach((medicineType, reminders) -> {
+            if (takenToday.contains(medicineType)) {
+                reminders.forEach(reminder -> arm(reminder.username(), medicineType, true));
+                return;
+            }
+
+            List<String> recipients = new ArrayList<>();
+            for (DueReminder reminder : reminders) {
+                try {
+                    ReminderSchedule schedule = schedules.get(reminder.username());
+                    if (schedule == null || !schedule.isEnabled() || schedule.isQuiet(LocalTime.now())) {
+                        continue;
+                    }
+                    // 다른 노드에서 시각 변경/다시 알림이 있었으면 이 예약은 더 이상 유효하지 않음
+                    LocalDateTime expected = nextFireTime(schedule, reminder.username(), medicineType,
+                            reminder.scheduledAt().minusSeconds(1), false);
+                    if (!reminder.scheduledAt().equals(expected)) {
+                        log.debug("Stale medicine reminder skipped - User: {}, Type: {}, ScheduledAt: {}",
+                                reminder.username(), medicineType, reminder.scheduledAt());
+                        continue;
+                    }
+                    String dedupeKey = "reminder:" + reminder.username() + ":" + medicineType.name() + ":" + reminder.scheduledAt();
+                    if (jobCoordinator.acquireOnce(dedupeKey, FIRE_DEDUPE_TTL)) {
+                        recipients.add(reminder.username());
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to prepare medicine reminder - User: {}, Type: {}", reminder.username(), medicineType, e);
+                }
+            }
+
+            if (!recipients.isEmpty()) {
+                try {
+                    log.info("Sending {} medicine reminder to {} user(s)", medicineType, recipients.size());
+                    pushNotificationService.sendNotificationToUsers(
+                            recipients,
+                            "💊 약 복용 알림",
+                            medicineType == MedicineRecord.MedicineType.MORNING
+                                    ? "아침 약복용을 잊으신건 아니죠?"
+                                    : "저녁 약복용을 잊으신건 아니죠?",
+                            "/medicine",
+                            Map.of(
+                                    "type", "medicine-reminder",
+                                    "medicineType", medicineType.name().toLowerCase()
+                            )
+                    );
+                } catch (Exception e) {
+                    log.error("Failed to send medicine reminders - Type: {}, Users: {}", medicineType, recipients.size(), e);
+                }
+            }
+
+            reminders.forEach(reminder -> arm(reminder.username(), medicineType, false));
+        });
+    }
+
+    /**
+     * 발송 대상 사용자의 알림 설정을 DB 에서 다시 읽어 로컬 설정 갱신 (행이 없으면 기본값 유지)
+     */
+    private void reloadSchedules(Set<String> usernames) {
+        Map<String, ReminderSchedule> fresh = reminderScheduleRepository.findByUsernames(usernames).stream()
+                .collect(Collectors.toMap(schedule -> schedule.getUser().getUsername(), schedule -> schedule));
+        for (String username : usernames) {
+            ReminderSchedule schedule = fresh.get(username);
+            if (schedule != null) {
+                schedules.put(username, schedule);
+            }
+        }
+    }
+
+    private Set<MedicineRecord.MedicineType> takenTypes(LocalDate date) {
+        Set<MedicineRecord.MedicineType> types = EnumSet.noneOf(MedicineRecord.MedicineType.class);
+        medicineRecordRepository.findByDateAndTakenTrue(date).forEach(record -> types.add(record.getMedicineType()));
+        return types;
+    }
+
+    private ReminderSchedule defaultSchedule(User user) {
+        ReminderSchedule schedule = new ReminderSchedule();
+        schedule.setUser(user);
+        return schedule;
     }
 }
@@ -5,7 +5,9 @@ import com.medicine.model.User;
 import com.medicine.repository.MedicineRecordRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -19,6 +21,8 @@ import java.util.stream.Collectors;
 public class MedicineService {
 
     private final MedicineRecordRepository medicineRecordRepository;
+    private final MedicineRollupService medicineRollupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public MedicineRecord getTodayRecord(MedicineRecord.MedicineType medicineType) {
         LocalDate today = LocalDate.now();
@@ -26,6 +30,7 @@ public class MedicineService {
                 .orElse(createDefaultRecord(today, medicineType));
     }
 
+    @Transactional
     public MedicineRecord markAsTaken(User user, MedicineRecord.MedicineType medicineType) {
         LocalDate today = LocalDate.now();
         MedicineRecord record = medicineRecordRepository.findByDateAndMedicineType(today, medicineType)
@@ -36,11 +41,15 @@ public class MedicineService {
         record.setTakenBy(user);
 
         MedicineRecord saved = medicineRecordRepository.save(record);
+        medicineRollupService.apply(today, medicineType, true, saved.getTakenTime());
+        // 알림 재예약은 커밋 후 (MedicineSchedulerService.onDoseChanged)
+        eventPublisher.publishEvent(new MedicineDoseChangedEvent(medicineType, true));
         log.debug("Medicine marked as taken - Type: {}, Date: {}, User: {}, Time: {}",
                 medicineType, today, user.getUsername(), saved.getTakenTime());
         return saved;
     }
 
+    @Transactional
     public MedicineRecord cancelTaken(User user, MedicineRecord.MedicineType medicineType) {
         LocalDate today = LocalDate.now();
         MedicineRecord record = medicineRecordRepository.findByDateAndMedicineType(today, medicineType)
@@ -51,6 +60,8 @@ public class MedicineService {
         record.setTakenBy(null);
 
         MedicineRecord saved = medicineRecordRepository.save(record);
+        medicineRollupService.apply(today, medicineType, false, null);
+        eventPublisher.publishEvent(new MedicineDoseChangedEvent(medicineType, false));
         log.debug("Medicine marked as cancelled - Type: {}, Date: {}, User: {}",
                 medicineType, today, user.getUsername());
         return saved;
@@ -69,28 +80,16 @@ public class MedicineService {
     }
 
     public Map<String, Object> getMonthCalendarData(int year, int month) {
-        List<MedicineRecord> records = getMonthRecords(year, month);
-
-        Map<String, Object> calendarData = new HashMap<>();
-        List<Map<String, Object>> recordList = new ArrayList<>();
-
-        // Convert MedicineRecord to simple map to avoid circular reference
-        for (MedicineRecord record : records) {
-            Map<String, Object> recordMap = new HashMap<>();
-            recordMap.put("date", record.getDate().toString());
-            recordMap.put("medicineType", record.getMedicineType().name());
-            recordMap.put("taken", record.isTaken());
-            if (record.getTakenTime() != null) {
-                recordMap.put("takenTime", record.getTakenTime().toString());
-            }
-            recordList.add(recordMap);
-        }
-
-        calendarData.put("records", recordList);
+        return getMonthCalendarData(year, month, false);
+    }
 
-        log.debug("Retrieved {} medicine records for calendar {}-{}", recordList.size(), year, month);
+    // 일별 집계 테이블 기반 (compact: 일자별 비트 배열)
+    public Map<String, Object> getMonthCalendarData(int year, int month, boolean compact) {
+        return medicineRollupService.getMonthCalendarData(year, month, compact);
+    }
 
-        return calendarData;
+    public Map<String, Object> getYearAdherence(int year) {
+        return medicineRollupService.getYearAdherence(year);
     }
 
     private MedicineRecord createDefaultRecord(LocalDate date, MedicineRecord.MedicineType medicineType) {
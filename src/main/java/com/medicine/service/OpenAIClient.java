@@ -0,0 +1,306 @@
+package com.medicine.service;
+
+import com.medicine.exception.OpenAIException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * OpenAI API HTTP 클라이언트
+ *
+ * 하나의 HttpClient 를 공유하여 연결을 재사용하고, 호출마다 다음을 적용
+ * - 연결/응답(시도별)/전체(재시도 포함) 제한시간
+ * - 세마포어 기반 동시 호출 수 제한
+ * - 429/5xx/네트워크 오류 재시도 (Retry-After 우선, 없으면 지수 백오프 + 지터)
+ * - 지연시간/토큰 사용량 통계
+ *
+ * openai.base-url 을 바꾸면 로컬 대체 서버로 호출 가능 (부하 테스트용)
+ */
+@Slf4j
+@Service
+public class OpenAIClient {
+
+    // 지연시간 기록 (최근 LATENCY_SAMPLES 건, 마이크로초)
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final long BASE_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 8_000;
+    private static final int ERROR_BODY_PREVIEW = 300;
+
+    @Value("${openai.api-key}")
+    private String apiKey;
+
+    @Value("${openai.base-url:https://api.openai.com/v1}")
+    private String baseUrl;
+
+    @Value("${openai.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${openai.http.read-timeout-ms:60000}")
+    private long readTimeoutMs;
+
+    @Value("${openai.http.total-timeout-ms:120000}")
+    private long totalTimeoutMs;
+
+    @Value("${openai.http.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${openai.http.max-retries:3}")
+    private int maxRetries;
+
+    private HttpClient httpClient;
+    private Semaphore permits;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private long latencyCount;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        maxConcurrency = Math.max(1, maxConcurrency);
+        permits = new Semaphore(maxConcurrency, true);
+        log.info("OpenAI client initialized - baseUrl: {}, maxConcurrency: {}, maxRetries: {}",
+                baseUrl, maxConcurrency, maxRetries);
+    }
+
+    /**
+     * JSON 요청 전송 후 응답 바디 반환
+     *
+     * @param path          baseUrl 이후 경로 (예: "/chat/completions")
+     * @param body          요청 바디 스트림 (재시도마다 새로 열 수 있어야 함)
+     * @param contentLength 요청 바디 길이 (바이트)
+     * @throws OpenAIException 재시도 불가 응답이거나 재시도 한도/전체 제한시간 초과 시
+     */
+    public byte[] postJson(String path, Supplier<InputStream> body, long contentLength) {
+        requestCount.incrementAndGet();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(totalTimeoutMs);
+
+        try {
+            if (!permits.tryAcquire(remainingMs(deadline), TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw fail(new OpenAIException(0, "동시 호출 한도 대기 시간 초과"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw fail(new OpenAIException("OpenAI 호출 대기 중 인터럽트", e));
+        }
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.fromPublisher(
+                            HttpRequest.BodyPublishers.ofInputStream(body), contentLength))
+                    .build();
+
+            for (int attempt = 0; ; attempt++) {
+                long remaining = remainingMs(deadline);
+                if (remaining <= 0) {
+                    timeoutCount.incrementAndGet();
+                    throw fail(new OpenAIException(0, "OpenAI 호출 전체 제한시간 초과"));
+                }
+
+                HttpRequest attemptRequest = HttpRequest.newBuilder(request, (name, value) -> true)
+                        .timeout(Duration.ofMillis(Math.min(readTimeoutMs, remaining)))
+                        .build();
+
+                long start = System.nanoTime();
+                HttpResponse<byte[]> response;
+                try {
+                    response = httpClient.send(attemptRequest, HttpResponse.BodyHandlers.ofByteArray());
+                } catch (IOException e) {
+                    if (e instanceof HttpTimeoutException) {
+                        timeoutCount.incrementAndGet();
+                    }
+                    if (attempt < maxRetries && sleepBeforeRetry(backoffMs(attempt), deadline)) {
+                        log.warn("OpenAI 호출 실패, 재시도 ({}/{}) - {}", attempt + 1, maxRetries, e.toString());
+                        continue;
+                    }
+                    throw fail(new OpenAIException("OpenAI 호출 실패: " + e.getMessage(), e));
+                } finally {
+                    recordLatency(System.nanoTime() - start);
+                }
+
+                int status = response.statusCode();
+                if (status >= 200 && status < 300) {
+                    successCount.incrementAndGet();
+                    return response.body();
+                }
+
+                boolean retryable = status == 429 || status >= 500;
+                if (status == 429) {
+                    throttledCount.incrementAndGet();
+                }
+                if (retryable && attempt < maxRetries) {
+                    long retryAfter = retryAfterMs(response).orElse(-1L);
+                    long waitMs = retryAfter >= 0 ? retryAfter : backoffMs(attempt);
+                    if (sleepBeforeRetry(waitMs, deadline)) {
+                        log.warn("OpenAI 응답 {} - 재시도 ({}/{})", status, attempt + 1, maxRetries);
+                        continue;
+                    }
+                }
+                throw fail(new OpenAIException(status, "OpenAI 응답 오류 " + status + ": " + preview(response.body())));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw fail(new OpenAIException("OpenAI 호출 중 인터럽트", e));
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 응답의 usage 필드로 토큰 사용량 누적
+     */
+    public void recordUsage(Map<String, Object> usage) {
+        if (usage == null) {
+            return;
+        }
+        if (usage.get("prompt_tokens") instanceof Number prompt) {
+            promptTokens.addAndGet(prompt.longValue());
+        }
+        if (usage.get("completion_tokens") instanceof Number completion) {
+            completionTokens.addAndGet(completion.longValue());
+        }
+    }
+
+    /**
+     * 호출 통계 (관리자 화면용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("baseUrl", baseUrl);
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("inFlight", maxConcurrency - permits.availablePermits());
+        stats.put("waiting", permits.getQueueLength());
+        stats.put("requests", requestCount.get());
+        stats.put("succeeded", successCount.get());
+        stats.put("failed", failureCount.get());
+        stats.put("retries", retryCount.get());
+        stats.put("throttled", throttledCount.get());
+        stats.put("timeouts", timeoutCount.get());
+        stats.put("promptTokens", promptTokens.get());
+        stats.put("completionTokens", completionTokens.get());
+
+        long[] sorted = latencySnapshot();
+        stats.put("latencyP50Ms", percentileMs(sorted, 50));
+        stats.put("latencyP95Ms", percentileMs(sorted, 95));
+        stats.put("latencyP99Ms", percentileMs(sorted, 99));
+        return stats;
+    }
+
+    /**
+     * 남은 전체 제한시간 안에서 대기 (대기 후 시도할 시간이 없으면 false)
+     */
+    private boolean sleepBeforeRetry(long waitMs, long deadline) throws InterruptedException {
+        if (waitMs >= remainingMs(deadline)) {
+            return false;
+        }
+        retryCount.incrementAndGet();
+        Thread.sleep(waitMs);
+        return true;
+    }
+
+    private long backoffMs(int attempt) {
+        long exponential = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempt, 10));
+        return exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
+    }
+
+    /**
+     * Retry-After (초 또는 HTTP-date) / retry-after-ms 헤더
+     */
+    private Optional<Long> retryAfterMs(HttpResponse<?> response) {
+        Optional<String> millis = response.headers().firstValue("retry-after-ms");
+        if (millis.isPresent()) {
+            try {
+                return Optional.of(Math.max(0, (long) Double.parseDouble(millis.get().trim())));
+            } catch (NumberFormatException ignored) {
+                // Retry-After 로 대체
+            }
+        }
+
+        Optional<String> header = response.headers().firstValue("retry-after");
+        if (header.isEmpty()) {
+            return Optional.empty();
+        }
+        String value = header.get().trim();
+        try {
+            return Optional.of(Math.max(0, (long) (Double.parseDouble(value) * 1000)));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Optional.of(Math.max(0, Duration.between(ZonedDateTime.now(), retryAt).toMillis()));
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private static long remainingMs(long deadline) {
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    private OpenAIException fail(OpenAIException e) {
+        failureCount.incrementAndGet();
+        return e;
+    }
+
+    private static String preview(byte[] body) {
+        if (body == null) {
+            return "";
+        }
+        String text = new String(body, 0, Math.min(body.length, ERROR_BODY_PREVIEW), StandardCharsets.UTF_8);
+        return text.replaceAll("\\s+", " ");
+    }
+
+    private synchronized void recordLatency(long elapsedNanos) {
+        latencies[(int) (latencyCount++ % LATENCY_SAMPLES)] = elapsedNanos / 1000;
+    }
+
+    private synchronized long[] latencySnapshot() {
+        long[] sorted = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1000.0;
+    }
+}
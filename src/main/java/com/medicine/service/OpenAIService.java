@@ -1,19 +1,28 @@
 package com.medicine.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medicine.exception.OpenAIException;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class OpenAIService {
 
-    @Value("${openai.api-key}")
-    private String apiKey;
+    private final OpenAIClient openAIClient;
 
     @Value("${openai.model}")
     private String model;
@@ -24,81 +33,58 @@ public class OpenAIService {
     @Value("${openai.temperature}")
     private Double temperature;
 
-    private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
+    private static final String CHAT_COMPLETIONS_PATH = "/chat/completions";
+    private static final String IMAGE_PLACEHOLDER = "__MEAL_IMAGE_DATA_URL__";
+
+    private static final String MEAL_PROMPT = "1965년생 남성이 스텐트 3개를 시술한상태이고 LDL콜레스톨이 높아 관리가 필요한 상황에서 이 음식을 먹었을때 건강에 영향을 줄지 판단해주고 이 음식에대한 점수를 메겨줘(100점이 만점) 답변은 다른이야기없이 딱 아래의 템플릿대로 해줘 어투는 ~함 으로 답변해줘\n" +
+            "그리고 만약 이미지에서 음식을 못찾거나 음식을 특정할 수 없을경우는 NO 라고 응답을 줘\n" +
+            "-템플릿(예시)\n" +
+            "점수: 40점\n" +
+            "음식: 매운 삼계탕\n" +
+            "평가내용:\n" +
+            "고지방·고나트륨·고콜레스테롤 식품으로 분류됨. 스텐트 시술 후 고LDL 콜레스테롤 관리가 필요한 환자에게 부적절함. 닭고기는 양질의 단백질을 제공함에도 불구하고, 국물의 기름기와 조미료, 소금 함량이 높아 혈중 지질 수치 상승 및 혈관 건강 악화 위험을 초래함. 국물을 제한하고 살코기 위주로 소량 섭취하는 것이 권장됨.";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
      * 식단 이미지를 OpenAI Vision API로 분석
      *
-     * @param imageBase64 Base64로 인코딩된 이미지
+     * @param jpegBytes 전처리(축소/JPEG 재인코딩)된 이미지
      * @return AI 평가 응답 (점수와 평가 내용 포함)
      */
-    public Map<String, Object> analyzeMealImage(String imageBase64) {
-        try {
-            RestTemplate restTemplate = new RestTemplate();
-
-            // 요청 헤더 설정
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-
-            // 프롬프트 생성
-            String prompt = "1965년생 남성이 스텐트 3개를 시술한상태이고 LDL콜레스톨이 높아 관리가 필요한 상황에서 이 음식을 먹었을때 건강에 영향을 줄지 판단해주고 이 음식에대한 점수를 메겨줘(100점이 만점) 답변은 다른이야기없이 딱 아래의 템플릿대로 해줘 어투는 ~함 으로 답변해줘\n" +
-                    "그리고 만약 이미지에서 음식을 못찾거나 음식을 특정할 수 없을경우는 NO 라고 응답을 줘\n" +
-                    "-템플릿(예시)\n" +
-                    "점수: 40점\n" +
-                    "음식: 매운 삼계탕\n" +
-                    "평가내용:\n" +
-                    "고지방·고나트륨·고콜레스테롤 식품으로 분류됨. 스텐트 시술 후 고LDL 콜레스테롤 관리가 필요한 환자에게 부적절함. 닭고기는 양질의 단백질을 제공함에도 불구하고, 국물의 기름기와 조미료, 소금 함량이 높아 혈중 지질 수치 상승 및 혈관 건강 악화 위험을 초래함. 국물을 제한하고 살코기 위주로 소량 섭취하는 것이 권장됨.";
-
-            // 요청 바디 생성
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", model);
-            requestBody.put("max_completion_tokens", maxTokens);
-            requestBody.put("temperature", temperature);
-
-            // 메시지 생성
-            List<Map<String, Object>> messages = new ArrayList<>();
-            Map<String, Object> message = new HashMap<>();
-            message.put("role", "user");
-
-            List<Map<String, Object>> content = new ArrayList<>();
-
-            // 텍스트 부분
-            Map<String, Object> textPart = new HashMap<>();
-            textPart.put("type", "text");
-            textPart.put("text", prompt);
-            content.add(textPart);
-
-            // 이미지 부분
-            Map<String, Object> imagePart = new HashMap<>();
-            imagePart.put("type", "image_url");
-            Map<String, String> imageUrl = new HashMap<>();
-            imageUrl.put("url", "data:image/jpeg;base64," + imageBase64);
-            imagePart.put("image_url", imageUrl);
-            content.add(imagePart);
-
-            message.put("content", content);
-            messages.add(message);
-
-            requestBody.put("messages", messages);
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-            log.info("Sending request to OpenAI Vision API");
-
-            // API 호출
-            ResponseEntity<Map> response = restTemplate.exchange(
-                    OPENAI_API_URL,
-                    HttpMethod.POST,
-                    request,
-                    Map.class
-            );
+    public Map<String, Object> analyzeMealImage(byte[] jpegBytes) {
+        return analyzeMealImage(jpegBytes, "image/jpeg");
+    }
 
-            log.info("OpenAI API response status: {}", response.getStatusCode());
+    /**
+     * 식단 이미지를 OpenAI Vision API로 분석
+     *
+     * @param image    이미지 바이트
+     * @param mimeType data URL 에 표시할 실제 이미지 형식 (image/jpeg, image/png, image/webp, image/gif)
+     */
+    public Map<String, Object> analyzeMealImage(byte[] image, String mimeType) {
+        String dataUrlPrefix = "data:" + mimeType + ";base64,";
+        try {
+            log.info("Sending request to OpenAI Vision API - Image: {} bytes", image.length);
+
+            // 이미지를 제외한 JSON 앞/뒤 부분만 메모리에 만들고, data URL 은 전송 시 청크 단위로 인코딩
+            byte[] skeleton = writeRequestSkeleton();
+            int split = indexOf(skeleton, ("\"" + IMAGE_PLACEHOLDER + "\"").getBytes(StandardCharsets.UTF_8));
+            byte[] head = Arrays.copyOfRange(skeleton, 0, split + 1);
+            byte[] tail = Arrays.copyOfRange(skeleton, split + IMAGE_PLACEHOLDER.length() + 1, skeleton.length);
+            long contentLength = head.length + Base64DataUrlInputStream.length(dataUrlPrefix, image) + tail.length;
+
+            byte[] response = openAIClient.postJson(CHAT_COMPLETIONS_PATH, () -> new SequenceInputStream(
+                    Collections.enumeration(List.<InputStream>of(
+                            new ByteArrayInputStream(head),
+                            new Base64DataUrlInputStream(dataUrlPrefix, image),
+                            new ByteArrayInputStream(tail)))),
+                    contentLength);
+            Map<String, Object> responseBody = objectMapper.readValue(response, new TypeReference<Map<String, Object>>() {});
 
             // 응답 파싱
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> responseBody = response.getBody();
+            if (responseBody != null) {
+                openAIClient.recordUsage((Map<String, Object>) responseBody.get("usage"));
                 List<Map<String, Object>> choices = (List<Map<String, Object>>) responseBody.get("choices");
 
                 if (choices != null && !choices.isEmpty()) {
@@ -114,11 +100,123 @@ public class OpenAIService {
             }
 
             log.error("Failed to get valid response from OpenAI API");
-            return createErrorResponse();
+            return createErrorResponse(false, null);
 
+        } catch (OpenAIException e) {
+            log.error("Error calling OpenAI API - Status: {}", e.getStatusCode(), e);
+            return createErrorResponse(isRetryable(e), e.getStatusCode());
         } catch (Exception e) {
             log.error("Error calling OpenAI API", e);
-            return createErrorResponse();
+            return createErrorResponse(false, null);
+        }
+    }
+
+    /**
+     * Chat Completions 요청 바디 (이미지 URL 자리는 placeholder)
+     * {"model", "max_completion_tokens", "temperature", "messages": [{"role": "user", "content": [텍스트, 이미지]}]}
+     */
+    private byte[] writeRequestSkeleton() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeStringField("model", model);
+            generator.writeNumberField("max_completion_tokens", maxTokens);
+            generator.writeNumberField("temperature", temperature);
+
+            generator.writeArrayFieldStart("messages");
+            generator.writeStartObject();
+            generator.writeStringField("role", "user");
+            generator.writeArrayFieldStart("content");
+
+            // 텍스트 부분
+            generator.writeStartObject();
+            generator.writeStringField("type", "text");
+            generator.writeStringField("text", MEAL_PROMPT);
+            generator.writeEndObject();
+
+            // 이미지 부분 (data URL)
+            generator.writeStartObject();
+            generator.writeStringField("type", "image_url");
+            generator.writeObjectFieldStart("image_url");
+            generator.writeStringField("url", IMAGE_PLACEHOLDER);
+            generator.writeEndObject();
+            generator.writeEndObject();
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return output.toByteArray();
+    }
+
+    private static int indexOf(byte[] source, byte[] target) {
+        outer:
+        for (int i = 0; i <= source.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (source[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new IllegalStateException("요청 바디에서 이미지 위치를 찾을 수 없습니다.");
+    }
+
+    /**
+     * "data:image/jpeg;base64," + Base64(bytes) 를 문자열로 만들지 않고 순차적으로 읽어주는 InputStream
+     * Base64 문자는 JSON 이스케이프가 필요 없으므로 그대로 기록됨
+     */
+    private static final class Base64DataUrlInputStream extends InputStream {
+
+        private static final int CHUNK_BYTES = 3 * 1024;  // 3의 배수여야 중간 청크에 패딩이 생기지 않음
+
+        private final byte[] prefix;
+        private final byte[] source;
+        private final Base64.Encoder encoder = Base64.getEncoder();
+        private int prefixPosition;
+        private int sourcePosition;
+        private byte[] encoded = new byte[0];
+        private int encodedPosition;
+
+        private Base64DataUrlInputStream(String prefix, byte[] source) {
+            this.prefix = prefix.getBytes(StandardCharsets.US_ASCII);
+            this.source = source;
+        }
+
+        static long length(String prefix, byte[] source) {
+            return prefix.length() + 4L * ((source.length + 2) / 3);
+        }
+
+        @Override
+        public int read() {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int written = 0;
+            while (written < length) {
+                if (prefixPosition < prefix.length) {
+                    buffer[offset + written++] = prefix[prefixPosition++];
+                    continue;
+                }
+                if (encodedPosition == encoded.length) {
+                    if (sourcePosition == source.length) {
+                        break;
+                    }
+                    int end = Math.min(source.length, sourcePosition + CHUNK_BYTES);
+                    encoded = encoder.encode(Arrays.copyOfRange(source, sourcePosition, end));
+                    encodedPosition = 0;
+                    sourcePosition = end;
+                }
+                int count = Math.min(length - written, encoded.length - encodedPosition);
+                System.arraycopy(encoded, encodedPosition, buffer, offset + written, count);
+                encodedPosition += count;
+                written += count;
+            }
+            return written == 0 && length > 0 ? -1 : written;
         }
     }
 
@@ -178,20 +276,36 @@ public class OpenAIService {
 
         } catch (Exception e) {
             log.error("Error parsing AI response", e);
-            return createErrorResponse();
+            return createErrorResponse(false, null);
         }
 
         return result;
     }
 
+    /**
+     * 다시 시도하면 성공할 수 있는 실패인지 (429, 5xx, 응답을 받지 못한 제한시간 초과/연결 실패)
+     * 400/401/403 등은 같은 요청을 반복해도 결과가 같으므로 재시도하지 않음
+     */
+    private boolean isRetryable(OpenAIException e) {
+        int status = e.getStatusCode();
+        return status == 0 || status == 429 || status >= 500;
+    }
+
     /**
      * 에러 응답 생성
+     *
+     * @param retryable 작업자 수준에서 다시 분석할지 여부
+     * @param status    OpenAI HTTP 응답 코드 (호출 외 실패면 null, 응답을 받지 못했으면 0)
      */
-    private Map<String, Object> createErrorResponse() {
+    private Map<String, Object> createErrorResponse(boolean retryable, Integer status) {
         Map<String, Object> result = new HashMap<>();
         result.put("success", false);
         result.put("score", 50);
         result.put("evaluation", "AI 분석에 실패했습니다.");
+        result.put("retryable", retryable);
+        if (status != null) {
+            result.put("status", status);
+        }
         return result;
     }
 }
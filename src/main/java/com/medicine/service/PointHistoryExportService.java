@@ -0,0 +1,150 @@
+package com.medicine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medicine.dto.PointHistoryDto;
+import com.medicine.model.PointHistory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * 포인트 히스토리 내보내기 (CSV / NDJSON)
+ * 전방향 JDBC 커서(fetchSize)로 읽으면서 바로 응답 스트림에 쓰므로
+ * 히스토리 건수와 관계없이 메모리 사용량이 일정함
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PointHistoryExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String EXPORT_SQL =
+            "SELECT ph.id, ph.points, ph.type, ph.description, pi.name AS item_name, ph.created_at " +
+            "FROM point_history ph LEFT JOIN point_items pi ON pi.id = ph.point_item_id " +
+            "WHERE ph.user_id = ? ORDER BY ph.created_at DESC, ph.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("text/csv; charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * 사용자 포인트 히스토리를 output으로 스트리밍
+     * PostgreSQL은 트랜잭션(autocommit off) 안에서만 fetchSize 커서가 동작하므로 읽기 전용 트랜잭션으로 실행
+     *
+     * @return 내보낸 건수
+     */
+    @Transactional(readOnly = true)
+    public long export(Long userId, Format format, OutputStream output) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long[] count = {0};
+
+        try {
+            if (format == Format.CSV) {
+                // Excel에서 한글이 깨지지 않도록 BOM 추가
+                writer.write('\uFEFF');
+                writer.write("id,createdAt,type,points,description,itemName\n");
+            }
+
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setLong(1, userId);
+                return ps;
+            }, rs -> {
+                PointHistoryDto row = toDto(rs);
+                try {
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("Point history exported - UserId: {}, Format: {}, Rows: {}", userId, format, count[0]);
+        return count[0];
+    }
+
+    private PointHistoryDto toDto(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return PointHistoryDto.builder()
+                .id(rs.getLong("id"))
+                .points(rs.getInt("points"))
+                .type(PointHistory.PointType.valueOf(rs.getString("type")))
+                .description(rs.getString("description"))
+                .itemName(rs.getString("item_name"))
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .build();
+    }
+
+    private void writeCsvRow(Writer writer, PointHistoryDto row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(row.getCreatedAt() != null ? row.getCreatedAt().toString() : "");
+        writer.write(',');
+        writer.write(row.getType().name());
+        writer.write(',');
+        writer.write(String.valueOf(row.getPoints()));
+        writer.write(',');
+        writer.write(csvField(row.getDescription()));
+        writer.write(',');
+        writer.write(csvField(row.getItemName()));
+        writer.write('\n');
+    }
+
+    // RFC 4180: 쉼표/따옴표/줄바꿈이 있으면 따옴표로 감싸고 따옴표는 두 번
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
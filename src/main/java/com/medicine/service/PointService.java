@@ -1,18 +1,30 @@
 package com.medicine.service;
 
+import com.medicine.dto.PointCredit;
+import com.medicine.dto.PointHistoryDto;
 import com.medicine.model.PointHistory;
 import com.medicine.model.PointItem;
 import com.medicine.model.User;
 import com.medicine.repository.PointHistoryRepository;
 import com.medicine.repository.PointItemRepository;
 import com.medicine.repository.UserRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -22,6 +34,29 @@ public class PointService {
     private final PointItemRepository pointItemRepository;
     private final PointHistoryRepository pointHistoryRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    /**
+     * 일괄 적립: 원장 다건 INSERT(중복 키 무시) 후 실제로 삽입된 행만 사용자별로 합산해 잔액 반영
+     * 한 문장으로 실행되므로 원장과 잔액이 항상 함께 반영됨
+     */
+    private static final String CREDIT_BATCH_SQL =
+            "WITH inserted AS (" +
+            "  INSERT INTO point_history (user_id, points, type, description, idempotency_key, created_at)" +
+            "  SELECT t.user_id, t.points, t.type, t.description, t.idempotency_key, ?" +
+            "  FROM unnest(CAST(? AS bigint[]), CAST(? AS integer[]), CAST(? AS varchar[]), CAST(? AS text[]), CAST(? AS varchar[]))" +
+            "    AS t(user_id, points, type, description, idempotency_key)" +
+            "  ON CONFLICT (idempotency_key) DO NOTHING" +
+            "  RETURNING user_id, points" +
+            "), updated AS (" +
+            "  UPDATE users u SET points = COALESCE(u.points, 0) + s.total" +
+            "  FROM (SELECT user_id, SUM(points) AS total FROM inserted GROUP BY user_id) s" +
+            "  WHERE u.id = s.user_id" +
+            "  RETURNING u.id" +
+            ") SELECT COUNT(*) FROM inserted";
 
     /**
      * 사용 가능한 포인트 아이템 목록 조회
@@ -42,6 +77,14 @@ public class PointService {
      */
     @Transactional
     public void purchaseItem(User user, Long itemId) {
+        purchaseItem(user, itemId, null);
+    }
+
+    /**
+     * 포인트 아이템 구매 (idempotencyKey가 같은 재요청은 한 번만 차감)
+     */
+    @Transactional
+    public void purchaseItem(User user, Long itemId, String idempotencyKey) {
         PointItem item = pointItemRepository.findById(itemId)
                 .orElseThrow(() -> new IllegalArgumentException("존재하지 않는 상품입니다."));
 
@@ -49,57 +92,188 @@ public class PointService {
             throw new IllegalArgumentException("구매할 수 없는 상품입니다.");
         }
 
-        // Null-safe: points가 null인 경우 0으로 처리
-        Integer currentPoints = user.getPoints();
-        if (currentPoints == null) {
-            currentPoints = 0;
-            log.warn("User points was null during purchase, initialized to 0 - User: {}", user.getUsername());
-        }
+        boolean applied = applyDelta(user, -item.getPoints(), PointHistory.PointType.PURCHASE,
+                item.getName() + " 구매", item, idempotencyKey);
 
-        if (currentPoints < item.getPoints()) {
-            throw new IllegalArgumentException("포인트가 부족합니다.");
+        if (applied) {
+            log.info("Point item purchased - User: {}, Item: {}, Points: -{}",
+                    user.getUsername(), item.getName(), item.getPoints());
         }
+    }
+
+    /**
+     * 포인트 적립
+     */
+    @Transactional
+    public void addPoints(User user, Integer points, PointHistory.PointType type, String description) {
+        addPoints(user, points, type, description, null);
+    }
 
-        // 포인트 차감
-        user.setPoints(currentPoints - item.getPoints());
-        userRepository.save(user);
+    /**
+     * 포인트 적립 (idempotencyKey가 이미 기록된 경우 무시)
+     */
+    @Transactional
+    public boolean addPoints(User user, Integer points, PointHistory.PointType type, String description,
+                             String idempotencyKey) {
+        boolean applied = applyDelta(user, points, type, description, null, idempotencyKey);
 
-        // 히스토리 기록
-        PointHistory history = new PointHistory();
-        history.setUser(user);
-        history.setPoints(-item.getPoints());
-        history.setType(PointHistory.PointType.PURCHASE);
-        history.setDescription(item.getName() + " 구매");
-        history.setPointItem(item);
-        pointHistoryRepository.save(history);
+        if (applied) {
+            log.info("Points added - User: {}, Points: +{}, Type: {}",
+                    user.getUsername(), points, type);
+        }
+        return applied;
+    }
+
+    /**
+     * 포인트 차감 (잔액 부족 시 IllegalArgumentException)
+     */
+    @Transactional
+    public boolean deductPoints(User user, Integer points, PointHistory.PointType type, String description,
+                                String idempotencyKey) {
+        boolean applied = applyDelta(user, -points, type, description, null, idempotencyKey);
 
-        log.info("Point item purchased - User: {}, Item: {}, Points: -{}",
-                user.getUsername(), item.getName(), item.getPoints());
+        if (applied) {
+            log.info("Points deducted - User: {}, Points: -{}, Type: {}",
+                    user.getUsername(), points, type);
+        }
+        return applied;
     }
 
     /**
-     * 포인트 적립
+     * 포인트 일괄 적립 (idempotencyKey 필수, 이미 기록된 키는 건너뜀)
+     *
+     * @return 실제로 적립된 건수
      */
     @Transactional
-    public void addPoints(User user, Integer points, PointHistory.PointType type, String description) {
-        // Null-safe: points가 null인 경우 0으로 초기화
-        Integer currentPoints = user.getPoints();
-        if (currentPoints == null) {
-            currentPoints = 0;
-            log.warn("User points was null, initialized to 0 - User: {}", user.getUsername());
+    public int creditBatch(List<PointCredit> credits) {
+        if (credits.isEmpty()) {
+            return 0;
         }
-        user.setPoints(currentPoints + points);
-        userRepository.save(user);
 
-        PointHistory history = new PointHistory();
-        history.setUser(user);
-        history.setPoints(points);
-        history.setType(type);
-        history.setDescription(description);
-        pointHistoryRepository.save(history);
+        Long[] userIds = new Long[credits.size()];
+        Integer[] points = new Integer[credits.size()];
+        String[] types = new String[credits.size()];
+        String[] descriptions = new String[credits.size()];
+        String[] keys = new String[credits.size()];
+        for (int i = 0; i < credits.size(); i++) {
+            PointCredit credit = credits.get(i);
+            if (credit.getIdempotencyKey() == null || credit.getPoints() < 0) {
+                throw new IllegalArgumentException("일괄 적립에는 양수 포인트와 중복 방지 키가 필요합니다.");
+            }
+            userIds[i] = credit.getUserId();
+            points[i] = credit.getPoints();
+            types[i] = credit.getType().name();
+            descriptions[i] = credit.getDescription();
+            keys[i] = credit.getIdempotencyKey();
+        }
 
-        log.info("Points added - User: {}, Points: +{}, Type: {}",
-                user.getUsername(), points, type);
+        Integer applied = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CREDIT_BATCH_SQL);
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
+            ps.setArray(2, con.createArrayOf("bigint", userIds));
+            ps.setArray(3, con.createArrayOf("integer", points));
+            ps.setArray(4, con.createArrayOf("varchar", types));
+            ps.setArray(5, con.createArrayOf("text", descriptions));
+            ps.setArray(6, con.createArrayOf("varchar", keys));
+            return ps;
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+
+        log.info("Points credited in batch - Requested: {}, Applied: {}", credits.size(), applied);
+        return applied == null ? 0 : applied;
+    }
+
+    /**
+     * 원장 우선 포인트 변경
+     * 1) 히스토리 기록 (INSERT ... ON CONFLICT (idempotency_key) DO NOTHING, 0건이면 이미 처리된 요청)
+     * 2) 잔액 조건부 UPDATE (points + delta >= 0) - 0건이면 잔액 부족으로 롤백
+     * 전달받은 user의 points는 갱신 후 DB 값으로 맞춤
+     * (영속 상태면 그 User 만 refresh, 세션 객체 등 준영속이면 잔액만 조회해 설정 - 다른 엔티티는 그대로 유지)
+     *
+     * @return 실제로 반영되었는지 여부 (이미 처리된 키면 false)
+     */
+    private boolean applyDelta(User user, int delta, PointHistory.PointType type, String description,
+                               PointItem item, String idempotencyKey) {
+        int inserted = pointHistoryRepository.insertIfAbsent(user.getId(), delta, type.name(), description,
+                item != null ? item.getId() : null, idempotencyKey, LocalDateTime.now());
+        if (inserted == 0) {
+            log.info("이미 처리된 포인트 요청 - User: {}, Key: {}", user.getUsername(), idempotencyKey);
+            syncPoints(user);
+            return false;
+        }
+
+        if (userRepository.applyPointDelta(user.getId(), delta) == 0) {
+            throw new IllegalArgumentException("포인트가 부족합니다.");
+        }
+
+        syncPoints(user);
+        return true;
+    }
+
+    private void syncPoints(User user) {
+        if (entityManager.contains(user)) {
+            entityManager.refresh(user);
+        } else {
+            user.setPoints(userRepository.findPointsById(user.getId()));
+        }
+    }
+
+    /**
+     * 잔액과 원장 합계(sumPoints) 대조
+     * - openingBalance: 원장 도입 전 잔액 차이를 ADJUSTMENT 히스토리로 이관 (최초 1회)
+     * - autoCorrect: 이후 발생한 차이는 잔액을 원장 합계로 보정, 아니면 보고만 함
+     *
+     * @return 사용자별 불일치 목록
+     */
+    @Transactional
+    public List<Map<String, Object>> reconcileBalances(boolean openingBalance, boolean autoCorrect) {
+        List<Map<String, Object>> mismatches = new ArrayList<>();
+
+        for (Object[] row : pointHistoryRepository.findBalancesWithLedgerSum()) {
+            Long userId = (Long) row[0];
+            String username = (String) row[1];
+            int balance = ((Number) row[2]).intValue();
+            int ledger = ((Number) row[3]).intValue();
+            int drift = balance - ledger;
+
+            if (drift == 0) {
+                continue;
+            }
+
+            String openingKey = "opening-balance:" + userId;
+            String action;
+            if (openingBalance && !pointHistoryRepository.existsByIdempotencyKey(openingKey)) {
+                PointHistory history = new PointHistory();
+                history.setUser(userRepository.getReferenceById(userId));
+                history.setPoints(drift);
+                history.setType(PointHistory.PointType.ADJUSTMENT);
+                history.setDescription("기존 잔액 이관");
+                history.setIdempotencyKey(openingKey);
+                pointHistoryRepository.save(history);
+                action = "OPENING_BALANCE";
+            } else if (autoCorrect && userRepository.resetPoints(userId, balance, ledger) == 1) {
+                action = "CORRECTED";
+            } else {
+                action = "REPORTED";
+            }
+
+            Map<String, Object> mismatch = new HashMap<>();
+            mismatch.put("userId", userId);
+            mismatch.put("username", username);
+            mismatch.put("balance", balance);
+            mismatch.put("ledger", ledger);
+            mismatch.put("drift", drift);
+            mismatch.put("action", action);
+            mismatches.add(mismatch);
+
+            if ("OPENING_BALANCE".equals(action)) {
+                log.info("포인트 기존 잔액 이관 - User: {}, Points: {}", username, drift);
+            } else {
+                log.error("포인트 잔액 불일치 - User: {}, Balance: {}, Ledger: {}, Action: {}",
+                        username, balance, ledger, action);
+            }
+        }
+
+        return mismatches;
     }
 
     /**
@@ -109,6 +283,55 @@ public class PointService {
         return pointHistoryRepository.findByUserOrderByCreatedAtDesc(user);
     }
 
+    /**
+     * 포인트 히스토리 페이지 조회 (키셋 페이지네이션)
+     *
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @return items, nextCursor(마지막 페이지면 null), hasMore
+     */
+    public Map<String, Object> getPointHistoryPage(User user, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        // 다음 페이지 존재 여부 확인을 위해 한 건 더 조회
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<PointHistoryDto> items;
+        if (cursor == null || cursor.isEmpty()) {
+            items = pointHistoryRepository.findPageByUserId(user.getId(), limit);
+        } else {
+            String[] parts = decodeCursor(cursor);
+            items = pointHistoryRepository.findPageByUserIdBefore(
+                    user.getId(), LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), limit);
+        }
+
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("hasMore", hasMore);
+        page.put("nextCursor", hasMore ? encodeCursor(items.get(items.size() - 1)) : null);
+        return page;
+    }
+
+    private String encodeCursor(PointHistoryDto last) {
+        String raw = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다.");
+        }
+    }
+
     /**
      * 최근 포인트 히스토리 조회
      */
@@ -1,20 +1,25 @@
 package com.medicine.service;
 
-import com.google.firebase.messaging.*;
+import com.medicine.dto.PushMessage;
+import com.medicine.exception.PushSendException;
 import com.medicine.model.FcmToken;
 import com.medicine.repository.FcmTokenRepository;
+import com.medicine.service.push.PushTransport;
+import com.medicine.service.push.WebPushSender;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Firebase Cloud Messaging 푸시 알림 서비스
+ * Web Push 로 보낸 브라우저에 연결된 FCM 토큰만 건너뜀 (같은 기기 중복 수신 방지, 다른 기기는 FCM 으로 계속 수신)
+ * 로컬 시뮬레이터(push.transport=local) 사용 중에는 Web Push 를 보내지 않음
  */
 @Slf4j
 @Service
@@ -22,14 +27,20 @@ import java.util.Map;
 public class PushNotificationService {
 
     private final FcmTokenRepository fcmTokenRepository;
-
-    @Value("${firebase.enabled:false}")
-    private boolean firebaseEnabled;
+    private final PushTransport pushTransport;
+    private final WebPushSender webPushSender;
 
     @PostConstruct
     public void init() {
         log.info("=== Firebase Cloud Messaging Service Initialized ===");
-        log.info("Firebase Enabled: {}", firebaseEnabled);
+        log.info("Push Transport: {}, Enabled: {}", pushTransport.getClass().getSimpleName(), pushTransport.isEnabled());
+
+        try {
+            int indexed = fcmTokenRepository.rebuildUserIndex();
+            log.info("FCM user token index verified ({} token(s))", indexed);
+        } catch (Exception e) {
+            log.error("Failed to rebuild FCM user token index", e);
+        }
     }
 
     /**
@@ -37,34 +48,14 @@ public class PushNotificationService {
      * 사용자당 하나의 토큰만 유지 (중복 알림 방지)
      */
     public void registerToken(String userId, String fcmToken) {
-        if (!firebaseEnabled) {
+        if (!pushTransport.isEnabled()) {
             log.warn("Firebase is disabled. Token not registered.");
             return;
         }
 
-        // 기존 토큰 모두 삭제 (같은 사용자의 모든 이전 토큰 제거)
-        List<FcmToken> existingTokens = fcmTokenRepository.findByUserId(userId);
-        if (!existingTokens.isEmpty()) {
-            log.info("🔍 Found {} existing token(s) for user: {}", existingTokens.size(), userId);
-            for (FcmToken existingToken : existingTokens) {
-                fcmTokenRepository.delete(existingToken.getToken());
-                log.info("🗑️ Removed old FCM token for user: {} (token: {}...)",
-                    userId, existingToken.getToken().substring(0, Math.min(20, existingToken.getToken().length())));
-            }
-        }
-
-        // 새 토큰 저장 (사용자당 정확히 하나의 토큰만 유지)
-        FcmToken token = new FcmToken(userId, fcmToken);
-        fcmTokenRepository.save(token);
-
-        // 등록 확인
-        int currentTokenCount = fcmTokenRepository.findByUserId(userId).size();
-        log.info("✅ FCM token registered for user: {} (Current count: {})", userId, currentTokenCount);
-
-        if (currentTokenCount > 1) {
-            log.error("⚠️ WARNING: User {} still has {} tokens after cleanup! This should not happen!",
-                userId, currentTokenCount);
-        }
+        // 기존 토큰 제거 + 새 토큰 저장을 한 번에 처리 (사용자당 정확히 하나의 토큰만 유지)
+        long removed = fcmTokenRepository.replaceUserToken(new FcmToken(userId, fcmToken));
+        log.info("✅ FCM token registered for user: {} (Removed {} old token(s))", userId, removed);
     }
 
     /**
@@ -96,12 +87,17 @@ public class PushNotificationService {
      * 특정 사용자에게 알림 전송 (URL, 데이터 포함)
      */
     public void sendNotification(String userId, String title, String body, String url, Map<String, String> data) {
-        if (!firebaseEnabled) {
+        Set<String> webPushTokens = pushTransport.isSimulated()
+                ? Set.of() : webPushSender.sendToUser(userId, title, body, url, data);
+
+        if (!pushTransport.isEnabled()) {
             log.debug("Firebase disabled - skipping notification for user: {}", userId);
             return;
         }
 
-        List<FcmToken> tokens = fcmTokenRepository.findByUserId(userId);
+        List<FcmToken> tokens = fcmTokenRepository.findByUserId(userId).stream()
+                .filter(fcmToken -> !webPushTokens.contains(fcmToken.getToken()))
+                .toList();
 
         if (tokens.isEmpty()) {
             log.debug("No FCM tokens found for user: {}", userId);
@@ -116,7 +112,7 @@ public class PushNotificationService {
         int successCount = 0;
         for (FcmToken fcmToken : tokens) {
             try {
-                sendToToken(fcmToken.getToken(), title, body, url, data);
+                sendToToken(fcmTokenRepository, fcmToken.getToken(), title, body, url, data);
                 successCount++;
 
                 // 마지막 사용 시간 업데이트
@@ -131,25 +127,33 @@ public class PushNotificationService {
     }
 
     /**
-     * 특정 사용자를 제외한 모든 사용자에게 알림 전송
+     * 여러 사용자에게 같은 알림을 일괄 전송
+     * 대상 사용자들의 토큰을 한 번에 조회한 뒤 순서대로 전송
      */
-    public void sendNotificationToAllUsersExcept(String excludedUserId, String title, String body, String url, Map<String, String> data) {
-        if (!firebaseEnabled) {
-            log.debug("Firebase disabled - skipping broadcast notification");
+    public void sendNotificationToUsers(Collection<String> userIds, String title, String body, String url, Map<String, String> data) {
+        if (userIds.isEmpty()) {
             return;
         }
 
-        List<FcmToken> allTokens = fcmTokenRepository.findAll();
+        Set<String> webPushTokens = pushTransport.isSimulated()
+                ? Set.of() : webPushSender.sendToUsers(userIds, title, body, url, data);
+
+        if (!pushTransport.isEnabled()) {
+            log.debug("Firebase disabled - skipping batch notification for {} user(s)", userIds.size());
+            return;
+        }
+
+        List<FcmToken> tokens = fcmTokenRepository.findByUserIds(userIds);
         int sent = 0;
         int failed = 0;
 
-        for (FcmToken fcmToken : allTokens) {
-            if (fcmToken.getUserId().equals(excludedUserId)) {
+        for (FcmToken fcmToken : tokens) {
+            if (webPushTokens.contains(fcmToken.getToken())) {
                 continue;
             }
 
             try {
-                sendToToken(fcmToken.getToken(), title, body, url, data);
+                sendToToken(fcmTokenRepository, fcmToken.getToken(), title, body, url, data);
                 fcmToken.setLastUsedAt(System.currentTimeMillis());
                 fcmTokenRepository.save(fcmToken);
                 sent++;
@@ -159,7 +163,22 @@ public class PushNotificationService {
             }
         }
 
-        log.info("📢 Broadcast complete - Sent: {}, Failed: {}", sent, failed);
+        log.info("📢 Batch notification complete - Users: {}, Sent: {}, Failed: {}", userIds.size(), sent, failed);
+    }
+
+    /**
+     * 특정 사용자를 제외한 모든 사용자에게 알림 전송
+     */
+    public void sendNotificationToAllUsersExcept(String excludedUserId, String title, String body, String url, Map<String, String> data) {
+        Set<String> webPushTokens = pushTransport.isSimulated()
+                ? Set.of() : webPushSender.sendToAll(excludedUserId, title, body, url, data);
+
+        if (!pushTransport.isEnabled()) {
+            log.debug("Firebase disabled - skipping broadcast notification");
+            return;
+        }
+
+        broadcast(fcmTokenRepository, webPushTokens, excludedUserId, title, body, url, data);
     }
 
     /**
@@ -173,108 +192,82 @@ public class PushNotificationService {
      * 모든 사용자에게 알림 전송 (URL, 데이터 포함)
      */
     public void sendNotificationToAllUsers(String title, String body, String url, Map<String, String> data) {
-        if (!firebaseEnabled) {
+        Set<String> webPushTokens = pushTransport.isSimulated()
+                ? Set.of() : webPushSender.sendToAll(null, title, body, url, data);
+
+        if (!pushTransport.isEnabled()) {
+            log.debug("Firebase disabled - skipping broadcast notification");
+            return;
+        }
+
+        broadcast(fcmTokenRepository, webPushTokens, null, title, body, url, data);
+    }
+
+    /**
+     * 지정한 토큰 저장소의 모든 토큰으로 FCM 전송 (Web Push 없음, 벤치마크의 격리된 저장소용)
+     */
+    public void sendNotificationToAllTokens(FcmTokenRepository tokens, String title, String body, String url, Map<String, String> data) {
+        if (!pushTransport.isEnabled()) {
             log.debug("Firebase disabled - skipping broadcast notification");
             return;
         }
+        broadcast(tokens, Set.of(), null, title, body, url, data);
+    }
 
-        List<FcmToken> allTokens = fcmTokenRepository.findAll();
+    /**
+     * 저장소의 모든 토큰으로 순서대로 전송 (Web Push 로 이미 보낸 토큰과 제외 사용자는 건너뜀)
+     */
+    private void broadcast(FcmTokenRepository tokens, Set<String> skipTokens, String excludedUserId,
+                           String title, String body, String url, Map<String, String> data) {
+        List<FcmToken> allTokens = tokens.findAll();
         int sent = 0;
         int failed = 0;
 
         for (FcmToken fcmToken : allTokens) {
+            if (fcmToken.getUserId().equals(excludedUserId) || skipTokens.contains(fcmToken.getToken())) {
+                continue;
+            }
+
             try {
-                sendToToken(fcmToken.getToken(), title, body, url, data);
+                sendToToken(tokens, fcmToken.getToken(), title, body, url, data);
                 fcmToken.setLastUsedAt(System.currentTimeMillis());
-                fcmTokenRepository.save(fcmToken);
+                tokens.save(fcmToken);
                 sent++;
             } catch (Exception e) {
                 failed++;
-                log.error("Failed to send to user: {}", fcmToken.getUserId(), e);
+                log.debug("Failed to send to user: {}", fcmToken.getUserId(), e);
             }
         }
 
-        log.info("📢 Broadcast to all - Sent: {}, Failed: {}", sent, failed);
+        log.info("📢 Broadcast complete - Sent: {}, Failed: {}", sent, failed);
     }
 
     /**
      * FCM 토큰으로 직접 알림 전송
      */
-    private void sendToToken(String fcmToken, String title, String body, String url, Map<String, String> customData) {
-        try {
-            // 알림 페이로드 구성 (Android용 기본 Notification)
-            Notification notification = Notification.builder()
-                    .setTitle(title)
-                    .setBody(body)
-                    .build();
-
-            // 웹푸시 설정 (클릭 시 이동할 URL 포함)
-            WebpushNotification webpushNotification = WebpushNotification.builder()
-                    .setTitle(title)
-                    .setBody(body)
-                    .setIcon("/icons/icon-192x192.png")
-                    .setBadge("/icons/badge-72x72.png")
-                    .build();
-
-            WebpushConfig.Builder webpushConfigBuilder = WebpushConfig.builder()
-                    .setNotification(webpushNotification);
-
-            if (url != null && !url.isEmpty()) {
-                webpushConfigBuilder.setFcmOptions(WebpushFcmOptions.builder()
-                        .setLink(url)
-                        .build());
-            }
+    private void sendToToken(FcmTokenRepository tokens, String fcmToken, String title, String body, String url,
+                             Map<String, String> customData) {
+        PushMessage message = PushMessage.builder()
+                .token(fcmToken)
+                .title(title)
+                .body(body)
+                .url(url)
+                .data(customData)
+                .build();
 
-            // iOS용 APNS 설정 (iOS 푸시 알림 지원)
-            Aps aps = Aps.builder()
-                    .setAlert(ApsAlert.builder()
-                            .setTitle(title)
-                            .setBody(body)
-                            .build())
-                    .setSound("default")
-                    .setBadge(1)
-                    .setContentAvailable(true)
-                    .build();
-
-            ApnsConfig apnsConfig = ApnsConfig.builder()
-                    .setAps(aps)
-                    .putHeader("apns-priority", "10")
-                    .build();
-
-            // 데이터 페이로드 구성
-            Map<String, String> data = new HashMap<>();
-            data.put("title", title);
-            data.put("body", body);
-            data.put("url", url != null ? url : "/medicine");
-            data.put("timestamp", String.valueOf(System.currentTimeMillis()));
-
-            if (customData != null) {
-                data.putAll(customData);
-            }
-
-            // FCM 메시지 구성 (모든 플랫폼 지원)
-            Message message = Message.builder()
-                    .setToken(fcmToken)
-                    .setNotification(notification)  // Android/Web용 기본 알림
-                    .setWebpushConfig(webpushConfigBuilder.build())  // Web용
-                    .setApnsConfig(apnsConfig)  // iOS용
-                    .putAllData(data)
-                    .build();
-
-            // FCM 전송
-            String response = FirebaseMessaging.getInstance().send(message);
-            log.info("✅ FCM notification sent successfully - Message ID: {}", response);
-
-        } catch (FirebaseMessagingException fme) {
-            log.error("❌ FCM error: {} - {}", fme.getMessagingErrorCode(), fme.getMessage());
-
-            // 잘못된 토큰 제거
-            if (fme.getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED ||
-                fme.getMessagingErrorCode() == MessagingErrorCode.INVALID_ARGUMENT) {
-                fcmTokenRepository.delete(fcmToken);
-                log.info("🗑️ Removed invalid FCM token");
+        try {
+            String response = pushTransport.send(message);
+            log.debug("✅ FCM notification sent successfully - Message ID: {}", response);
+
+        } catch (PushSendException pse) {
+            // 잘못된 토큰 제거 (만료된 토큰은 흔하므로 debug)
+            if (pse.isInvalidToken()) {
+                tokens.delete(fcmToken);
+                log.debug("🗑️ Removed invalid FCM token - {}: {}", pse.getErrorCode(), pse.getMessage());
+            } else {
+                log.error("❌ FCM error: {} - {}", pse.getErrorCode(), pse.getMessage());
             }
-            throw new RuntimeException("Failed to send FCM notification", fme);
+            throw new RuntimeException("Failed to send FCM notification", pse);
 
         } catch (Exception e) {
             log.error("❌ Unexpected error sending FCM notification", e);
@@ -7,6 +7,7 @@ import com.medicine.dto.StockPriceOutput;
 import com.medicine.dto.StockPriceResponse;
 import com.medicine.dto.StockSearchItem;
 import com.medicine.dto.StockSearchResponse;
+import com.medicine.model.PointHistory;
 import com.medicine.model.Stock;
 import com.medicine.model.User;
 import com.medicine.repository.StockRepository;
@@ -17,6 +18,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
@@ -28,7 +30,9 @@ import java.util.*;
 public class StockService {
 
     private final StockRepository stockRepository;
+    private final PointService pointService;
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
     private final StringRedisTemplate redisTemplate;
     private final RestTemplate restTemplate = new RestTemplate();
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -270,33 +274,53 @@ public class StockService {
 
     // 주식 매수
     public Stock buyStock(User user, String stockCode, String market, Long buyPrice, Integer quantity) {
-        int pointsPerShare = (int) Math.ceil((double) buyPrice / POINT_TO_WON);
-        int totalPoints = pointsPerShare * quantity;
+        return buyStock(user, stockCode, market, buyPrice, quantity, null);
+    }
 
-        if (user.getPoints() < totalPoints) {
-            throw new IllegalArgumentException("포인트가 부족합니다");
+    // 주식 매수 (idempotencyKey가 같은 재요청은 다시 차감하지 않고 처음 매수 결과를 반환)
+    // 외부 시세 API 호출은 트랜잭션 밖에서 먼저 하고, 포인트 차감과 주식 저장만 한 트랜잭션으로 처리
+    public Stock buyStock(User user, String stockCode, String market, Long buyPrice, Integer quantity,
+                          String idempotencyKey) {
+        if (idempotencyKey != null) {
+            Optional<Stock> existing = stockRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                log.info("이미 처리된 매수 요청 - User: {}, Key: {}", user.getUsername(), idempotencyKey);
+                user.setPoints(userRepository.findPointsById(user.getId()));
+                return existing.get();
+            }
         }
 
-        // 포인트 차감
-        user.setPoints(user.getPoints() - totalPoints);
-        userRepository.save(user);
+        int pointsPerShare = (int) Math.ceil((double) buyPrice / POINT_TO_WON);
+        int totalPoints = pointsPerShare * quantity;
 
         // 주식 정보 조회
         StockDTO stockInfo = market.equals("DOMESTIC") ?
             getDomesticStockPrice(stockCode) :
             getOverseasStockPrice(stockCode, market);
 
-        // 주식 저장
-        Stock stock = new Stock();
-        stock.setUser(user);
-        stock.setStockCode(stockCode);
-        stock.setStockName(stockInfo.getName());
-        stock.setMarket(market);
-        stock.setQuantity(quantity);
-        stock.setBuyPrice(buyPrice);
-        stock.setPointsUsed(totalPoints);
-
-        return stockRepository.save(stock);
+        return transactionTemplate.execute(status -> {
+            // 포인트 차감 (원장 기록 + 조건부 잔액 UPDATE, 부족 시 IllegalArgumentException)
+            boolean applied = pointService.deductPoints(user, totalPoints, PointHistory.PointType.STOCK,
+                    stockInfo.getName() + " " + quantity + "주 매수", idempotencyKey);
+            if (!applied) {
+                // 동시에 들어온 같은 요청이 먼저 커밋된 경우
+                return stockRepository.findByIdempotencyKey(idempotencyKey)
+                        .orElseThrow(() -> new IllegalArgumentException("이미 처리된 매수 요청입니다"));
+            }
+
+            // 주식 저장
+            Stock stock = new Stock();
+            stock.setUser(user);
+            stock.setStockCode(stockCode);
+            stock.setStockName(stockInfo.getName());
+            stock.setMarket(market);
+            stock.setQuantity(quantity);
+            stock.setBuyPrice(buyPrice);
+            stock.setPointsUsed(totalPoints);
+            stock.setIdempotencyKey(idempotencyKey);
+
+            return stockRepository.save(stock);
+        });
     }
 
     // 사용자의 보유 주식 조회
@@ -0,0 +1,305 @@
+package com.medicine.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 저장소 정리 (DB 에서 참조하지 않는 파일 삭제)
+ * - 디렉토리를 DirectoryStream 으로 순차 순회하며 BATCH_SIZE 개씩 참조 컬럼과 대조
+ * - 유예 기간(grace-hours)보다 최근 파일은 건너뜀 (업로드 직후 DB 반영 전 등)
+ * - 초당 검사 파일 수/삭제 바이트 수 한도로 디스크 I/O 를 제한
+ * - 원본이 없는 축소본, 오래된 임시 파일도 함께 정리
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StorageGcService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 파일을 참조하는 모든 컬럼 ("/files/{type}/{filename}" 형식, Base64 등 다른 값은 제외)
+     * 파일명만 비교하므로 내용 주소 방식 파일이 여러 구분(type)에서 참조되어도 동작
+     */
+    private static final String REFERENCED_FILENAMES_SQL =
+            "SELECT DISTINCT filename FROM (" +
+            "  SELECT regexp_replace(profile_image, '^.*/', '') AS filename FROM users WHERE profile_image LIKE '/files/%'" +
+            "  UNION ALL SELECT regexp_replace(media_url, '^.*/', '') FROM daily WHERE media_url LIKE '/files/%'" +
+            "  UNION ALL SELECT regexp_replace(image_url, '^.*/', '') FROM daily_images WHERE image_url LIKE '/files/%'" +
+            "  UNION ALL SELECT regexp_replace(image_url, '^.*/', '') FROM meal_checks WHERE image_url LIKE '/files/%'" +
+            "  UNION ALL SELECT regexp_replace(image_url, '^.*/', '') FROM wish WHERE image_url LIKE '/files/%'" +
+            "  UNION ALL SELECT regexp_replace(image_url, '^.*/', '') FROM point_items WHERE image_url LIKE '/files/%'" +
+            "  UNION ALL SELECT regexp_replace(image_url, '^.*/', '') FROM comments WHERE image_url LIKE '/files/%'" +
+            ") refs WHERE filename = ANY(?)";
+
+    private final FileStorageService fileStorageService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${storage.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${storage.gc.dry-run:true}")
+    private boolean dryRun;
+
+    @Value("${storage.gc.scan-files-per-second:2000}")
+    private long scanFilesPerSecond;
+
+    @Value("${storage.gc.delete-bytes-per-second:52428800}")
+    private long deleteBytesPerSecond;
+
+    private volatile Map<String, Object> lastReport = Map.of();
+
+    /**
+     * 전체 저장소 정리 1회 실행
+     *
+     * @return 실행 결과 (검사/삭제 파일 수, 회수 바이트 등)
+     */
+    public Map<String, Object> collect() {
+        Run run = new Run(Instant.now().minus(Duration.ofHours(graceHours)));
+
+        try {
+            for (Path directory : fileStorageService.getStorageLocations().values()) {
+                sweepDirectory(directory, run);
+            }
+
+            // content/ab/cd/{hash}, content/tmp
+            Path contentRoot = fileStorageService.getContentStorageLocation();
+            try (DirectoryStream<Path> shards = Files.newDirectoryStream(contentRoot, Files::isDirectory)) {
+                for (Path shard : shards) {
+                    if ("tmp".equals(shard.getFileName().toString())) {
+                        sweepDirectory(shard, run);
+                        continue;
+                    }
+                    try (DirectoryStream<Path> subShards = Files.newDirectoryStream(shard, Files::isDirectory)) {
+                        for (Path subShard : subShards) {
+                            sweepDirectory(subShard, run);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("저장소 정리 중 디렉토리 읽기 실패", e);
+            run.errors++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("저장소 정리 중단");
+        }
+
+        Map<String, Object> report = run.toReport();
+        lastReport = report;
+        log.info("저장소 정리 완료 - 검사: {}개, 삭제: {}개, 회수: {} bytes, 오류: {}건, dryRun: {}, {}ms",
+                run.scanned, run.deleted, run.reclaimedBytes, run.errors, dryRun, report.get("elapsedMs"));
+        return report;
+    }
+
+    public Map<String, Object> getLastReport() {
+        return lastReport;
+    }
+
+    private void sweepDirectory(Path directory, Run run) throws IOException, InterruptedException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        List<Candidate> batch = new ArrayList<>(BATCH_SIZE);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path file : entries) {
+                run.scanBudget.acquire(1);
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue;  // 순회 중 삭제됨
+                }
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                run.scanned++;
+                if (attributes.lastModifiedTime().toInstant().isAfter(run.cutoff)) {
+                    continue;  // 유예 기간
+                }
+
+                String filename = file.getFileName().toString();
+                if (filename.endsWith(TEMP_SUFFIX)) {
+                    // 실패한 업로드/축소본 생성의 잔여 임시 파일
+                    delete(file, attributes.size(), run);
+                } else if (fileStorageService.isVariantFilename(filename)) {
+                    // 원본이 지워졌는데 남은 축소본 (원본이 있으면 원본과 함께 판단)
+                    if (!Files.exists(fileStorageService.getVariantOriginal(file))) {
+                        delete(file, attributes.size(), run);
+                    }
+                } else {
+                    batch.add(new Candidate(file, filename, attributes.size()));
+                    if (batch.size() == BATCH_SIZE) {
+                        sweepBatch(batch, run);
+                        batch.clear();
+                    }
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            sweepBatch(batch, run);
+        }
+    }
+
+    private void sweepBatch(List<Candidate> batch, Run run) throws InterruptedException {
+        Set<String> referenced = findReferencedFilenames(batch.stream().map(Candidate::filename).toArray(String[]::new));
+
+        for (Candidate candidate : batch) {
+            if (referenced.contains(candidate.filename())) {
+                continue;
+            }
+
+            long size = candidate.size() + variantsSize(candidate.path());
+            run.deleteBudget.acquire(size);
+            if (dryRun) {
+                log.info("[dry-run] 참조 없는 파일: {} ({} bytes)", candidate.path(), size);
+                run.record(size);
+                continue;
+            }
+
+            try {
+                boolean deleted;
+                if (fileStorageService.isContentAddressedFilename(candidate.filename())) {
+                    LocalDateTime acquiredBefore = LocalDateTime.ofInstant(run.cutoff, ZoneId.systemDefault());
+                    deleted = fileStorageService.deleteUnreferencedContent(candidate.filename(), acquiredBefore);
+                } else {
+                    deleted = Files.deleteIfExists(candidate.path());
+                    fileStorageService.deleteVariants(candidate.path());
+                }
+                if (deleted) {
+                    log.info("참조 없는 파일 삭제: {} ({} bytes)", candidate.path(), size);
+                    run.record(size);
+                }
+            } catch (Exception e) {
+                log.warn("파일 삭제 실패: {}", candidate.path(), e);
+                run.errors++;
+            }
+        }
+    }
+
+    private Set<String> findReferencedFilenames(String[] filenames) {
+        List<String> referenced = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(REFERENCED_FILENAMES_SQL);
+            ps.setArray(1, con.createArrayOf("text", filenames));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+        return new HashSet<>(referenced);
+    }
+
+    private long variantsSize(Path original) {
+        long total = 0;
+        for (int width : fileStorageService.getVariantWidths()) {
+            try {
+                total += Files.size(fileStorageService.getVariantPath(original, width));
+            } catch (IOException e) {
+                // 없는 축소본
+            }
+        }
+        return total;
+    }
+
+    private void delete(Path file, long size, Run run) throws InterruptedException {
+        run.deleteBudget.acquire(size);
+        if (dryRun) {
+            log.info("[dry-run] 정리 대상 파일: {} ({} bytes)", file, size);
+            run.record(size);
+            return;
+        }
+        try {
+            if (Files.deleteIfExists(file)) {
+                run.record(size);
+            }
+        } catch (IOException e) {
+            log.warn("파일 삭제 실패: {}", file, e);
+            run.errors++;
+        }
+    }
+
+    private record Candidate(Path path, String filename, long size) {
+    }
+
+    /**
+     * 1회 실행 상태
+     */
+    private final class Run {
+        private final Instant cutoff;
+        private final long startedAt = System.currentTimeMillis();
+        private final IoBudget scanBudget = new IoBudget(scanFilesPerSecond);
+        private final IoBudget deleteBudget = new IoBudget(deleteBytesPerSecond);
+        private long scanned;
+        private long deleted;
+        private long reclaimedBytes;
+        private long errors;
+
+        private Run(Instant cutoff) {
+            this.cutoff = cutoff;
+        }
+
+        private void record(long size) {
+            deleted++;
+            reclaimedBytes += size;
+        }
+
+        private Map<String, Object> toReport() {
+            Map<String, Object> report = new HashMap<>();
+            report.put("scannedFiles", scanned);
+            report.put("deletedFiles", deleted);
+            report.put("reclaimedBytes", reclaimedBytes);
+            report.put("errors", errors);
+            report.put("dryRun", dryRun);
+            report.put("graceHours", graceHours);
+            report.put("finishedAt", LocalDateTime.now().toString());
+            report.put("elapsedMs", System.currentTimeMillis() - startedAt);
+            return report;
+        }
+    }
+
+    /**
+     * 초당 처리량 한도 (0 이하이면 제한 없음)
+     * 누적 사용량이 경과 시간 대비 한도를 넘으면 그만큼 대기
+     */
+    private static final class IoBudget {
+        private final long perSecond;
+        private final long startNanos = System.nanoTime();
+        private long used;
+
+        private IoBudget(long perSecond) {
+            this.perSecond = perSecond;
+        }
+
+        private void acquire(long units) throws InterruptedException {
+            if (perSecond <= 0) {
+                return;
+            }
+            used += units;
+            long earliestNanos = startNanos + (long) ((double) used / perSecond * TimeUnit.SECONDS.toNanos(1));
+            long waitNanos = earliestNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
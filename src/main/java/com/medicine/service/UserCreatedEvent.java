@@ -0,0 +1,10 @@
+package com.medicine.service;
+
+/**
+ * 사용자 생성 이벤트 (복용 알림 예약 등 사용자별 초기화용)
+ *
+ * @param userId   생성된 사용자 ID
+ * @param username 생성된 사용자 이름
+ */
+public record UserCreatedEvent(Long userId, String username) {
+}
@@ -5,6 +5,7 @@ import com.medicine.model.User;
 import com.medicine.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
@@ -17,6 +18,7 @@ import java.util.Optional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PostConstruct
     public void initDefaultUsers() {
@@ -49,15 +51,29 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    /**
+     * 이름/프로필 사진 변경 저장
+     * 피드 캐시에 작성자 정보가 들어 있으므로 변경 이벤트를 함께 발행
+     */
+    public User updateProfile(User user) {
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new DailyChangedEvent(null, "PROFILE"));
+        return saved;
+    }
+
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
     public User createUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCreatedEvent(saved.getId(), saved.getUsername()));
+        return saved;
     }
 
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
+        // 삭제된 사용자의 게시물이 피드 캐시에 남지 않도록 무효화
+        eventPublisher.publishEvent(new DailyChangedEvent(null, "DELETE"));
     }
 }
@@ -65,6 +65,19 @@ public class WebSocketService {
         broadcastMessage("wishes", message);
     }
 
+    /**
+     * Broadcast meal analysis result (ANALYZED/FAILED)
+     */
+    public void broadcastMealUpdate(Object meal, String action) {
+        WebSocketMessage message = new WebSocketMessage(
+            "MEAL",
+            meal,
+            action,
+            null
+        );
+        broadcastMessage("meals", message);
+    }
+
     /**
      * Send a message to a specific user
      */
@@ -0,0 +1,119 @@
+package com.medicine.service.push;
+
+import com.google.firebase.messaging.*;
+import com.medicine.dto.PushMessage;
+import com.medicine.exception.PushSendException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Firebase Cloud Messaging 전송 수단 (기본값)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "push.transport", havingValue = "fcm", matchIfMissing = true)
+public class FcmPushTransport implements PushTransport {
+
+    @Value("${firebase.enabled:false}")
+    private boolean firebaseEnabled;
+
+    @Override
+    public boolean isEnabled() {
+        return firebaseEnabled;
+    }
+
+    @Override
+    public String send(PushMessage pushMessage) {
+        String title = pushMessage.getTitle();
+        String body = pushMessage.getBody();
+        String url = pushMessage.getUrl();
+
+        // 알림 페이로드 구성 (Android용 기본 Notification)
+        Notification notification = Notification.builder()
+                .setTitle(title)
+                .setBody(body)
+                .build();
+
+        // 웹푸시 설정 (클릭 시 이동할 URL 포함)
+        WebpushNotification webpushNotification = WebpushNotification.builder()
+                .setTitle(title)
+                .setBody(body)
+                .setIcon("/icons/icon-192x192.png")
+                .setBadge("/icons/badge-72x72.png")
+                .build();
+
+        WebpushConfig.Builder webpushConfigBuilder = WebpushConfig.builder()
+                .setNotification(webpushNotification);
+
+        if (url != null && !url.isEmpty()) {
+            webpushConfigBuilder.setFcmOptions(WebpushFcmOptions.builder()
+                    .setLink(url)
+                    .build());
+        }
+
+        // iOS용 APNS 설정 (iOS 푸시 알림 지원)
+        Aps aps = Aps.builder()
+                .setAlert(ApsAlert.builder()
+                        .setTitle(title)
+                        .setBody(body)
+                        .build())
+                .setSound("default")
+                .setBadge(1)
+                .setContentAvailable(true)
+                .build();
+
+        ApnsConfig apnsConfig = ApnsConfig.builder()
+                .setAps(aps)
+                .putHeader("apns-priority", "10")
+                .build();
+
+        // 데이터 페이로드 구성
+        Map<String, String> data = new HashMap<>();
+        data.put("title", title);
+        data.put("body", body);
+        data.put("url", url != null ? url : "/medicine");
+        data.put("timestamp", String.valueOf(System.currentTimeMillis()));
+
+        if (pushMessage.getData() != null) {
+            data.putAll(pushMessage.getData());
+        }
+
+        // FCM 메시지 구성 (모든 플랫폼 지원)
+        Message message = Message.builder()
+                .setToken(pushMessage.getToken())
+                .setNotification(notification)  // Android/Web용 기본 알림
+                .setWebpushConfig(webpushConfigBuilder.build())  // Web용
+                .setApnsConfig(apnsConfig)  // iOS용
+                .putAllData(data)
+                .build();
+
+        try {
+            return FirebaseMessaging.getInstance().send(message);
+        } catch (FirebaseMessagingException fme) {
+            throw new PushSendException(toErrorCode(fme.getMessagingErrorCode()), fme.getMessage(), fme);
+        }
+    }
+
+    private PushSendException.ErrorCode toErrorCode(MessagingErrorCode code) {
+        if (code == null) {
+            return PushSendException.ErrorCode.INTERNAL;
+        }
+        switch (code) {
+            case UNREGISTERED:
+                return PushSendException.ErrorCode.UNREGISTERED;
+            case INVALID_ARGUMENT:
+                return PushSendException.ErrorCode.INVALID_ARGUMENT;
+            case QUOTA_EXCEEDED:
+                return PushSendException.ErrorCode.QUOTA_EXCEEDED;
+            case UNAVAILABLE:
+                return PushSendException.ErrorCode.UNAVAILABLE;
+            default:
+                return PushSendException.ErrorCode.INTERNAL;
+        }
+    }
+}
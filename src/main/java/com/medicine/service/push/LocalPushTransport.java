@@ -0,0 +1,172 @@
+package com.medicine.service.push;
+
+import com.medicine.dto.PushMessage;
+import com.medicine.exception.PushSendException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 로컬 FCM 시뮬레이터
+ * 실제 전송 없이 지연시간, UNREGISTERED 오류, 초당 전송 한도를 흉내내어
+ * 푸시 경로를 오프라인에서 부하 테스트할 수 있게 함
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "push.transport", havingValue = "local")
+public class LocalPushTransport implements PushTransport {
+
+    /**
+     * 이 접두사로 시작하는 토큰은 항상 UNREGISTERED 응답
+     */
+    public static final String UNREGISTERED_TOKEN_PREFIX = "unregistered-";
+
+    // 지연시간 기록 (마이크로초, 최대 LATENCY_BUCKETS 까지)
+    private static final int LATENCY_BUCKETS = 1_000_000;
+
+    @Value("${push.local.latency-ms:20}")
+    private long latencyMs;
+
+    @Value("${push.local.jitter-ms:10}")
+    private long jitterMs;
+
+    @Value("${push.local.unregistered-rate:0.01}")
+    private double unregisteredRate;
+
+    @Value("${push.local.rate-limit-per-second:0}")
+    private int rateLimitPerSecond;  // 0 이하이면 제한 없음
+
+    private final Map<PushSendException.ErrorCode, AtomicLong> errorCounts = new EnumMap<>(PushSendException.ErrorCode.class);
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong windowStart = new AtomicLong();
+    private final AtomicLong windowCount = new AtomicLong();
+
+    private volatile AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+    private final AtomicLong latencyCount = new AtomicLong();
+
+    public LocalPushTransport() {
+        Arrays.stream(PushSendException.ErrorCode.values())
+                .forEach(code -> errorCounts.put(code, new AtomicLong()));
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isSimulated() {
+        return true;
+    }
+
+    @Override
+    public String send(PushMessage message) {
+        long start = System.nanoTime();
+        try {
+            simulateLatency();
+
+            if (isRateLimited()) {
+                throw fail(PushSendException.ErrorCode.QUOTA_EXCEEDED, "Simulated rate limit exceeded");
+            }
+
+            String token = message.getToken();
+            if (token == null || token.isEmpty()) {
+                throw fail(PushSendException.ErrorCode.INVALID_ARGUMENT, "Simulated invalid token");
+            }
+            if (token.startsWith(UNREGISTERED_TOKEN_PREFIX)
+                    || ThreadLocalRandom.current().nextDouble() < unregisteredRate) {
+                throw fail(PushSendException.ErrorCode.UNREGISTERED, "Simulated unregistered token");
+            }
+
+            successCount.incrementAndGet();
+            return "local-" + UUID.randomUUID();
+        } finally {
+            recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 누적 통계 초기화 (벤치마크 시작 전 호출)
+     */
+    public void reset() {
+        successCount.set(0);
+        errorCounts.values().forEach(count -> count.set(0));
+        latencies = new AtomicLongArray(LATENCY_BUCKETS);
+        latencyCount.set(0);
+    }
+
+    public long getSuccessCount() {
+        return successCount.get();
+    }
+
+    public Map<PushSendException.ErrorCode, Long> getErrorCounts() {
+        Map<PushSendException.ErrorCode, Long> snapshot = new EnumMap<>(PushSendException.ErrorCode.class);
+        errorCounts.forEach((code, count) -> snapshot.put(code, count.get()));
+        return snapshot;
+    }
+
+    /**
+     * 기록된 전송 지연시간의 백분위수 (밀리초)
+     */
+    public double getLatencyPercentileMs(double percentile) {
+        int count = (int) Math.min(latencyCount.get(), LATENCY_BUCKETS);
+        if (count == 0) {
+            return 0.0;
+        }
+        long[] sorted = new long[count];
+        AtomicLongArray current = latencies;
+        for (int i = 0; i < count; i++) {
+            sorted[i] = current.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1000.0;
+    }
+
+    private void simulateLatency() {
+        long delayMs = latencyMs;
+        if (jitterMs > 0) {
+            delayMs += ThreadLocalRandom.current().nextLong(jitterMs + 1);
+        }
+        if (delayMs > 0) {
+            LockSupport.parkNanos(delayMs * 1_000_000L);
+        }
+    }
+
+    /**
+     * 1초 고정 윈도우 기반 전송 한도 체크
+     */
+    private boolean isRateLimited() {
+        if (rateLimitPerSecond <= 0) {
+            return false;
+        }
+        long nowSecond = System.currentTimeMillis() / 1000;
+        long start = windowStart.get();
+        if (start != nowSecond && windowStart.compareAndSet(start, nowSecond)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() > rateLimitPerSecond;
+    }
+
+    private PushSendException fail(PushSendException.ErrorCode code, String message) {
+        errorCounts.get(code).incrementAndGet();
+        return new PushSendException(code, message);
+    }
+
+    private void recordLatency(long elapsedNanos) {
+        long index = latencyCount.getAndIncrement();
+        if (index < LATENCY_BUCKETS) {
+            latencies.set((int) index, elapsedNanos / 1000);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.medicine.service.push;
+
+import com.medicine.model.FcmToken;
+import com.medicine.repository.FcmTokenRepository;
+import com.medicine.service.PushNotificationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 푸시 전체 발송(fan-out) 처리량 벤치마크
+ * 합성 토큰을 운영 토큰과 분리된 키(bench:fcm:...)에 저장한 뒤 전체 발송을 실행하여 초당 전송 수와 p99 지연시간을 측정
+ * - 실제 단말로 발송되지 않도록 로컬 시뮬레이터(push.transport=local)에서만 실행 가능
+ * - 요청 스레드를 붙잡지 않도록 백그라운드 작업으로 실행하고, 작업 ID 로 진행 상태/결과를 조회
+ * - 한 번에 하나만 실행하며, 성공/실패와 관계없이 합성 토큰 키는 모두 삭제
+ */
+@Slf4j
+@Service
+public class PushBenchmarkService {
+
+    public static final String BENCHMARK_USER_PREFIX = "bench-user-";
+    private static final String BENCHMARK_NAMESPACE = "bench:";
+    private static final int MAX_JOBS = 20;
+
+    private final PushTransport pushTransport;
+    private final PushNotificationService pushNotificationService;
+    private final FcmTokenRepository benchmarkTokens;
+
+    private final Map<String, Map<String, Object>> jobs = new ConcurrentHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "push-benchmark");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public PushBenchmarkService(PushTransport pushTransport, PushNotificationService pushNotificationService,
+                                FcmTokenRepository fcmTokenRepository) {
+        this.pushTransport = pushTransport;
+        this.pushNotificationService = pushNotificationService;
+        this.benchmarkTokens = fcmTokenRepository.withNamespace(BENCHMARK_NAMESPACE);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 벤치마크 작업 시작
+     *
+     * @param tokenCount        합성 토큰 수 (예: 10000)
+     * @param unregisteredCount 그 중 UNREGISTERED 로 응답할 토큰 수
+     * @return 작업 ID (getJob 으로 조회)
+     * @throws IllegalStateException 로컬 시뮬레이터가 아니거나 이미 실행 중인 경우
+     */
+    public String startBroadcastBenchmark(int tokenCount, int unregisteredCount) {
+        if (!(pushTransport instanceof LocalPushTransport localTransport)) {
+            throw new IllegalStateException("Push benchmark requires push.transport=local");
+        }
+        if (tokenCount < 1) {
+            throw new IllegalStateException("tokens must be at least 1");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Push benchmark is already running");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        Map<String, Object> job = new ConcurrentHashMap<>();
+        job.put("jobId", jobId);
+        job.put("status", "RUNNING");
+        job.put("tokens", tokenCount);
+        job.put("startedAt", LocalDateTime.now().toString());
+        evictOldJobs();
+        jobs.put(jobId, job);
+
+        try {
+            executor.execute(() -> run(job, localTransport, tokenCount, unregisteredCount));
+        } catch (RuntimeException e) {
+            running.set(false);
+            jobs.remove(jobId);
+            throw e;
+        }
+        return jobId;
+    }
+
+    /**
+     * 작업 상태 조회 (status: RUNNING, COMPLETED, FAILED / 완료 시 result 포함)
+     */
+    public Optional<Map<String, Object>> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(LinkedHashMap::new);
+    }
+
+    private void run(Map<String, Object> job, LocalPushTransport localTransport, int tokenCount, int unregisteredCount) {
+        try {
+            // 이전 실행이 비정상 종료되어 남은 합성 토큰 정리
+            benchmarkTokens.deleteNamespace();
+            seedTokens(tokenCount, unregisteredCount);
+            localTransport.reset();
+
+            log.info("=== Push broadcast benchmark started - Job: {}, Tokens: {} ===", job.get("jobId"), tokenCount);
+            long start = System.nanoTime();
+            pushNotificationService.sendNotificationToAllTokens(benchmarkTokens,
+                    "벤치마크", "푸시 처리량 측정", "/medicine", Map.of("type", "benchmark"));
+            long elapsedNanos = System.nanoTime() - start;
+
+            long attempted = localTransport.getSuccessCount()
+                    + localTransport.getErrorCounts().values().stream().mapToLong(Long::longValue).sum();
+            double elapsedSeconds = elapsedNanos / 1_000_000_000.0;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("tokens", tokenCount);
+            result.put("attempted", attempted);
+            result.put("succeeded", localTransport.getSuccessCount());
+            result.put("errors", localTransport.getErrorCounts());
+            result.put("elapsedMs", elapsedNanos / 1_000_000);
+            result.put("pushesPerSecond", elapsedSeconds > 0 ? attempted / elapsedSeconds : 0.0);
+            result.put("p50Ms", localTransport.getLatencyPercentileMs(50));
+            result.put("p99Ms", localTransport.getLatencyPercentileMs(99));
+
+            job.put("result", result);
+            job.put("status", "COMPLETED");
+            log.info("=== Push broadcast benchmark finished - {} ===", result);
+        } catch (Exception e) {
+            job.put("status", "FAILED");
+            job.put("error", String.valueOf(e.getMessage()));
+            log.error("Push broadcast benchmark failed - Job: {}", job.get("jobId"), e);
+        } finally {
+            try {
+                long deleted = benchmarkTokens.deleteNamespace();
+                log.info("Push benchmark cleanup - {} key(s) deleted", deleted);
+            } catch (Exception e) {
+                log.error("Failed to clean up push benchmark keys", e);
+            }
+            job.put("finishedAt", LocalDateTime.now().toString());
+            running.set(false);
+        }
+    }
+
+    private void seedTokens(int tokenCount, int unregisteredCount) {
+        for (int i = 0; i < tokenCount; i++) {
+            String prefix = i < unregisteredCount ? LocalPushTransport.UNREGISTERED_TOKEN_PREFIX : "bench-";
+            benchmarkTokens.save(new FcmToken(BENCHMARK_USER_PREFIX + i, prefix + UUID.randomUUID()));
+        }
+        log.info("Seeded {} synthetic FCM tokens ({} unregistered)", tokenCount, unregisteredCount);
+    }
+
+    /**
+     * 끝난 작업 기록은 최근 MAX_JOBS 개까지만 보관
+     */
+    private void evictOldJobs() {
+        if (jobs.size() < MAX_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.containsKey("finishedAt"))
+                .min((a, b) -> a.get("finishedAt").toString().compareTo(b.get("finishedAt").toString()))
+                .ifPresent(oldest -> jobs.remove(oldest.get("jobId").toString()));
+    }
+}
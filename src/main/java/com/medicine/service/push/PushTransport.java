@@ -0,0 +1,31 @@
+package com.medicine.service.push;
+
+import com.medicine.dto.PushMessage;
+import com.medicine.exception.PushSendException;
+
+/**
+ * 푸시 전송 수단
+ * 운영에서는 FCM, 부하 테스트에서는 로컬 시뮬레이터를 사용 (push.transport)
+ */
+public interface PushTransport {
+
+    /**
+     * 전송 가능 여부
+     */
+    boolean isEnabled();
+
+    /**
+     * 실제 단말로 보내지 않는 시뮬레이터인지 (true 이면 Web Push 등 다른 실제 전송도 하지 않음)
+     */
+    default boolean isSimulated() {
+        return false;
+    }
+
+    /**
+     * 단일 토큰으로 메시지 전송
+     *
+     * @return 전송 수단이 발급한 메시지 ID
+     * @throws PushSendException 전송 실패 시
+     */
+    String send(PushMessage message) throws PushSendException;
+}
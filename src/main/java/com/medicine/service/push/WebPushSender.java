@@ -0,0 +1,484 @@
+package com.medicine.service.push;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medicine.model.FcmToken;
+import com.medicine.model.PushSubscription;
+import com.medicine.repository.FcmTokenRepository;
+import com.medicine.repository.PushSubscriptionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyAgreement;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * VAPID 기반 Web Push 직접 전송 (FCM 미경유)
+ * - RFC 8291 (aes128gcm) 페이로드 암호화
+ * - 푸시 서비스(origin)별 HTTP/2 연결 재사용
+ * - audience 별 VAPID JWT 캐시
+ * - 병렬 전송 및 404/410 응답 시 구독 정리
+ * - 구독 endpoint 는 https 및 허용된 푸시 서비스 호스트만 저장/전송 (임의 주소로의 서버 요청 방지)
+ * - 구독에 같은 브라우저의 FCM 토큰이 연결되어 있으면 전송 결과로 돌려주어 그 토큰만 FCM 전송에서 제외
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class WebPushSender {
+
+    private static final int RECORD_SIZE = 4096;
+    private static final int MAX_PAYLOAD_SIZE = RECORD_SIZE - 16 - 1;  // GCM 태그 + 패딩 구분자
+    private static final long JWT_TTL_SECONDS = 12 * 60 * 60;
+    private static final long JWT_REFRESH_MARGIN_SECONDS = 60 * 60;
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_URL_DECODER = Base64.getUrlDecoder();
+
+    private final PushSubscriptionRepository pushSubscriptionRepository;
+    private final FcmTokenRepository fcmTokenRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${webpush.enabled:false}")
+    private boolean enabled;
+
+    @Value("${webpush.public-key:}")
+    private String publicKeyBase64;
+
+    @Value("${webpush.private-key:}")
+    private String privateKeyBase64;
+
+    @Value("${webpush.subject:mailto:admin@medicine-app.com}")
+    private String subject;
+
+    @Value("${webpush.ttl-seconds:86400}")
+    private int ttlSeconds;
+
+    @Value("${webpush.max-concurrency:64}")
+    private int maxConcurrency;
+
+    // 허용 푸시 서비스 호스트 (자신 또는 하위 도메인): FCM, Mozilla, Apple, WNS
+    @Value("${webpush.allowed-hosts:fcm.googleapis.com,push.services.mozilla.com,push.apple.com,notify.windows.com}")
+    private String[] allowedHosts;
+
+    private final Map<String, HttpClient> clientsByOrigin = new ConcurrentHashMap<>();
+    private final Map<String, CachedJwt> jwtByAudience = new ConcurrentHashMap<>();
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private ECParameterSpec p256;
+    private PrivateKey vapidPrivateKey;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Web Push (VAPID) disabled");
+            return;
+        }
+
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            p256 = parameters.getParameterSpec(ECParameterSpec.class);
+
+            byte[] d = BASE64_URL_DECODER.decode(privateKeyBase64);
+            vapidPrivateKey = KeyFactory.getInstance("EC")
+                    .generatePrivate(new ECPrivateKeySpec(new BigInteger(1, d), p256));
+
+            log.info("Web Push (VAPID) initialized - Subject: {}", subject);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            log.error("Invalid VAPID key configuration. Web Push disabled.", e);
+            enabled = false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getPublicKey() {
+        return publicKeyBase64;
+    }
+
+    /**
+     * 브라우저 구독 저장 (endpoint 기준으로 덮어씀)
+     * 다른 사용자의 구독은 같은 키(p256dh/auth)를 가진 브라우저에서만 넘겨받을 수 있음
+     * 연결할 FCM 토큰은 본인에게 등록된 토큰일 때만 저장
+     */
+    public void subscribe(String username, PushSubscription subscription) {
+        if (subscription.getEndpoint() == null || subscription.getKeys() == null
+                || subscription.getKeys().getP256dh() == null || subscription.getKeys().getAuth() == null) {
+            throw new IllegalArgumentException("Invalid push subscription");
+        }
+        if (!isAllowedEndpoint(subscription.getEndpoint())) {
+            throw new IllegalArgumentException("Unsupported push service endpoint");
+        }
+
+        Optional<PushSubscription> existing = pushSubscriptionRepository.findById(subscription.getEndpoint());
+        if (existing.isPresent() && !username.equals(existing.get().getUsername())
+                && !subscription.getKeys().equals(existing.get().getKeys())) {
+            throw new IllegalArgumentException("Push subscription belongs to another user");
+        }
+
+        if (subscription.getFcmToken() != null && fcmTokenRepository.findByUserId(username).stream()
+                .map(FcmToken::getToken).noneMatch(subscription.getFcmToken()::equals)) {
+            subscription.setFcmToken(null);
+        }
+
+        subscription.setUsername(username);
+        pushSubscriptionRepository.save(subscription);
+        log.info("Web Push subscription saved for user: {}", username);
+    }
+
+    /**
+     * 브라우저 구독 삭제 (본인 구독만)
+     */
+    public void unsubscribe(String username, String endpoint) {
+        pushSubscriptionRepository.findById(endpoint)
+                .filter(subscription -> username.equals(subscription.getUsername()))
+                .ifPresent(subscription -> {
+                    pushSubscriptionRepository.deleteById(endpoint);
+                    log.info("Web Push subscription removed for user: {}", username);
+                });
+    }
+
+    /**
+     * 특정 사용자의 모든 구독으로 전송
+     *
+     * @return 전송한 구독에 연결된 FCM 토큰 (FCM 중복 전송 방지용)
+     */
+    public Set<String> sendToUser(String username, String title, String body, String url, Map<String, String> data) {
+        if (!enabled) {
+            return Set.of();
+        }
+        List<PushSubscription> subscriptions = pushSubscriptionRepository.findByUsername(username);
+        return deliver(subscriptions, title, body, url, data);
+    }
+
+    /**
+     * 지정한 사용자들의 구독으로 한 번에 전송
+     *
+     * @return 전송한 구독에 연결된 FCM 토큰
+     */
+    public Set<String> sendToUsers(Collection<String> usernames, String title, String body, String url, Map<String, String> data) {
+        if (!enabled || usernames.isEmpty()) {
+            return Set.of();
+        }
+
+        List<PushSubscription> targets = new ArrayList<>();
+        for (String username : usernames) {
+            targets.addAll(pushSubscriptionRepository.findByUsername(username));
+        }
+        return deliver(targets, title, body, url, data);
+    }
+
+    /**
+     * 모든 구독으로 전송 (excludedUsername 이 null 이 아니면 해당 사용자 제외)
+     *
+     * @return 전송한 구독에 연결된 FCM 토큰
+     */
+    public Set<String> sendToAll(String excludedUsername, String title, String body, String url, Map<String, String> data) {
+        if (!enabled) {
+            return Set.of();
+        }
+
+        List<PushSubscription> targets = new ArrayList<>();
+        for (PushSubscription subscription : pushSubscriptionRepository.findAll()) {
+            if (subscription != null && !Objects.equals(subscription.getUsername(), excludedUsername)) {
+                targets.add(subscription);
+            }
+        }
+        return deliver(targets, title, body, url, data);
+    }
+
+    /**
+     * https 이면서 허용된 푸시 서비스 호스트(또는 그 하위 도메인)인지
+     */
+    boolean isAllowedEndpoint(String endpoint) {
+        URI uri;
+        try {
+            uri = URI.create(endpoint);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (!"https".equalsIgnoreCase(uri.getScheme()) || uri.getHost() == null || uri.getRawUserInfo() != null
+                || (uri.getPort() != -1 && uri.getPort() != 443)) {
+            return false;
+        }
+
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        for (String allowed : allowedHosts) {
+            String suffix = allowed.trim().toLowerCase(Locale.ROOT);
+            if (!suffix.isEmpty() && (host.equals(suffix) || host.endsWith("." + suffix))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 병렬 전송 (호출 스레드는 응답을 기다리지 않음, 동시 전송 수 초과 시에만 대기)
+     *
+     * @return 전송을 시작한 구독에 연결된 FCM 토큰
+     */
+    private Set<String> deliver(List<PushSubscription> subscriptions, String title, String body, String url, Map<String, String> data) {
+        Set<String> coveredFcmTokens = new HashSet<>();
+        if (subscriptions.isEmpty()) {
+            return coveredFcmTokens;
+        }
+
+        byte[] payload;
+        try {
+            Map<String, Object> message = new HashMap<>();
+            message.put("source", "webpush");
+            message.put("title", title);
+            message.put("body", body);
+            message.put("url", url != null ? url : "/medicine");
+            if (data != null) {
+                message.put("data", data);
+            }
+            payload = objectMapper.writeValueAsBytes(message);
+        } catch (Exception e) {
+            log.error("Failed to serialize Web Push payload", e);
+            return coveredFcmTokens;
+        }
+
+        if (payload.length > MAX_PAYLOAD_SIZE) {
+            log.warn("Web Push payload too large ({} bytes), skipping", payload.length);
+            return coveredFcmTokens;
+        }
+
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger pruned = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> futures = new ArrayList<>(subscriptions.size());
+
+        for (PushSubscription subscription : subscriptions) {
+            if (!isAllowedEndpoint(subscription.getEndpoint())) {
+                // 검증 도입 전에 저장된 구독
+                pushSubscriptionRepository.deleteById(subscription.getEndpoint());
+                pruned.incrementAndGet();
+                log.warn("Removed Web Push subscription with disallowed endpoint for user: {}", subscription.getUsername());
+                continue;
+            }
+
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            CompletableFuture<Void> future;
+            try {
+                future = sendAsync(subscription, payload)
+                        .thenAccept(status -> {
+                            if (status == 404 || status == 410) {
+                                pushSubscriptionRepository.deleteById(subscription.getEndpoint());
+                                pruned.incrementAndGet();
+                                log.info("🗑️ Removed expired Web Push subscription for user: {}", subscription.getUsername());
+                            } else if (status >= 200 && status < 300) {
+                                sent.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                                log.warn("Web Push rejected - status: {}, user: {}", status, subscription.getUsername());
+                            }
+                        })
+                        .exceptionally(e -> {
+                            failed.incrementAndGet();
+                            log.error("Web Push delivery failed for user: {}", subscription.getUsername(), e);
+                            return null;
+                        })
+                        .whenComplete((ignored, e) -> permits.release());
+            } catch (Exception e) {
+                permits.release();
+                failed.incrementAndGet();
+                log.error("Failed to prepare Web Push for user: {}", subscription.getUsername(), e);
+                continue;
+            }
+            futures.add(future);
+            if (subscription.getFcmToken() != null) {
+                coveredFcmTokens.add(subscription.getFcmToken());
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .whenComplete((ignored, e) -> log.info("📢 Web Push complete - Sent: {}, Pruned: {}, Failed: {}",
+                        sent.get(), pruned.get(), failed.get()));
+        return coveredFcmTokens;
+    }
+
+    private CompletableFuture<Integer> sendAsync(PushSubscription subscription, byte[] payload) throws GeneralSecurityException {
+        URI endpoint = URI.create(subscription.getEndpoint());
+        String audience = endpoint.getScheme() + "://" + endpoint.getAuthority();
+
+        byte[] encrypted = encrypt(payload,
+                BASE64_URL_DECODER.decode(subscription.getKeys().getP256dh()),
+                BASE64_URL_DECODER.decode(subscription.getKeys().getAuth()));
+
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(10))
+                .header("Authorization", "vapid t=" + getJwt(audience) + ", k=" + publicKeyBase64)
+                .header("Content-Encoding", "aes128gcm")
+                .header("Content-Type", "application/octet-stream")
+                .header("TTL", String.valueOf(ttlSeconds))
+                .header("Urgency", "high")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(encrypted))
+                .build();
+
+        return clientFor(audience)
+                .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    /**
+     * 푸시 서비스별 HTTP/2 클라이언트 (연결을 재사용하여 다중화)
+     */
+    private HttpClient clientFor(String origin) {
+        return clientsByOrigin.computeIfAbsent(origin, key -> HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build());
+    }
+
+    /**
+     * audience 별 VAPID JWT (만료 1시간 전까지 재사용)
+     */
+    private String getJwt(String audience) throws GeneralSecurityException {
+        long now = System.currentTimeMillis() / 1000;
+        CachedJwt cached = jwtByAudience.get(audience);
+        if (cached != null && cached.expiresAt - JWT_REFRESH_MARGIN_SECONDS > now) {
+            return cached.token;
+        }
+
+        long expiresAt = now + JWT_TTL_SECONDS;
+        String header = BASE64_URL.encodeToString("{\"typ\":\"JWT\",\"alg\":\"ES256\"}".getBytes(StandardCharsets.UTF_8));
+        String claims;
+        try {
+            claims = BASE64_URL.encodeToString(objectMapper.writeValueAsBytes(
+                    Map.of("aud", audience, "exp", expiresAt, "sub", subject)));
+        } catch (Exception e) {
+            throw new GeneralSecurityException("Failed to build VAPID claims", e);
+        }
+
+        String unsigned = header + "." + claims;
+        Signature signature = Signature.getInstance("SHA256withECDSAinP1363Format");
+        signature.initSign(vapidPrivateKey);
+        signature.update(unsigned.getBytes(StandardCharsets.US_ASCII));
+        String token = unsigned + "." + BASE64_URL.encodeToString(signature.sign());
+
+        jwtByAudience.put(audience, new CachedJwt(token, expiresAt));
+        return token;
+    }
+
+    /**
+     * RFC 8291 aes128gcm 암호화 (단일 레코드)
+     */
+    private byte[] encrypt(byte[] payload, byte[] userAgentPublic, byte[] authSecret) throws GeneralSecurityException {
+        // 임시 키 쌍 생성 및 ECDH
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(p256, secureRandom);
+        KeyPair ephemeral = generator.generateKeyPair();
+        byte[] serverPublic = encodePoint((ECPublicKey) ephemeral.getPublic());
+
+        KeyAgreement agreement = KeyAgreement.getInstance("ECDH");
+        agreement.init(ephemeral.getPrivate());
+        agreement.doPhase(decodePoint(userAgentPublic), true);
+        byte[] sharedSecret = agreement.generateSecret();
+
+        // IKM = HKDF(auth_secret, ecdh_secret, "WebPush: info" || 0x00 || ua_public || as_public, 32)
+        byte[] keyInfo = concat("WebPush: info\0".getBytes(StandardCharsets.US_ASCII), userAgentPublic, serverPublic);
+        byte[] ikm = hkdfExpand(hmac(authSecret, sharedSecret), keyInfo, 32);
+
+        byte[] salt = new byte[16];
+        secureRandom.nextBytes(salt);
+        byte[] prk = hmac(salt, ikm);
+        byte[] cek = hkdfExpand(prk, "Content-Encoding: aes128gcm\0".getBytes(StandardCharsets.US_ASCII), 16);
+        byte[] nonce = hkdfExpand(prk, "Content-Encoding: nonce\0".getBytes(StandardCharsets.US_ASCII), 12);
+
+        // 마지막 레코드 구분자(0x02) 추가 후 암호화
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(cek, "AES"), new GCMParameterSpec(128, nonce));
+        byte[] ciphertext = cipher.doFinal(concat(payload, new byte[]{2}));
+
+        // 헤더: salt(16) || rs(4) || idlen(1) || keyid(65)
+        return ByteBuffer.allocate(16 + 4 + 1 + serverPublic.length + ciphertext.length)
+                .put(salt)
+                .putInt(RECORD_SIZE)
+                .put((byte) serverPublic.length)
+                .put(serverPublic)
+                .put(ciphertext)
+                .array();
+    }
+
+    private byte[] hmac(byte[] key, byte[] input) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        return mac.doFinal(input);
+    }
+
+    /**
+     * HKDF-Expand (출력 길이 32 이하, 단일 블록)
+     */
+    private byte[] hkdfExpand(byte[] prk, byte[] info, int length) throws GeneralSecurityException {
+        byte[] block = hmac(prk, concat(info, new byte[]{1}));
+        return Arrays.copyOf(block, length);
+    }
+
+    private PublicKey decodePoint(byte[] uncompressed) throws GeneralSecurityException {
+        if (uncompressed.length != 65 || uncompressed[0] != 4) {
+            throw new InvalidKeyException("Invalid p256dh key");
+        }
+        BigInteger x = new BigInteger(1, Arrays.copyOfRange(uncompressed, 1, 33));
+        BigInteger y = new BigInteger(1, Arrays.copyOfRange(uncompressed, 33, 65));
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(new ECPoint(x, y), p256));
+    }
+
+    private byte[] encodePoint(ECPublicKey key) {
+        byte[] result = new byte[65];
+        result[0] = 4;
+        copyUnsigned(key.getW().getAffineX(), result, 1);
+        copyUnsigned(key.getW().getAffineY(), result, 33);
+        return result;
+    }
+
+    private void copyUnsigned(BigInteger value, byte[] target, int offset) {
+        byte[] bytes = value.toByteArray();
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, target, offset + 32 - length, length);
+    }
+
+    private byte[] concat(byte[]... parts) {
+        int length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        for (byte[] part : parts) {
+            buffer.put(part);
+        }
+        return buffer.array();
+    }
+
+    private record CachedJwt(String token, long expiresAt) {
+    }
+}
@@ -119,3 +119,30 @@ self.addEventListener('notificationclick', (event) => {
 });
 
 console.log('[firebase-messaging-sw.js] Service Worker loaded successfully');
+
+// VAPID Web Push 직접 수신 처리 (FCM 메시지는 위의 onBackgroundMessage 에서 처리)
+self.addEventListener('push', (event) => {
+    let payload;
+    try {
+        payload = event.data ? event.data.json() : null;
+    } catch (e) {
+        return;
+    }
+
+    if (!payload || payload.source !== 'webpush') {
+        return;
+    }
+
+    const data = payload.data || {};
+    event.waitUntil(self.registration.showNotification(payload.title || '약복용 알림', {
+        body: payload.body || '새로운 알림이 있습니다',
+        icon: '/icons/icon-192x192.png',
+        badge: '/icons/badge-72x72.png',
+        tag: data.type || 'default',
+        data: {
+            url: payload.url || '/medicine',
+            ...data
+        },
+        vibrate: [200, 100, 200]
+    }));
+});